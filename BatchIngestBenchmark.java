@@ -0,0 +1,229 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingest throughput for car_data and location: one executeUpdate per row on
+ * auto-commit connections (the old path) against BatchWriter. Takes a JDBC URL, user
+ * and password, defaulting to an in-memory H2 database (put the H2 jar on the
+ * classpath). Point it only at a scratch database: it drops and recreates the two
+ * tables and their rollup tables without foreign keys. The batched times include
+ * refreshing the rollups, which is also shown on its own.
+ *
+ * Against a networked MySQL or PostgreSQL most of the old path's time is round
+ * trips, which the batched multi-row inserts remove; an in-memory database shows
+ * only the per-statement and per-commit overhead.
+ *
+ * It then reads one driver's whole session back the way a chart does, through
+ * TelemetryRollup.loadCarData and loadLocations, once from the raw samples and
+ * once for each rollup.
+ */
+public class BatchIngestBenchmark {
+
+    private static final int DRIVERS = 20;
+    private static final int SAMPLES_PER_DRIVER = 2_500;
+    private static final long START_MS = 1_709_391_600_000L;
+    private static final long END_MS = START_MS + SAMPLES_PER_DRIVER * 270L;
+    private static final int ROUNDS = 4;
+    private static final int READS = 200;
+
+    // Sample rows start with race_id, driver_id and date_ms
+    private static final BatchWriter.SampleKey<long[]> SAMPLE_KEY = new BatchWriter.SampleKey<long[]>() {
+        @Override
+        public int raceId(long[] row) {
+            return (int) row[0];
+        }
+
+        @Override
+        public int driverId(long[] row) {
+            return (int) row[1];
+        }
+
+        @Override
+        public long dateMs(long[] row) {
+            return row[2];
+        }
+    };
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:ingest;DB_CLOSE_DELAY=-1";
+        String user = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+
+        ConnectionPool pool = ConnectionPool.shared(url, user, password);
+        List<long[]> carData = sampleCarData();
+        List<long[]> locations = sampleLocations();
+
+        System.out.printf("%-10s %-10s %10s %12s %12s%n", "table", "path", "rows", "ms", "rows/s");
+        for (int round = 0; round < ROUNDS; round++) {
+            // The first rounds warm up the JIT and the server
+            boolean print = round == ROUNDS - 1;
+
+            recreateTables(pool);
+            report(print, "car_data", "per-row", rowByRow(url, user, password, BatchWriter.Table.CAR_DATA, carData));
+            recreateTables(pool);
+            reportBatched(print, "car_data", batched(pool, BatchWriter.Table.CAR_DATA, carData));
+
+            recreateTables(pool);
+            report(print, "location", "per-row", rowByRow(url, user, password, BatchWriter.Table.LOCATION, locations));
+            recreateTables(pool);
+            reportBatched(print, "location", batched(pool, BatchWriter.Table.LOCATION, locations));
+        }
+
+        // Chart reads over the batched tables, whose rollups are filled in
+        recreateTables(pool);
+        new BatchWriter(pool).write(BatchWriter.Table.CAR_DATA, carData, BatchIngestBenchmark::bind, SAMPLE_KEY);
+        new BatchWriter(pool).write(BatchWriter.Table.LOCATION, locations, BatchIngestBenchmark::bind, SAMPLE_KEY);
+        System.out.println();
+        System.out.printf("%-10s %-12s %10s %12s%n", "table", "resolution", "points", "ms/read");
+        // Asking for more points than there are buckets falls back to the raw samples
+        for (int points : new int[] {SAMPLES_PER_DRIVER, 500, 60}) {
+            for (int round = 0; round < 2; round++) {
+                boolean print = round == 1;
+                readCarData(pool, points, print);
+                readLocations(pool, points, print);
+            }
+        }
+
+        recreateTables(pool);
+        ConnectionPool.closeAll();
+    }
+
+    private static void readCarData(ConnectionPool pool, int points, boolean print) throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            TelemetryRollup.CarSeries series = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                series = TelemetryRollup.loadCarData(conn, 1, 1, START_MS, END_MS, points);
+            }
+            reportRead(print, "car_data", series.getResolution(), series.size(), System.nanoTime() - start);
+        }
+    }
+
+    private static void readLocations(ConnectionPool pool, int points, boolean print) throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            TelemetryRollup.LocationSeries series = null;
+            long start = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                series = TelemetryRollup.loadLocations(conn, 1, 1, START_MS, END_MS, points);
+            }
+            reportRead(print, "location", series.getResolution(), series.size(), System.nanoTime() - start);
+        }
+    }
+
+    private static void reportRead(boolean print, String table, TelemetryRollup.Resolution resolution, int points,
+                                   long nanos) {
+        if (print) {
+            System.out.printf("%-10s %-12s %10d %12.3f%n",
+                    table, resolution, points, nanos / 1_000_000.0 / READS);
+        }
+    }
+
+    /**
+     * The old way: a fresh connection per driver and an auto-committed insert per row
+     */
+    private static long rowByRow(String url, String user, String password, BatchWriter.Table table,
+                                 List<long[]> rows) throws SQLException {
+        long start = System.nanoTime();
+        int perDriver = rows.size() / DRIVERS;
+        for (int driver = 0; driver < DRIVERS; driver++) {
+            try (Connection conn = DriverManager.getConnection(url, user, password);
+                 PreparedStatement stmt = conn.prepareStatement(table.insertSql())) {
+                for (long[] row : rows.subList(driver * perDriver, (driver + 1) * perDriver)) {
+                    bind(stmt, row);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static BatchWriter.Result batched(ConnectionPool pool, BatchWriter.Table table, List<long[]> rows)
+            throws SQLException {
+        return new BatchWriter(pool).write(table, rows, BatchIngestBenchmark::bind, SAMPLE_KEY);
+    }
+
+    private static void bind(PreparedStatement stmt, long[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            stmt.setLong(i + 1, row[i]);
+        }
+    }
+
+    /**
+     * The whole write, then its inserts and its rollup refresh on their own; the old
+     * path kept no rollups, so it compares with the inserts
+     */
+    private static void reportBatched(boolean print, String table, BatchWriter.Result result) {
+        long nanos = (long) (result.getElapsedMillis() * 1_000_000);
+        long rollupNanos = (long) (result.getRollupMillis() * 1_000_000);
+        report(print, table, "batched", nanos);
+        report(print, table, " inserts", nanos - rollupNanos);
+        report(print, table, " rollups", rollupNanos);
+    }
+
+    private static void report(boolean print, String table, String path, long nanos) {
+        if (print) {
+            int rows = DRIVERS * SAMPLES_PER_DRIVER;
+            System.out.printf("%-10s %-10s %10d %12.1f %12.0f%n",
+                    table, path, rows, nanos / 1_000_000.0, rows * 1_000_000_000.0 / nanos);
+        }
+    }
+
+    private static void recreateTables(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS car_data");
+            stmt.execute("DROP TABLE IF EXISTS location");
+            stmt.execute("DROP TABLE IF EXISTS car_data_rollup");
+            stmt.execute("DROP TABLE IF EXISTS location_rollup");
+            stmt.execute("CREATE TABLE car_data (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "date_ms BIGINT NOT NULL, speed SMALLINT, rpm SMALLINT, n_gear SMALLINT, "
+                    + "throttle SMALLINT, brake SMALLINT, drs SMALLINT, PRIMARY KEY (race_id, driver_id, date_ms))");
+            stmt.execute("CREATE TABLE location (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "date_ms BIGINT NOT NULL, x INTEGER, y INTEGER, z INTEGER, "
+                    + "PRIMARY KEY (race_id, driver_id, date_ms))");
+            // The batched path keeps TelemetryRollup's buckets up to date as well
+            stmt.execute("CREATE TABLE car_data_rollup (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "bucket_ms INTEGER NOT NULL, start_ms BIGINT NOT NULL, samples INTEGER NOT NULL, "
+                    + "min_speed SMALLINT, max_speed SMALLINT, avg_speed DECIMAL(8,2), "
+                    + "min_rpm SMALLINT, max_rpm SMALLINT, avg_rpm DECIMAL(8,2), "
+                    + "min_throttle SMALLINT, max_throttle SMALLINT, avg_throttle DECIMAL(8,2), "
+                    + "gear_0 INTEGER NOT NULL, gear_1 INTEGER NOT NULL, gear_2 INTEGER NOT NULL, "
+                    + "gear_3 INTEGER NOT NULL, gear_4 INTEGER NOT NULL, gear_5 INTEGER NOT NULL, "
+                    + "gear_6 INTEGER NOT NULL, gear_7 INTEGER NOT NULL, gear_8 INTEGER NOT NULL, "
+                    + "PRIMARY KEY (race_id, driver_id, bucket_ms, start_ms))");
+            stmt.execute("CREATE TABLE location_rollup (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "bucket_ms INTEGER NOT NULL, start_ms BIGINT NOT NULL, samples INTEGER NOT NULL, "
+                    + "x INTEGER, y INTEGER, z INTEGER, PRIMARY KEY (race_id, driver_id, bucket_ms, start_ms))");
+        }
+    }
+
+    private static List<long[]> sampleCarData() {
+        List<long[]> rows = new ArrayList<>(DRIVERS * SAMPLES_PER_DRIVER);
+        long start = START_MS;
+        for (int driver = 1; driver <= DRIVERS; driver++) {
+            for (int i = 0; i < SAMPLES_PER_DRIVER; i++) {
+                rows.add(new long[] {1, driver, start + i * 270L,
+                        180 + (long) (120 * Math.sin(i / 90.0)), 9000 + (long) (3000 * Math.sin(i / 45.0)),
+                        1 + i % 8, i % 7 == 0 ? 0 : 100, i % 7 == 0 ? 100 : 0, i % 50 < 10 ? 12 : 0});
+            }
+        }
+        return rows;
+    }
+
+    private static List<long[]> sampleLocations() {
+        List<long[]> rows = new ArrayList<>(DRIVERS * SAMPLES_PER_DRIVER);
+        long start = START_MS;
+        for (int driver = 1; driver <= DRIVERS; driver++) {
+            for (int i = 0; i < SAMPLES_PER_DRIVER; i++) {
+                rows.add(new long[] {1, driver, start + i * 270L,
+                        (long) (4000 * Math.cos(i / 300.0)), (long) (2500 * Math.sin(i / 300.0)), 120 + i % 30});
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,411 @@
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+/**
+ * Bulk inserts for the ingest tables. Rows are sent with addBatch/executeBatch in
+ * chunks of a configurable size, one transaction per chunk, on a single connection
+ * for the whole write. The pool enables the drivers' multi-row rewrite
+ * (rewriteBatchedStatements for MySQL, reWriteBatchedInserts for PostgreSQL), so
+ * a chunk goes out as a few INSERT ... VALUES (...), (...) statements instead of
+ * one round trip per row.
+ *
+ * A chunk that fails, for instance on a duplicate key, is rolled back. With
+ * skipFailedRows set it is then retried row by row and only the offending rows are
+ * dropped; otherwise the write stops with the error.
+ *
+ * After a write the pool's QueryCache drops the results that read the table.
+ * Writes to car_data and location also refresh the TelemetryRollup buckets that
+ * the written samples fall in, once all the chunks are in, or once the write has
+ * failed for the chunks committed before it. The caller's SampleKey says which
+ * race, driver and time each of those rows is for.
+ *
+ * The batch size comes from the f1.db.batch-size system property (default 1000).
+ */
+public class BatchWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = Integer.getInteger("f1.db.batch-size", 1000);
+
+    /**
+     * Tables the writer knows how to fill, with their insert columns in bind order
+     */
+    public enum Table {
+        LAP_DATA("lap_data", "race_id", "driver_id", "lap_number", "position",
+                "lap_time_ms", "sector1_ms", "sector2_ms", "sector3_ms", "speed"),
+        RACE_RESULTS("race_results", "race_id", "driver_id", "position", "points",
+                "grid_position", "status", "laps_completed"),
+        CAR_DATA("car_data", "race_id", "driver_id", "date_ms", "speed", "rpm",
+                "n_gear", "throttle", "brake", "drs"),
+        LOCATION("location", "race_id", "driver_id", "date_ms", "x", "y", "z");
+
+        private final String name;
+        private final String[] columns;
+
+        Table(String name, String... columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        String insertSql() {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(name)
+                    .append(" (").append(String.join(", ", columns)).append(") VALUES (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            return sql.append(')').toString();
+        }
+    }
+
+    /**
+     * Sets one row's parameters, in the table's column order
+     */
+    public interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    /**
+     * The race, driver and sample time of a car_data or location row, which say
+     * which rollup buckets the row falls in
+     */
+    public interface SampleKey<T> {
+        int raceId(T row);
+
+        int driverId(T row);
+
+        long dateMs(T row);
+    }
+
+    /**
+     * The sample key of rows given as values in the table's column order
+     */
+    private static final SampleKey<Object[]> VALUES_KEY = new SampleKey<Object[]>() {
+        @Override
+        public int raceId(Object[] row) {
+            return ((Number) row[0]).intValue();
+        }
+
+        @Override
+        public int driverId(Object[] row) {
+            return ((Number) row[1]).intValue();
+        }
+
+        @Override
+        public long dateMs(Object[] row) {
+            return ((Number) row[2]).longValue();
+        }
+    };
+
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final boolean skipFailedRows;
+
+    public BatchWriter(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE, false);
+    }
+
+    public BatchWriter(DataSource dataSource, int batchSize, boolean skipFailedRows) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.skipFailedRows = skipFailedRows;
+    }
+
+    /**
+     * Write rows to a table without rollups; car_data and location rows need a SampleKey
+     */
+    public <T> Result write(Table table, Iterable<T> rows, RowBinder<T> binder) throws SQLException {
+        return write(table, rows, binder, null, chunk -> { });
+    }
+
+    /**
+     * Write car_data or location rows, refreshing the rollup buckets that 'key' puts them in
+     */
+    public <T> Result write(Table table, Iterable<T> rows, RowBinder<T> binder, SampleKey<T> key)
+            throws SQLException {
+        return write(table, rows, binder, key, chunk -> { });
+    }
+
+    /**
+     * Write rows to a table, handing each chunk to onCommit once it is committed
+     */
+    private <T> Result write(Table table, Iterable<T> rows, RowBinder<T> binder, SampleKey<T> key,
+                             Consumer<List<T>> onCommit) throws SQLException {
+        long start = System.nanoTime();
+        int written = 0;
+        int skipped = 0;
+        int batches = 0;
+        long rollupNanos = 0;
+
+        boolean rolledUp = table == Table.CAR_DATA || table == Table.LOCATION;
+        if (rolledUp && key == null) {
+            throw new IllegalArgumentException(table.getName() + " rows need a SampleKey for the rollups");
+        }
+        TelemetryRollup.Spans spans = new TelemetryRollup.Spans();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(table.insertSql())) {
+            conn.setAutoCommit(false);
+
+            List<T> chunk = new ArrayList<>(batchSize);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                chunk.add(row);
+                if (rolledUp) {
+                    spans.add(key.raceId(row), key.driverId(row), key.dateMs(row));
+                }
+                if (chunk.size() == batchSize || !iterator.hasNext()) {
+                    int count = writeChunk(conn, stmt, table, chunk, binder);
+                    if (count > 0) {
+                        onCommit.accept(chunk);
+                    }
+                    written += count;
+                    skipped += chunk.size() - count;
+                    batches++;
+                    chunk.clear();
+                }
+            }
+
+            if (rolledUp) {
+                long rollupStart = System.nanoTime();
+                TelemetryRollup.refresh(conn, table, spans);
+                rollupNanos = System.nanoTime() - rollupStart;
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Samples from the chunks before the failure are in the table; keep their buckets
+            // in step. The spans take in the failed chunk too, which is harmless as a refresh
+            // recomputes whole buckets from what is there.
+            if (rolledUp) {
+                try (Connection conn = dataSource.getConnection()) {
+                    TelemetryRollup.refresh(conn, table, spans);
+                } catch (SQLException refreshError) {
+                    e.addSuppressed(refreshError);
+                }
+            }
+            throw e;
+        } finally {
+            // Chunks committed before a failure are in the table too
+            invalidate(table.getName());
+        }
+
+        return new Result(table, written, skipped, batches, System.nanoTime() - start, rollupNanos);
+    }
+
+    /**
+     * Lap rows for one driver in one race
+     */
+    public Result writeLaps(int raceId, int driverId, List<LapRecord> laps) throws SQLException {
+        return writeLaps(raceId, Collections.singletonMap(driverId, laps));
+    }
+
+    /**
+     * Lap rows for several drivers in one race, keyed by driver id, in one write.
+     * Their driver_race_summary and driver_race_stints rows are refreshed afterwards;
+     * if the write fails, those of the drivers with laps in a committed chunk still are.
+     */
+    public Result writeLaps(int raceId, Map<Integer, List<LapRecord>> lapsByDriver) throws SQLException {
+        List<DriverLap> rows = new ArrayList<>();
+        for (Map.Entry<Integer, List<LapRecord>> entry : lapsByDriver.entrySet()) {
+            for (LapRecord lap : entry.getValue()) {
+                rows.add(new DriverLap(entry.getKey(), lap));
+            }
+        }
+
+        Set<Integer> committed = new HashSet<>();
+        Result result;
+        try {
+            result = write(Table.LAP_DATA, rows, (stmt, row) -> {
+                LapRecord lap = row.lap;
+                stmt.setInt(1, raceId);
+                stmt.setInt(2, row.driverId);
+                stmt.setInt(3, lap.getLapNumber());
+                stmt.setInt(4, lap.getPosition());
+                LapQueries.setMillis(stmt, 5, lap.getLapMillis());
+                LapQueries.setMillis(stmt, 6, lap.getSectorMillis(1));
+                LapQueries.setMillis(stmt, 7, lap.getSectorMillis(2));
+                LapQueries.setMillis(stmt, 8, lap.getSectorMillis(3));
+                stmt.setDouble(9, lap.getSpeed());
+            }, null, chunk -> {
+                for (DriverLap row : chunk) {
+                    committed.add(row.driverId);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            // Laps from the chunks before the failure are in lap_data; keep their summaries in step
+            try {
+                refreshSummaries(raceId, committed);
+            } catch (SQLException refreshError) {
+                e.addSuppressed(refreshError);
+            }
+            throw e;
+        }
+
+        refreshSummaries(raceId, lapsByDriver.keySet());
+        return result;
+    }
+
+    private void refreshSummaries(int raceId, Set<Integer> driverIds) throws SQLException {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            DriverRaceSummary.refresh(conn, raceId, driverIds);
+        } finally {
+            invalidate("driver_race_summary");
+            invalidate("driver_race_stints");
+        }
+    }
+
+    /**
+     * Rows given as values in the table's column order
+     */
+    public Result writeRows(Table table, List<Object[]> rows) throws SQLException {
+        for (Object[] row : rows) {
+            if (row.length != table.getColumnCount()) {
+                throw new SQLException(table.getName() + " takes " + table.getColumnCount()
+                        + " values per row, got " + row.length);
+            }
+        }
+        // car_data and location rows start with race_id, driver_id and date_ms
+        return write(table, rows, (stmt, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                stmt.setObject(i + 1, row[i]);
+            }
+        }, VALUES_KEY, chunk -> { });
+    }
+
+    private void invalidate(String table) {
+        if (dataSource instanceof ConnectionPool) {
+            QueryCache.shared((ConnectionPool) dataSource).invalidate(table);
+        }
+    }
+
+    /**
+     * Send and commit one chunk; returns the number of rows written
+     */
+    private <T> int writeChunk(Connection conn, PreparedStatement stmt, Table table, List<T> chunk,
+                               RowBinder<T> binder) throws SQLException {
+        try {
+            for (T row : chunk) {
+                binder.bind(stmt, row);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+            return chunk.size();
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            stmt.clearBatch();
+            if (!skipFailedRows) {
+                throw e;
+            }
+        }
+
+        // Rewritten batches don't say which row failed, so find out one row at a time.
+        // Each row commits on its own; a failed statement would abort a PostgreSQL transaction.
+        int written = 0;
+        conn.setAutoCommit(true);
+        try {
+            for (T row : chunk) {
+                try {
+                    binder.bind(stmt, row);
+                    stmt.executeUpdate();
+                    written++;
+                } catch (SQLException e) {
+                    System.out.println("Skipping " + table.getName() + " row: " + e.getMessage());
+                }
+            }
+        } finally {
+            conn.setAutoCommit(false);
+        }
+        return written;
+    }
+
+    private static final class DriverLap {
+        private final int driverId;
+        private final LapRecord lap;
+
+        DriverLap(int driverId, LapRecord lap) {
+            this.driverId = driverId;
+            this.lap = lap;
+        }
+    }
+
+    /**
+     * Outcome of one write
+     */
+    public static final class Result {
+        private final Table table;
+        private final int rows;
+        private final int skipped;
+        private final int batches;
+        private final long elapsedNanos;
+        private final long rollupNanos;
+
+        Result(Table table, int rows, int skipped, int batches, long elapsedNanos, long rollupNanos) {
+            this.table = table;
+            this.rows = rows;
+            this.skipped = skipped;
+            this.batches = batches;
+            this.elapsedNanos = elapsedNanos;
+            this.rollupNanos = rollupNanos;
+        }
+
+        public Table getTable() {
+            return table;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        /** Part of the elapsed time spent refreshing rollups, 0 for tables without them */
+        public double getRollupMillis() {
+            return rollupNanos / 1_000_000.0;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d rows (%d skipped) in %d batches, %.1f ms (%.1f ms rollups), %.0f rows/s",
+                    table.getName(), rows, skipped, batches, getElapsedMillis(), getRollupMillis(),
+                    getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current RaceCatalogue of a database, one per connection pool. The first get()
+ * loads it; after that a background thread reloads it every f1.catalogue.refresh-seconds
+ * (default 600, 0 for never) and get() only returns what is in memory. A reload that
+ * fails keeps the catalogue there was and is retried on the next run.
+ */
+public final class CatalogueCache {
+
+    private static final Map<ConnectionPool, CatalogueCache> CACHES = new ConcurrentHashMap<>();
+
+    private final ConnectionPool pool;
+    private volatile RaceCatalogue catalogue;
+
+    private CatalogueCache(ConnectionPool pool) {
+        this.pool = pool;
+
+        long refreshSeconds = Long.getLong("f1.catalogue.refresh-seconds", 600);
+        if (refreshSeconds > 0) {
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "f1-catalogue-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The cache for a pool, created on first use
+     */
+    public static CatalogueCache shared(ConnectionPool pool) {
+        return CACHES.computeIfAbsent(pool, CatalogueCache::new);
+    }
+
+    /**
+     * The current catalogue, loading it if this is the first call; empty if it
+     * couldn't be loaded
+     */
+    public RaceCatalogue get() {
+        RaceCatalogue current = catalogue;
+        if (current == null) {
+            synchronized (this) {
+                if (catalogue == null) {
+                    refreshQuietly();
+                    if (catalogue == null) {
+                        // Leave the retries to the background refresh
+                        catalogue = RaceCatalogue.EMPTY;
+                    }
+                }
+                current = catalogue;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload the catalogue now, as after adding races or results
+     */
+    public RaceCatalogue refresh() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = pool.getConnection()) {
+            RaceCatalogue loaded = RaceCatalogue.load(conn);
+            catalogue = loaded;
+            System.out.printf("Loaded race catalogue: %d seasons in %.1f ms%n",
+                    loaded.getSeasons().size(), (System.nanoTime() - start) / 1_000_000.0);
+            return loaded;
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error loading race catalogue: " + e.getMessage());
+        }
+    }
+}
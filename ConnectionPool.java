@@ -0,0 +1,632 @@
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A small JDBC connection pool, shared per database URL and user so every
+ * F1DatabaseManager and F1DatabaseService (the panels create them freely) reuses the
+ * same open connections instead of paying a handshake per query.
+ *
+ * Connections handed out are proxies whose close() returns the connection to the pool.
+ * Idle connections are validated before reuse if they have been idle for a while,
+ * connections held longer than the leak threshold are reported with the stack that
+ * borrowed them, and prepared statements are cached by the driver.
+ *
+ * Settings are read from system properties:
+ * <pre>
+ *   f1.db.pool.min-idle              connections kept open (default 2)
+ *   f1.db.pool.max-size              upper bound on open connections (default 10)
+ *   f1.db.pool.connection-timeout-ms wait for a free connection before failing (default 30000)
+ *   f1.db.pool.idle-timeout-ms       idle time before a surplus connection is closed (default 600000)
+ *   f1.db.pool.validation-timeout-s  timeout for Connection.isValid (default 5)
+ *   f1.db.pool.leak-detection-ms     report connections held longer than this; 0 disables (default 60000)
+ *   f1.db.pool.statement-cache-size  prepared statements cached per connection (default 250)
+ * </pre>
+ */
+public final class ConnectionPool implements DataSource {
+
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    // Idle connections used within this window are handed out without a round trip
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 5000;
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minIdle;
+    private final int maxSize;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private int total;
+    private int pending;
+    private boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    private ConnectionPool(String url, String user, String password) {
+        this.url = url;
+        this.minIdle = Integer.getInteger("f1.db.pool.min-idle", 2);
+        this.maxSize = Math.max(1, Integer.getInteger("f1.db.pool.max-size", 10));
+        this.connectionTimeoutMs = Long.getLong("f1.db.pool.connection-timeout-ms", 30000);
+        this.idleTimeoutMs = Long.getLong("f1.db.pool.idle-timeout-ms", 600000);
+        this.validationTimeoutSeconds = Integer.getInteger("f1.db.pool.validation-timeout-s", 5);
+        this.leakDetectionMs = Long.getLong("f1.db.pool.leak-detection-ms", 60000);
+        this.connectionProperties = connectionProperties(url, user, password,
+                Integer.getInteger("f1.db.pool.statement-cache-size", 250));
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "f1-db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The pool for a database URL and user, created on first use. A call with a
+     * different password replaces the existing pool and closes it, so a pool opened
+     * with wrong credentials is not handed out again and stops reconnecting.
+     */
+    public static ConnectionPool shared(String url, String user, String password) {
+        ConnectionPool[] replaced = new ConnectionPool[1];
+        ConnectionPool pool = POOLS.compute(url + "|" + user, (key, existing) -> {
+            if (existing != null && existing.hasPassword(password)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return new ConnectionPool(url, user, password);
+        });
+        if (replaced[0] != null) {
+            replaced[0].close();
+        }
+        return pool;
+    }
+
+    private boolean hasPassword(String password) {
+        return Objects.equals(password, connectionProperties.getProperty("password"));
+    }
+
+    /**
+     * Close every shared pool
+     */
+    public static void closeAll() {
+        for (ConnectionPool pool : POOLS.values()) {
+            pool.close();
+        }
+        POOLS.clear();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMs);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("Connection pool for " + url + " is closed");
+                }
+                pending++;
+                try {
+                    while (idle.isEmpty() && total >= maxSize) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeouts.incrementAndGet();
+                            throw new SQLException("No connection available from the pool for " + url
+                                    + " within " + connectionTimeoutMs + " ms (" + total + " open, all in use)");
+                        }
+                        available.awaitNanos(remaining);
+                        if (closed) {
+                            throw new SQLException("Connection pool for " + url + " is closed");
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                } finally {
+                    pending--;
+                }
+
+                if (!idle.isEmpty()) {
+                    candidate = idle.pollFirst();
+                } else {
+                    total++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(DriverManager.getConnection(url, connectionProperties));
+                    created.incrementAndGet();
+                } catch (SQLException e) {
+                    forget();
+                    throw e;
+                }
+            } else if (!isUsable(candidate)) {
+                discard(candidate);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return candidate.lend();
+        }
+    }
+
+    /**
+     * Connections idle longer than the bypass window get a validation round trip
+     */
+    private boolean isUsable(PooledConnection connection) {
+        if (System.currentTimeMillis() - connection.lastReturned < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return connection.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Take back a connection its borrower has closed
+     */
+    private void giveBack(PooledConnection connection) {
+        borrowed.remove(connection);
+        if (!connection.reset()) {
+            discard(connection);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+                connection.closePhysical();
+                return;
+            }
+            connection.lastReturned = System.currentTimeMillis();
+            // Most recently used first, so surplus connections go idle and get retired
+            idle.addFirst(connection);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        connection.closePhysical();
+        discarded.incrementAndGet();
+        forget();
+    }
+
+    private void forget() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retire surplus idle connections, top up to the minimum and report leaks
+     */
+    private void houseKeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> retired = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            // Oldest idle connections sit at the tail
+            while (total > minIdle && !idle.isEmpty() && now - idle.peekLast().lastReturned > idleTimeoutMs) {
+                retired.add(idle.pollLast());
+                total--;
+            }
+            missing = Math.max(0, Math.min(minIdle, maxSize) - total);
+            total += missing;
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection connection : retired) {
+            connection.closePhysical();
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                PooledConnection connection = new PooledConnection(DriverManager.getConnection(url, connectionProperties));
+                created.incrementAndGet();
+                lock.lock();
+                try {
+                    connection.lastReturned = System.currentTimeMillis();
+                    idle.addLast(connection);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                // The database is unreachable; try again on the next pass
+                for (int j = i; j < missing; j++) {
+                    forget();
+                }
+                break;
+            }
+        }
+
+        if (leakDetectionMs > 0) {
+            for (PooledConnection connection : borrowed) {
+                if (!connection.leakReported && now - connection.borrowedAt > leakDetectionMs) {
+                    connection.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection to " + url + " held for "
+                            + (now - connection.borrowedAt) + " ms by " + connection.borrower.getName());
+                    connection.borrowStack.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Close idle connections now and the borrowed ones as they are returned
+     */
+    public void close() {
+        List<PooledConnection> open;
+        lock.lock();
+        try {
+            closed = true;
+            open = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection connection : open) {
+            connection.closePhysical();
+        }
+        housekeeper.shutdownNow();
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            return new Stats(borrowed.size(), idle.size(), total, pending, maxSize, borrows,
+                    borrows > 0 ? totalWaitNanos.get() / borrows / 1_000_000.0 : 0,
+                    maxWaitNanos.get() / 1_000_000.0, timeouts.get(), created.get(), discarded.get(),
+                    leaksDetected.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Driver settings, including its prepared statement cache, so repeated queries
+     * skip the parse and prepare on the server, batched insert rewriting, and cursor
+     * fetch on MySQL so a statement with a fetch size streams its rows
+     */
+    private static Properties connectionProperties(String url, String user, String password, int cacheSize) {
+        Properties properties = new Properties();
+        if (user != null) {
+            properties.setProperty("user", user);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        if (cacheSize > 0 && url.startsWith("jdbc:mysql:")) {
+            properties.setProperty("cachePrepStmts", "true");
+            properties.setProperty("useServerPrepStmts", "true");
+            properties.setProperty("prepStmtCacheSize", String.valueOf(cacheSize));
+            properties.setProperty("prepStmtCacheSqlLimit", "2048");
+        } else if (cacheSize > 0 && url.startsWith("jdbc:postgresql:")) {
+            properties.setProperty("prepareThreshold", "1");
+            properties.setProperty("preparedStatementCacheQueries", String.valueOf(cacheSize));
+        }
+
+        // Let executeBatch send multi-row inserts
+        if (url.startsWith("jdbc:mysql:")) {
+            properties.setProperty("rewriteBatchedStatements", "true");
+            properties.setProperty("useCursorFetch", "true");
+        } else if (url.startsWith("jdbc:postgresql:")) {
+            properties.setProperty("reWriteBatchedInserts", "true");
+        }
+        return properties;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pool is bound to one user");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection and its bookkeeping. Each loan gets a fresh proxy, so a
+     * borrower that closes twice or keeps using a closed handle cannot affect the next one.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastReturned = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Thread borrower;
+        private volatile Throwable borrowStack;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lend() {
+            borrowedAt = System.currentTimeMillis();
+            borrower = Thread.currentThread();
+            borrowStack = leakDetectionMs > 0 ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            borrowed.add(this);
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new Handle(this));
+        }
+
+        /**
+         * Undo whatever the borrower changed; false if the connection is no longer fit to reuse
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Proxy handler for one loan of a pooled connection
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection connection;
+
+        Handle(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            PooledConnection current;
+            synchronized (this) {
+                current = connection;
+                if (name.equals("close")) {
+                    connection = null;
+                }
+            }
+
+            switch (name) {
+                case "close":
+                    if (current != null) {
+                        giveBack(current);
+                    }
+                    return null;
+                case "isClosed":
+                    return current == null || current.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled connection to " + url + (current == null ? " (closed)" : "");
+                default:
+                    break;
+            }
+
+            if (current == null) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool figures; wait times cover every borrow since the pool started
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int pending;
+        private final int maxSize;
+        private final long borrows;
+        private final double averageWaitMs;
+        private final double maxWaitMs;
+        private final long timeouts;
+        private final long created;
+        private final long discarded;
+        private final long leaksDetected;
+
+        Stats(int active, int idle, int total, int pending, int maxSize, long borrows, double averageWaitMs,
+              double maxWaitMs, long timeouts, long created, long discarded, long leaksDetected) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.pending = pending;
+            this.maxSize = maxSize;
+            this.borrows = borrows;
+            this.averageWaitMs = averageWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.timeouts = timeouts;
+            this.created = created;
+            this.discarded = discarded;
+            this.leaksDetected = leaksDetected;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getBorrows() {
+            return borrows;
+        }
+
+        public double getAverageWaitMs() {
+            return averageWaitMs;
+        }
+
+        public double getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getDiscarded() {
+            return discarded;
+        }
+
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d total=%d/%d pending=%d borrows=%d avgWait=%.2fms "
+                            + "maxWait=%.2fms timeouts=%d created=%d discarded=%d leaks=%d",
+                    active, idle, total, maxSize, pending, borrows, averageWaitMs, maxWaitMs,
+                    timeouts, created, discarded, leaksDetected);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.io.File;
+
+/**
+ * The database the desktop app is pointed at through system properties, in place of
+ * the MySQL server F1DatabaseManager defaults to:
+ * <pre>
+ *   f1.db.mode      h2 for an embedded H2 database in a file, h2-mem for an in-memory one
+ *   f1.db.h2.path   the H2 file, without its .mv.db suffix (default data/f1dashboard)
+ *   f1.db.url       any other JDBC URL, with f1.db.user and f1.db.password
+ * </pre>
+ * Embedded H2 runs inside the app, so queries cost a method call instead of a round
+ * trip to a server. It runs in PostgreSQL mode, which takes the SERIAL columns
+ * F1DatabaseManager creates the schema with, and treats year as a column name. Put
+ * the H2 jar (lib/h2.jar) on the classpath; the tables and sample data are created on
+ * first start like on any other database.
+ */
+public final class DatabaseConfig {
+
+    static final String H2_SETTINGS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR";
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private DatabaseConfig(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * The configured database, or null if none is, leaving the caller's default
+     */
+    public static DatabaseConfig fromSystemProperties() {
+        String mode = System.getProperty("f1.db.mode", "");
+        if (mode.equals("h2")) {
+            String path = new File(System.getProperty("f1.db.h2.path", "data/f1dashboard")).getAbsolutePath();
+            return new DatabaseConfig(h2FileUrl(path), "sa", "");
+        }
+        if (mode.equals("h2-mem")) {
+            return new DatabaseConfig(h2MemoryUrl("f1dashboard"), "sa", "");
+        }
+
+        String url = System.getProperty("f1.db.url");
+        if (url != null) {
+            return new DatabaseConfig(url, System.getProperty("f1.db.user", ""), System.getProperty("f1.db.password", ""));
+        }
+        return null;
+    }
+
+    /**
+     * An embedded H2 database stored in path.mv.db
+     */
+    static String h2FileUrl(String path) {
+        return "jdbc:h2:file:" + path + H2_SETTINGS;
+    }
+
+    /**
+     * An in-memory H2 database, kept until the app exits
+     */
+    static String h2MemoryUrl(String name) {
+        return "jdbc:h2:mem:" + name + H2_SETTINGS + ";DB_CLOSE_DELAY=-1";
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+}
@@ -0,0 +1,196 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time to load one driver's race with laps: the old two-query path, the result join and
+ * then a lap query with a HashMap per lap, against DriverRaceData's narrow result query
+ * and lap query (which also works out the stints) into primitive arrays. Runs a normal race (70 laps) and a long lap set (5000 laps, as
+ * from a test session). Takes a JDBC URL, user and password, defaulting to an
+ * in-memory H2 database (put the H2 jar on the classpath; H2 needs NON_KEYWORDS=YEAR
+ * for seasons.year). An H2 TCP URL such as
+ * jdbc:h2:tcp://localhost/mem:races;NON_KEYWORDS=YEAR adds the client/server round
+ * trips. Point it only at a scratch database: it drops and recreates the tables it uses.
+ */
+public class DriverRaceBenchmark {
+
+    private static final int[] LAP_COUNTS = {70, 5_000};
+    private static final int DRIVERS = 20;
+    private static final long TARGET_NANOS = 2_000_000_000L;
+
+    private static final String OLD_RESULT_SQL =
+            "SELECT d.full_name as driver_name, d.driver_number, t.name as team_name, " +
+            "r.name as race_name, s.year as season, " +
+            "rr.position, rr.points, rr.grid_position, rr.laps_completed " +
+            "FROM race_results rr " +
+            "JOIN drivers d ON rr.driver_id = d.id " +
+            "JOIN teams t ON d.team_id = t.id " +
+            "JOIN races r ON rr.race_id = r.id " +
+            "JOIN seasons s ON r.season_id = s.id " +
+            "WHERE rr.driver_id = ? AND rr.race_id = ?";
+
+    private static final String OLD_LAPS_SQL =
+            "SELECT lap_number, position, lap_time_ms, sector1_ms, sector2_ms, sector3_ms, speed " +
+            "FROM lap_data " +
+            "WHERE driver_id = ? AND race_id = ? " +
+            "ORDER BY lap_number";
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:races;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1";
+        String user = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+
+        ConnectionPool pool = ConnectionPool.shared(url, user, password);
+        createData(pool);
+
+        System.out.printf("%-8s %-10s %12s %12s%n", "laps", "path", "us/op", "ops/s");
+        for (int round = 0; round < 2; round++) {
+            // The first round warms up the JIT and the statement caches
+            boolean print = round == 1;
+            for (int race = 1; race <= LAP_COUNTS.length; race++) {
+                int raceId = race;
+                report(print, LAP_COUNTS[race - 1], "two-query", time(pool, (conn, driverId) -> oldLoad(conn, driverId, raceId)));
+                report(print, LAP_COUNTS[race - 1], "typed", time(pool, (conn, driverId) ->
+                        DriverRaceData.load(conn, driverId, raceId, true).size()));
+            }
+        }
+
+        ConnectionPool.closeAll();
+    }
+
+    private interface Load {
+        int run(Connection conn, int driverId) throws SQLException;
+    }
+
+    /**
+     * Nanoseconds per load, cycling through the drivers, each load on a pooled connection
+     */
+    private static double time(ConnectionPool pool, Load load) throws SQLException {
+        long start = System.nanoTime();
+        long ops = 0;
+        long laps = 0;
+        while (System.nanoTime() - start < TARGET_NANOS) {
+            try (Connection conn = pool.getConnection()) {
+                laps += load.run(conn, 1 + (int) (ops % DRIVERS));
+            }
+            ops++;
+        }
+        if (laps == 0) {
+            throw new IllegalStateException("No laps loaded");
+        }
+        return (double) (System.nanoTime() - start) / ops;
+    }
+
+    /**
+     * getDriverRaceData as it was: the result, then the laps, one map per lap
+     */
+    private static int oldLoad(Connection conn, int driverId, int raceId) throws SQLException {
+        Map<String, Object> data = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(OLD_RESULT_SQL)) {
+            stmt.setInt(1, driverId);
+            stmt.setInt(2, raceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    data.put("driver", rs.getString("driver_name"));
+                    data.put("driver_number", rs.getInt("driver_number"));
+                    data.put("team", rs.getString("team_name"));
+                    data.put("race", rs.getString("race_name"));
+                    data.put("season", String.valueOf(rs.getInt("season")));
+                    data.put("position", rs.getInt("position"));
+                    data.put("points", rs.getDouble("points"));
+                    data.put("grid_position", rs.getInt("grid_position"));
+                    data.put("laps_completed", rs.getInt("laps_completed"));
+                }
+            }
+        }
+
+        List<Map<String, Object>> laps = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(OLD_LAPS_SQL)) {
+            stmt.setInt(1, driverId);
+            stmt.setInt(2, raceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> lap = new HashMap<>();
+                    lap.put("lap_number", rs.getInt("lap_number"));
+                    lap.put("position", rs.getInt("position"));
+                    lap.put("lap_time", LapRecord.format(rs.getInt("lap_time_ms")));
+                    lap.put("sector1_time", LapRecord.format(rs.getInt("sector1_ms")));
+                    lap.put("sector2_time", LapRecord.format(rs.getInt("sector2_ms")));
+                    lap.put("sector3_time", LapRecord.format(rs.getInt("sector3_ms")));
+                    lap.put("speed", rs.getDouble("speed"));
+                    laps.add(lap);
+                }
+            }
+        }
+        data.put("laps", laps);
+        return laps.size();
+    }
+
+    private static void report(boolean print, int laps, String path, double nanosPerOp) {
+        if (print) {
+            System.out.printf("%-8d %-10s %12.1f %12.0f%n", laps, path, nanosPerOp / 1000, 1_000_000_000 / nanosPerOp);
+        }
+    }
+
+    private static void createData(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : new String[] {"driver_race_stints", "driver_race_summary", "lap_data", "race_results", "drivers",
+                    "teams", "races", "seasons"}) {
+                stmt.execute("DROP TABLE IF EXISTS " + table);
+            }
+            stmt.execute("CREATE TABLE seasons (id INTEGER PRIMARY KEY, year INTEGER NOT NULL, name VARCHAR(100))");
+            stmt.execute("CREATE TABLE races (id INTEGER PRIMARY KEY, season_id INTEGER, name VARCHAR(100))");
+            stmt.execute("CREATE TABLE teams (id INTEGER PRIMARY KEY, name VARCHAR(100))");
+            stmt.execute("CREATE TABLE drivers (id INTEGER PRIMARY KEY, driver_number INTEGER, "
+                    + "full_name VARCHAR(100), team_id INTEGER)");
+            stmt.execute("CREATE TABLE race_results (race_id INTEGER, driver_id INTEGER, position INTEGER, "
+                    + "points DECIMAL(5,2), grid_position INTEGER, status VARCHAR(50), laps_completed INTEGER, "
+                    + "UNIQUE (race_id, driver_id))");
+            stmt.execute("CREATE TABLE lap_data (race_id INTEGER, driver_id INTEGER, lap_number INTEGER, "
+                    + "position INTEGER, lap_time_ms INTEGER, sector1_ms INTEGER, sector2_ms INTEGER, "
+                    + "sector3_ms INTEGER, speed DECIMAL(6,3), UNIQUE (race_id, driver_id, lap_number))");
+            stmt.execute("CREATE TABLE driver_race_summary (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "laps INTEGER NOT NULL, timed_laps INTEGER NOT NULL, best_lap_ms INTEGER, avg_lap_ms INTEGER, "
+                    + "avg_speed DECIMAL(6,3), max_speed DECIMAL(6,3), pit_stops INTEGER NOT NULL, "
+                    + "PRIMARY KEY (race_id, driver_id))");
+            stmt.execute("CREATE TABLE driver_race_stints (race_id INTEGER NOT NULL, driver_id INTEGER NOT NULL, "
+                    + "stint INTEGER NOT NULL, first_lap INTEGER NOT NULL, last_lap INTEGER NOT NULL, "
+                    + "laps INTEGER NOT NULL, pace_ms INTEGER, PRIMARY KEY (race_id, driver_id, stint))");
+
+            stmt.execute("INSERT INTO seasons VALUES (1, 2023, '2023 Formula 1 Season')");
+            stmt.execute("INSERT INTO teams VALUES (1, 'Red Bull Racing')");
+            for (int race = 1; race <= LAP_COUNTS.length; race++) {
+                stmt.execute("INSERT INTO races VALUES (" + race + ", 1, 'Race " + race + "')");
+            }
+            for (int driver = 1; driver <= DRIVERS; driver++) {
+                stmt.execute("INSERT INTO drivers VALUES (" + driver + ", " + driver + ", 'Driver " + driver + "', 1)");
+            }
+        }
+
+        List<Object[]> results = new ArrayList<>();
+        BatchWriter writer = new BatchWriter(pool);
+        for (int race = 1; race <= LAP_COUNTS.length; race++) {
+            Map<Integer, List<LapRecord>> laps = new HashMap<>();
+            for (int driver = 1; driver <= DRIVERS; driver++) {
+                results.add(new Object[] {race, driver, driver, 0, driver, "Finished", LAP_COUNTS[race - 1]});
+                List<LapRecord> driverLaps = new ArrayList<>(LAP_COUNTS[race - 1]);
+                for (int lap = 1; lap <= LAP_COUNTS[race - 1]; lap++) {
+                    // A slow lap every 25 for the pit stops
+                    int millis = (lap % 25 == 0 ? 120_000 : 92_000) + (lap * 7919 + driver * 104_729) % 2_000;
+                    driverLaps.add(new LapRecord(lap, driver, millis,
+                            millis * 3 / 10, millis * 4 / 10, millis - millis * 7 / 10, 200 + lap % 20));
+                }
+                laps.put(driver, driverLaps);
+            }
+            writer.writeLaps(race, laps);
+        }
+        writer.writeRows(BatchWriter.Table.RACE_RESULTS, results);
+    }
+}
@@ -0,0 +1,547 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One driver's race: result, lap summary and, if asked for, every lap and stint. The
+ * result and summary come from one narrow row, with the driver_race_stints rows
+ * joined on when laps are wanted (a few rows a race); the laps come from a second
+ * query over lap_data alone, so the joined columns aren't repeated on every lap. Laps
+ * are kept column by column in primitive arrays (times in ms, speed in tenths of
+ * km/h), indexed in lap order. Stint pace is worked out by the database when laps
+ * are written (see DriverRaceSummary), not on each read.
+ *
+ * loadAll does the same for any number of drivers and races in the same two queries,
+ * so comparing more drivers doesn't cost more round trips.
+ *
+ * Rows are fetched LAP_FETCH_SIZE at a time, so a long lap set streams: the pool turns
+ * on cursor fetch for MySQL, and PostgreSQL only uses a cursor inside a transaction,
+ * so there the load runs in one.
+ */
+public final class DriverRaceData {
+
+    static final int LAP_FETCH_SIZE = 500;
+
+    /**
+     * A driver's race with its laps in the pool's QueryCache, keyed by Key alone;
+     * F1DatabaseManager and F1DatabaseService share the entries
+     */
+    static final QueryCache.Query CACHED = new QueryCache.Query("driverRace", "race_results", "drivers",
+            "teams", "races", "seasons", "driver_race_summary", "driver_race_stints", "lap_data");
+
+    private static final String RESULT_COLUMNS =
+            "SELECT rr.race_id, rr.driver_id, d.full_name AS driver_name, d.driver_number, t.name AS team_name, " +
+            "r.name AS race_name, s.year AS season, " +
+            "rr.position, rr.points, rr.grid_position, rr.laps_completed, " +
+            "drs.laps, drs.best_lap_ms, drs.avg_lap_ms, drs.avg_speed, drs.max_speed, drs.pit_stops";
+
+    private static final String RESULT_TABLES =
+            " FROM race_results rr " +
+            "JOIN drivers d ON rr.driver_id = d.id " +
+            "JOIN teams t ON d.team_id = t.id " +
+            "JOIN races r ON rr.race_id = r.id " +
+            "JOIN seasons s ON r.season_id = s.id " +
+            "LEFT JOIN driver_race_summary drs ON drs.race_id = rr.race_id AND drs.driver_id = rr.driver_id";
+
+    private static final String STINT_COLUMNS =
+            ", st.stint, st.first_lap, st.last_lap, st.laps AS stint_laps, st.pace_ms AS stint_pace_ms";
+
+    private static final String STINT_TABLES =
+            " LEFT JOIN driver_race_stints st ON st.race_id = rr.race_id AND st.driver_id = rr.driver_id";
+
+    private static final String LAP_COLUMNS =
+            "SELECT race_id, driver_id, lap_number, position AS lap_position, lap_time_ms, " +
+            "sector1_ms, sector2_ms, sector3_ms, speed AS lap_speed " +
+            "FROM lap_data";
+
+    private final int driverId;
+    private final int raceId;
+    private String driver;
+    private int driverNumber;
+    private String team;
+    private String race;
+    private int season;
+    private int position;
+    private double points;
+    private int gridPosition;
+    private int lapsCompleted;
+
+    private int lapCount;
+    private int bestLapMillis = LapRecord.NO_TIME;
+    private int avgLapMillis = LapRecord.NO_TIME;
+    private double avgSpeed;
+    private double maxSpeed;
+    private int pitStops;
+
+    private boolean lapsLoaded;
+    private int laps;
+    private int[] lapNumbers = new int[0];
+    private int[] lapPositions = new int[0];
+    private int[] lapMillis = new int[0];
+    private int[] sector1Millis = new int[0];
+    private int[] sector2Millis = new int[0];
+    private int[] sector3Millis = new int[0];
+    private short[] speedTenths = new short[0];
+    private int stints;
+    private int[] stintFirstLaps = new int[0];
+    private int[] stintLastLaps = new int[0];
+    private int[] stintLaps = new int[0];
+    private int[] stintPaceMillis = new int[0];
+
+    private DriverRaceData(int driverId, int raceId) {
+        this.driverId = driverId;
+        this.raceId = raceId;
+    }
+
+    /**
+     * Load a driver's race, or null if they have no result in it: one query for the
+     * result, and one for the laps if they are wanted and there is a result
+     */
+    public static DriverRaceData load(Connection conn, int driverId, int raceId, boolean includeLaps)
+            throws SQLException {
+        Key key = new Key(driverId, raceId);
+        return loadAll(conn, Collections.singletonList(key), includeLaps).get(key);
+    }
+
+    /**
+     * Load several drivers' races at once, in two queries however many there are: one
+     * for the results, summaries and stints, one for all their laps. Returns what was found,
+     * in the order asked for; pairs without a result are left out.
+     */
+    public static Map<Key, DriverRaceData> loadAll(Connection conn, Collection<Key> keys, boolean includeLaps)
+            throws SQLException {
+        Map<Key, DriverRaceData> found = new LinkedHashMap<>();
+        List<Key> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        if (distinct.isEmpty()) {
+            return found;
+        }
+
+        Map<Key, DriverRaceData> byKey = new HashMap<>();
+        String resultSql = includeLaps
+                ? RESULT_COLUMNS + STINT_COLUMNS + RESULT_TABLES + STINT_TABLES
+                        + " WHERE " + pairCondition("rr.", distinct.size())
+                        + " ORDER BY rr.race_id, rr.driver_id, st.stint"
+                : RESULT_COLUMNS + RESULT_TABLES + " WHERE " + pairCondition("rr.", distinct.size());
+        try (PreparedStatement stmt = conn.prepareStatement(resultSql)) {
+            bindPairs(stmt, distinct);
+            try (ResultSet rs = stmt.executeQuery()) {
+                DriverRaceData current = null;
+                while (rs.next()) {
+                    int raceId = rs.getInt("race_id");
+                    int driverId = rs.getInt("driver_id");
+                    // With stints joined on, a result's rows come together, one per stint
+                    if (current == null || current.raceId != raceId || current.driverId != driverId) {
+                        current = new DriverRaceData(driverId, raceId);
+                        current.readResult(rs);
+                        byKey.put(current.getKey(), current);
+                    }
+                    if (includeLaps) {
+                        current.addStint(rs);
+                    }
+                }
+            }
+        }
+
+        if (includeLaps && !byKey.isEmpty()) {
+            for (DriverRaceData data : byKey.values()) {
+                data.startLaps();
+            }
+            boolean transaction = beginCursorRead(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(LAP_COLUMNS + " WHERE "
+                    + pairCondition("", distinct.size()) + " ORDER BY race_id, driver_id, lap_number")) {
+                bindPairs(stmt, distinct);
+                stmt.setFetchSize(LAP_FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    DriverRaceData current = null;
+                    while (rs.next()) {
+                        int raceId = rs.getInt("race_id");
+                        int driverId = rs.getInt("driver_id");
+                        // Rows come grouped by driver and race
+                        if (current == null || current.raceId != raceId || current.driverId != driverId) {
+                            current = byKey.get(new Key(driverId, raceId));
+                        }
+                        if (current != null) {
+                            current.addLap(rs);
+                        }
+                    }
+                }
+            } finally {
+                endCursorRead(conn, transaction);
+            }
+        }
+
+        for (Key key : distinct) {
+            DriverRaceData data = byKey.get(key);
+            if (data != null) {
+                found.put(key, data);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Start a transaction if the driver needs one to fetch with a cursor (PostgreSQL)
+     * and the caller isn't in one already; returns whether it did
+     */
+    private static boolean beginCursorRead(Connection conn) throws SQLException {
+        if (conn.getAutoCommit() && conn.getMetaData().getURL().startsWith("jdbc:postgresql:")) {
+            conn.setAutoCommit(false);
+            return true;
+        }
+        return false;
+    }
+
+    private static void endCursorRead(Connection conn, boolean transaction) throws SQLException {
+        if (transaction) {
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * (race_id = ? AND driver_id = ?) OR ... for count pairs
+     */
+    private static String pairCondition(String alias, int count) {
+        StringBuilder sql = new StringBuilder("(");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "" : " OR ")
+               .append('(').append(alias).append("race_id = ? AND ").append(alias).append("driver_id = ?)");
+        }
+        return sql.append(')').toString();
+    }
+
+    private static void bindPairs(PreparedStatement stmt, List<Key> keys) throws SQLException {
+        int index = 1;
+        for (Key key : keys) {
+            stmt.setInt(index++, key.raceId);
+            stmt.setInt(index++, key.driverId);
+        }
+    }
+
+    private void readResult(ResultSet rs) throws SQLException {
+        driver = rs.getString("driver_name");
+        driverNumber = rs.getInt("driver_number");
+        team = rs.getString("team_name");
+        race = rs.getString("race_name");
+        season = rs.getInt("season");
+        position = rs.getInt("position");
+        points = rs.getDouble("points");
+        gridPosition = rs.getInt("grid_position");
+        lapsCompleted = rs.getInt("laps_completed");
+
+        // getInt and getDouble read a missing summary as no laps
+        lapCount = rs.getInt("laps");
+        bestLapMillis = rs.getInt("best_lap_ms");
+        avgLapMillis = rs.getInt("avg_lap_ms");
+        avgSpeed = Math.round(rs.getDouble("avg_speed") * 100) / 100.0;
+        maxSpeed = rs.getDouble("max_speed");
+        pitStops = rs.getInt("pit_stops");
+    }
+
+    private void startLaps() {
+        lapsLoaded = true;
+        // The summary says how many laps to expect
+        allocate(Math.max(lapCount, 16));
+    }
+
+    private void addLap(ResultSet rs) throws SQLException {
+        if (laps == lapNumbers.length) {
+            allocate(laps * 2);
+        }
+        lapNumbers[laps] = rs.getInt("lap_number");
+        lapPositions[laps] = rs.getInt("lap_position");
+        lapMillis[laps] = rs.getInt("lap_time_ms");
+        sector1Millis[laps] = rs.getInt("sector1_ms");
+        sector2Millis[laps] = rs.getInt("sector2_ms");
+        sector3Millis[laps] = rs.getInt("sector3_ms");
+        speedTenths[laps] = (short) Math.round(rs.getDouble("lap_speed") * 10);
+        laps++;
+    }
+
+    private void addStint(ResultSet rs) throws SQLException {
+        rs.getInt("stint");
+        if (rs.wasNull()) {
+            // The outer join gives one row without a stint when there are no laps
+            return;
+        }
+        if (stints == stintLaps.length) {
+            int capacity = Math.max(4, stints * 2);
+            stintFirstLaps = Arrays.copyOf(stintFirstLaps, capacity);
+            stintLastLaps = Arrays.copyOf(stintLastLaps, capacity);
+            stintLaps = Arrays.copyOf(stintLaps, capacity);
+            stintPaceMillis = Arrays.copyOf(stintPaceMillis, capacity);
+        }
+        stintFirstLaps[stints] = rs.getInt("first_lap");
+        stintLastLaps[stints] = rs.getInt("last_lap");
+        stintLaps[stints] = rs.getInt("stint_laps");
+        // NULL, a stint with no timed lap but its pit lap, reads as NO_TIME
+        stintPaceMillis[stints] = rs.getInt("stint_pace_ms");
+        stints++;
+    }
+
+    private void allocate(int capacity) {
+        lapNumbers = Arrays.copyOf(lapNumbers, capacity);
+        lapPositions = Arrays.copyOf(lapPositions, capacity);
+        lapMillis = Arrays.copyOf(lapMillis, capacity);
+        sector1Millis = Arrays.copyOf(sector1Millis, capacity);
+        sector2Millis = Arrays.copyOf(sector2Millis, capacity);
+        sector3Millis = Arrays.copyOf(sector3Millis, capacity);
+        speedTenths = Arrays.copyOf(speedTenths, capacity);
+    }
+
+    public int getDriverId() {
+        return driverId;
+    }
+
+    public int getRaceId() {
+        return raceId;
+    }
+
+    public Key getKey() {
+        return new Key(driverId, raceId);
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public String getRace() {
+        return race;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public double getPoints() {
+        return points;
+    }
+
+    public int getGridPosition() {
+        return gridPosition;
+    }
+
+    public int getLapsCompleted() {
+        return lapsCompleted;
+    }
+
+    /**
+     * Laps recorded in lap_data, from the summary, whether or not they were loaded
+     */
+    public int getLapCount() {
+        return lapCount;
+    }
+
+    /**
+     * Best lap in ms, LapRecord.NO_TIME if none was timed
+     */
+    public int getBestLapMillis() {
+        return bestLapMillis;
+    }
+
+    public int getAvgLapMillis() {
+        return avgLapMillis;
+    }
+
+    public double getAvgSpeed() {
+        return avgSpeed;
+    }
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public int getPitStops() {
+        return pitStops;
+    }
+
+    public boolean hasLaps() {
+        return lapsLoaded;
+    }
+
+    /**
+     * Number of loaded laps; the lap accessors take an index below this
+     */
+    public int size() {
+        return laps;
+    }
+
+    public int getLapNumber(int i) {
+        return lapNumbers[check(i)];
+    }
+
+    public int getLapPosition(int i) {
+        return lapPositions[check(i)];
+    }
+
+    public int getLapMillis(int i) {
+        return lapMillis[check(i)];
+    }
+
+    /**
+     * Sector time in ms, sector being 1, 2 or 3
+     */
+    public int getSectorMillis(int i, int sector) {
+        check(i);
+        switch (sector) {
+            case 1: return sector1Millis[i];
+            case 2: return sector2Millis[i];
+            case 3: return sector3Millis[i];
+            default: throw new IllegalArgumentException("No sector " + sector);
+        }
+    }
+
+    public double getLapSpeed(int i) {
+        return speedTenths[check(i)] / 10.0;
+    }
+
+    /**
+     * Whether a lap is a pit lap, by the rule of LapQueries.PIT_LAP: over 30% and over
+     * 5 seconds slower than the lap before
+     */
+    public boolean isPitLap(int i) {
+        check(i);
+        if (i == 0 || lapMillis[i] == LapRecord.NO_TIME || lapMillis[i - 1] == LapRecord.NO_TIME) {
+            return false;
+        }
+        return lapMillis[i] > lapMillis[i - 1] * 1.3 && lapMillis[i] > lapMillis[i - 1] + 5000;
+    }
+
+    /**
+     * The loaded laps as records
+     */
+    public List<LapRecord> getLaps() {
+        List<LapRecord> records = new ArrayList<>(laps);
+        for (int i = 0; i < laps; i++) {
+            records.add(new LapRecord(lapNumbers[i], lapPositions[i], lapMillis[i],
+                    sector1Millis[i], sector2Millis[i], sector3Millis[i], speedTenths[i] / 10.0));
+        }
+        return records;
+    }
+
+    /**
+     * Per stint, a new one starting at each pit lap: stint (from 1), first_lap, last_lap,
+     * laps and, when it has a timed lap other than its pit lap, pace_ms and pace, as
+     * stored in driver_race_stints. Empty unless laps were loaded.
+     */
+    public List<Map<String, Object>> getStints() {
+        List<Map<String, Object>> result = new ArrayList<>(stints);
+        for (int k = 0; k < stints; k++) {
+            Map<String, Object> stint = new HashMap<>();
+            stint.put("stint", k + 1);
+            stint.put("first_lap", stintFirstLaps[k]);
+            stint.put("last_lap", stintLastLaps[k]);
+            stint.put("laps", stintLaps[k]);
+            if (stintPaceMillis[k] > LapRecord.NO_TIME) {
+                stint.put("pace_ms", stintPaceMillis[k]);
+                stint.put("pace", LapRecord.format(stintPaceMillis[k]));
+            }
+            result.add(stint);
+        }
+        return result;
+    }
+
+    /**
+     * The map the Swing views take, with the keys getDriverRaceData has always used
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("driver", driver);
+        data.put("driver_number", driverNumber);
+        data.put("team", team);
+        data.put("race", race);
+        data.put("season", String.valueOf(season));
+        data.put("position", position);
+        data.put("points", points);
+        data.put("grid_position", gridPosition);
+        data.put("laps_completed", lapsCompleted);
+        data.put("lap_count", lapCount);
+        if (bestLapMillis > LapRecord.NO_TIME) {
+            data.put("best_lap_ms", bestLapMillis);
+            data.put("best_lap_time", LapRecord.format(bestLapMillis));
+        } else {
+            data.put("best_lap_time", "");
+        }
+        if (avgLapMillis > LapRecord.NO_TIME) {
+            data.put("avg_lap_ms", avgLapMillis);
+            data.put("avg_lap_time", LapRecord.format(avgLapMillis));
+        }
+        data.put("avg_speed", avgSpeed);
+        data.put("max_speed", maxSpeed);
+        data.put("pit_stops", pitStops);
+        if (lapsLoaded) {
+            data.put("laps", getLaps());
+            data.put("stints", getStints());
+        }
+        return data;
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= laps) {
+            throw new IndexOutOfBoundsException("Lap index " + i + " of " + laps);
+        }
+        return i;
+    }
+
+    /**
+     * A driver in a race
+     */
+    public static final class Key {
+        private final int driverId;
+        private final int raceId;
+
+        public Key(int driverId, int raceId) {
+            this.driverId = driverId;
+            this.raceId = raceId;
+        }
+
+        public int getDriverId() {
+            return driverId;
+        }
+
+        public int getRaceId() {
+            return raceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return driverId == other.driverId && raceId == other.raceId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * driverId + raceId;
+        }
+
+        @Override
+        public String toString() {
+            return "driver " + driverId + " in race " + raceId;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Maintains driver_race_summary, one row per driver per race holding the figures the
+ * comparison views show: lap count, best and average lap, average and top speed and
+ * pit stops. It also maintains driver_race_stints, one row per stint: a new stint
+ * starts at each pit lap, and its pace is the average timed lap leaving out the pit
+ * lap. BatchWriter refreshes the rows for the drivers it writes laps for, so a reader
+ * gets them with a primary key lookup instead of going over every lap.
+ *
+ * A refresh recomputes a driver's rows from all of their laps in that race, so laps
+ * can arrive in any order or be rewritten. rebuildAll is the bulk job for a database
+ * whose laps were loaded some other way; run it with
+ * java DriverRaceSummary [url user password].
+ */
+public final class DriverRaceSummary {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO driver_race_summary " +
+            "(race_id, driver_id, laps, timed_laps, best_lap_ms, avg_lap_ms, avg_speed, max_speed, pit_stops) " +
+            "SELECT race_id, driver_id, COUNT(*), COUNT(lap_time_ms), MIN(lap_time_ms), " +
+            "       ROUND(AVG(lap_time_ms)), AVG(speed), MAX(speed), SUM(pit_lap) " +
+            "FROM (" +
+            "    SELECT race_id, driver_id, lap_time_ms, speed, " + LapQueries.PIT_LAP + " AS pit_lap " +
+            "    FROM lap_data" +
+            "    %s" +
+            ") flagged " +
+            "GROUP BY race_id, driver_id";
+
+    private static final String STINTS_INSERT_SQL =
+            "INSERT INTO driver_race_stints (race_id, driver_id, stint, first_lap, last_lap, laps, pace_ms) " +
+            "SELECT race_id, driver_id, stint, MIN(lap_number), MAX(lap_number), COUNT(*), " +
+            "       ROUND(AVG(CASE WHEN pit_lap = 0 THEN lap_time_ms END)) " +
+            "FROM (" +
+            "    SELECT race_id, driver_id, lap_number, lap_time_ms, pit_lap, " +
+            "           1 + SUM(pit_lap) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) AS stint " +
+            "    FROM (" +
+            "        SELECT race_id, driver_id, lap_number, lap_time_ms, " + LapQueries.PIT_LAP + " AS pit_lap " +
+            "        FROM lap_data" +
+            "        %s" +
+            "    ) flagged" +
+            ") numbered " +
+            "GROUP BY race_id, driver_id, stint";
+
+    private DriverRaceSummary() {
+    }
+
+    /**
+     * Recompute the summaries and stints of some drivers in one race
+     */
+    public static void refresh(Connection conn, int raceId, Collection<Integer> driverIds) throws SQLException {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder where = new StringBuilder(" WHERE race_id = ? AND driver_id IN (");
+        for (int i = 0; i < driverIds.size(); i++) {
+            where.append(i == 0 ? "?" : ", ?");
+        }
+        where.append(')');
+
+        Transactions.inTransaction(conn, () -> {
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM driver_race_summary" + where);
+                 PreparedStatement insert = conn.prepareStatement(String.format(INSERT_SQL, where));
+                 PreparedStatement deleteStints = conn.prepareStatement("DELETE FROM driver_race_stints" + where);
+                 PreparedStatement insertStints = conn.prepareStatement(String.format(STINTS_INSERT_SQL, where))) {
+                for (PreparedStatement stmt : new PreparedStatement[] {delete, insert, deleteStints, insertStints}) {
+                    bind(stmt, raceId, driverIds);
+                    stmt.executeUpdate();
+                }
+            }
+        });
+    }
+
+    /**
+     * Recompute the summary of one driver in one race
+     */
+    public static void refresh(Connection conn, int raceId, int driverId) throws SQLException {
+        refresh(conn, raceId, Collections.singleton(driverId));
+    }
+
+    /**
+     * Recompute every summary and stint from lap_data; returns the number of summary
+     * rows written
+     */
+    public static int rebuildAll(Connection conn) throws SQLException {
+        int[] rows = new int[1];
+        Transactions.inTransaction(conn, () -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM driver_race_summary");
+                rows[0] = stmt.executeUpdate(String.format(INSERT_SQL, ""));
+                stmt.executeUpdate("DELETE FROM driver_race_stints");
+                stmt.executeUpdate(String.format(STINTS_INSERT_SQL, ""));
+            }
+        });
+        return rows[0];
+    }
+
+    /**
+     * Build the summaries and stints if there are laps but no summaries or no stints
+     * yet, as after an upgrade
+     */
+    public static void rebuildIfEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM driver_race_summary), " +
+                     "(SELECT COUNT(*) FROM driver_race_stints), (SELECT COUNT(*) FROM lap_data)")) {
+            if (rs.next() && (rs.getLong(1) == 0 || rs.getLong(2) == 0) && rs.getLong(3) > 0) {
+                System.out.println("Built " + rebuildAll(conn) + " driver race summaries");
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, int raceId, Collection<Integer> driverIds) throws SQLException {
+        int index = 1;
+        stmt.setInt(index++, raceId);
+        for (int driverId : driverIds) {
+            stmt.setInt(index++, driverId);
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        // Defaults to the database F1DatabaseManager is configured for
+        ConnectionPool pool = args.length > 0
+                ? ConnectionPool.shared(args[0], args.length > 1 ? args[1] : "", args.length > 2 ? args[2] : "")
+                : new F1DatabaseManager().getDataSource();
+
+        try (Connection conn = pool.getConnection()) {
+            long start = System.nanoTime();
+            int rows = rebuildAll(conn);
+            System.out.printf("Rebuilt %d driver race summaries in %.1f ms%n",
+                    rows, (System.nanoTime() - start) / 1_000_000.0);
+        } finally {
+            ConnectionPool.closeAll();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency of the dashboard's queries, through F1DatabaseManager, on embedded H2 (in
+ * memory and in a file) against a MySQL server. Each database is set up the way the
+ * app does it on start, with initializeDatabase, so they hold the same sample data.
+ *
+ * Takes the server's URL, user and password, defaulting to the local MySQL database
+ * F1DatabaseManager uses; the server is left out if it can't be reached. Any JDBC URL
+ * works, such as an H2 TCP server to see the round trips alone. Needs the H2 jar and
+ * the MySQL driver on the classpath.
+ */
+public class EmbeddedDatabaseBenchmark {
+
+    private static final long TARGET_NANOS = 1_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        String serverUrl = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306/f1dashboard";
+        String serverUser = args.length > 1 ? args[1] : "root";
+        String serverPassword = args.length > 2 ? args[2] : "1234";
+
+        File h2Dir = Files.createTempDirectory("f1-h2").toFile();
+        String[][] targets = {
+            {"h2-mem", DatabaseConfig.h2MemoryUrl("f1bench"), "sa", ""},
+            {"h2-file", DatabaseConfig.h2FileUrl(new File(h2Dir, "f1bench").getAbsolutePath()), "sa", ""},
+            {"server", serverUrl, serverUser, serverPassword}
+        };
+
+        // Time the databases, not the query cache
+        System.setProperty("f1.db.query-cache.size", "0");
+
+        List<String[]> rows = new ArrayList<>();
+        for (String[] target : targets) {
+            System.setProperty("f1.db.url", target[1]);
+            System.setProperty("f1.db.user", target[2]);
+            System.setProperty("f1.db.password", target[3]);
+            F1DatabaseManager dbManager = new F1DatabaseManager();
+            if (!dbManager.testConnection()) {
+                System.out.println("Skipping " + target[0] + ": can't connect to " + target[1]);
+                continue;
+            }
+            dbManager.initializeDatabase();
+
+            List<Map<String, Object>> races = dbManager.getRacesForSeason(2023);
+            int raceId = (Integer) races.get(0).get("id");
+            int driverId = driverWithLaps(dbManager, raceId);
+
+            // The first round warms up the JIT and the statement caches
+            for (int round = 0; round < 2; round++) {
+                boolean keep = round == 1;
+                add(rows, keep, target[0], "getAvailableSeasons", time(() -> dbManager.getAvailableSeasons().size()));
+                add(rows, keep, target[0], "getRacesForSeason", time(() -> dbManager.getRacesForSeason(2023).size()));
+                add(rows, keep, target[0], "getDriversForRace", time(() -> dbManager.getDriversForRace(raceId).size()));
+                add(rows, keep, target[0], "getDriverRace", time(() -> dbManager.getDriverRace(driverId, raceId).size()));
+                add(rows, keep, target[0], "RaceCatalogue.load", time(() -> {
+                    try (Connection conn = dbManager.getConnection()) {
+                        return RaceCatalogue.load(conn).getSeasons().size();
+                    }
+                }));
+            }
+        }
+
+        System.out.printf("%n%-8s %-20s %12s %12s%n", "database", "query", "us/op", "ops/s");
+        for (String[] row : rows) {
+            System.out.printf("%-8s %-20s %12s %12s%n", (Object[]) row);
+        }
+
+        ConnectionPool.closeAll();
+        for (File file : h2Dir.listFiles()) {
+            file.delete();
+        }
+        h2Dir.delete();
+    }
+
+    private interface Query {
+        int run() throws SQLException;
+    }
+
+    /**
+     * Nanoseconds per call
+     */
+    private static double time(Query query) throws SQLException {
+        long start = System.nanoTime();
+        long ops = 0;
+        long rows = 0;
+        while (System.nanoTime() - start < TARGET_NANOS) {
+            rows += query.run();
+            ops++;
+        }
+        if (rows == 0) {
+            throw new IllegalStateException("Query returned nothing");
+        }
+        return (double) (System.nanoTime() - start) / ops;
+    }
+
+    private static void add(List<String[]> rows, boolean keep, String database, String query, double nanosPerOp) {
+        if (keep) {
+            rows.add(new String[] {database, query, String.format("%.1f", nanosPerOp / 1000),
+                    String.format("%.0f", 1_000_000_000 / nanosPerOp)});
+        }
+    }
+
+    /**
+     * A driver of the race with sample laps
+     */
+    private static int driverWithLaps(F1DatabaseManager dbManager, int raceId) {
+        for (Map<String, Object> driver : dbManager.getDriversForRace(raceId)) {
+            int driverId = (Integer) driver.get("id");
+            DriverRaceData race = dbManager.getDriverRace(driverId, raceId);
+            if (race != null && race.size() > 0) {
+                return driverId;
+            }
+        }
+        throw new IllegalStateException("No laps in race " + raceId);
+    }
+}
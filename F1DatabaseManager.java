@@ -7,22 +7,43 @@ import java.time.LocalDate;
  */
 public class F1DatabaseManager {
     private static final String DB_URL_ENV = "DATABASE_URL";
+    
+    // Cached queries and the tables they read
+    private static final QueryCache.Query RACES_FOR_SEASON = new QueryCache.Query("racesForSeason", "races", "seasons");
+    private static final QueryCache.Query DRIVERS_FOR_RACE = new QueryCache.Query("driversForRace", "race_results", "drivers", "teams");
+    private static final QueryCache.Query AVAILABLE_SEASONS = new QueryCache.Query("availableSeasons", "seasons");
+    
     private String dbUrl;
     private String dbUser;
     private String dbPassword;
+    private ConnectionPool pool;
+    private QueryCache queryCache;
     
     /**
      * Constructor for F1DatabaseManager
      */
     public F1DatabaseManager() {
         initDatabaseConfig();
+        // Instances are cheap; they all share one pool per database
+        this.pool = ConnectionPool.shared(dbUrl, dbUser, dbPassword);
+        this.queryCache = QueryCache.shared(pool);
     }
     
     /**
-     * Initialize database connection properties from environment variables or use local MySQL
+     * Initialize database connection properties from system properties or use local MySQL
      */
     private void initDatabaseConfig() {
         try {
+            // An embedded H2 database or another server if one is configured
+            DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+            if (config != null) {
+                this.dbUrl = config.getUrl();
+                this.dbUser = config.getUser();
+                this.dbPassword = config.getPassword();
+                System.out.println("Database configuration initialized for " + dbUrl);
+                return;
+            }
+            
             // Use local MySQL configuration for local development
             this.dbUrl = "jdbc:mysql://localhost:3306/f1dashboard";
             this.dbUser = "root";  // Default MySQL username
@@ -36,15 +57,36 @@ public class F1DatabaseManager {
     }
     
     /**
-     * Get a database connection
+     * Get a database connection from the shared pool; closing it returns it to the pool
      */
     public Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC driver not found", e);
+        return pool.getConnection();
+    }
+    
+    /**
+     * The shared pool, for bulk writers and other callers that manage their own connections
+     */
+    public ConnectionPool getDataSource() {
+        return pool;
+    }
+    
+    /**
+     * Get connection pool metrics
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+    
+    /**
+     * Get query cache hit rates, for all cached queries and for each one
+     */
+    public List<QueryCache.Stats> getQueryCacheStats() {
+        List<QueryCache.Stats> stats = new ArrayList<>();
+        stats.add(queryCache.getStats());
+        for (QueryCache.Query query : new QueryCache.Query[] {RACES_FOR_SEASON, DRIVERS_FOR_RACE, AVAILABLE_SEASONS, DriverRaceData.CACHED}) {
+            stats.add(queryCache.getStats(query));
         }
+        return stats;
     }
     
     /**
@@ -63,34 +105,39 @@ public class F1DatabaseManager {
      * Get races for a specific season
      */
     public List<Map<String, Object>> getRacesForSeason(int year) {
+        try {
+            return copyRows(queryCache.get(RACES_FOR_SEASON, () -> loadRacesForSeason(year), year));
+        } catch (SQLException e) {
+            System.err.println("Error getting races for season: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<Map<String, Object>> loadRacesForSeason(int year) throws SQLException {
         List<Map<String, Object>> races = new ArrayList<>();
         
-        try {
-            String sql = "SELECT r.id, r.name, r.circuit_name, r.date, r.country, r.round_number " +
-                         "FROM races r " +
-                         "JOIN seasons s ON r.season_id = s.id " +
-                         "WHERE s.year = ? " +
-                         "ORDER BY r.round_number";
+        String sql = "SELECT r.id, r.name, r.circuit_name, r.date, r.country, r.round_number " +
+                     "FROM races r " +
+                     "JOIN seasons s ON r.season_id = s.id " +
+                     "WHERE s.year = ? " +
+                     "ORDER BY r.round_number";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, year);
+            ResultSet rs = stmt.executeQuery();
             
-            try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, year);
-                ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Map<String, Object> race = new HashMap<>();
+                race.put("id", rs.getInt("id"));
+                race.put("name", rs.getString("name"));
+                race.put("circuit_name", rs.getString("circuit_name"));
+                race.put("date", rs.getDate("date").toLocalDate());
+                race.put("country", rs.getString("country"));
+                race.put("round", rs.getInt("round_number"));
                 
-                while (rs.next()) {
-                    Map<String, Object> race = new HashMap<>();
-                    race.put("id", rs.getInt("id"));
-                    race.put("name", rs.getString("name"));
-                    race.put("circuit_name", rs.getString("circuit_name"));
-                    race.put("date", rs.getDate("date").toLocalDate());
-                    race.put("country", rs.getString("country"));
-                    race.put("round", rs.getInt("round_number"));
-                    
-                    races.add(race);
-                }
+                races.add(race);
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting races for season: " + e.getMessage());
         }
         
         return races;
@@ -161,20 +208,51 @@ public class F1DatabaseManager {
      * Get drivers for a specific race
      */
     public List<Map<String, Object>> getDriversForRace(int raceId) {
+        try {
+            return copyRows(queryCache.get(DRIVERS_FOR_RACE, () -> loadDriversForRace(raceId), raceId));
+        } catch (SQLException e) {
+            System.err.println("Error getting drivers for race: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<Map<String, Object>> loadDriversForRace(int raceId) throws SQLException {
         List<Map<String, Object>> drivers = new ArrayList<>();
         
-        try {
-            String sql = "SELECT d.id, d.driver_number, d.abbreviation, d.full_name, t.name as team_name " +
-                         "FROM race_results rr " +
-                         "JOIN drivers d ON rr.driver_id = d.id " +
-                         "JOIN teams t ON d.team_id = t.id " +
-                         "WHERE rr.race_id = ? " +
-                         "ORDER BY rr.position";
+        String sql = "SELECT d.id, d.driver_number, d.abbreviation, d.full_name, t.name as team_name " +
+                     "FROM race_results rr " +
+                     "JOIN drivers d ON rr.driver_id = d.id " +
+                     "JOIN teams t ON d.team_id = t.id " +
+                     "WHERE rr.race_id = ? " +
+                     "ORDER BY rr.position";
+        
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, raceId);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                Map<String, Object> driver = new HashMap<>();
+                driver.put("id", rs.getInt("id"));
+                driver.put("number", rs.getInt("driver_number"));
+                driver.put("abbreviation", rs.getString("abbreviation"));
+                driver.put("name", rs.getString("full_name"));
+                driver.put("team", rs.getString("team_name"));
+                
+                drivers.add(driver);
+            }
+        }
+        
+        // If no race results yet, fall back to just getting drivers with non-race-specific data
+        if (drivers.isEmpty()) {
+            String fallbackSql = "SELECT d.id, d.driver_number, d.abbreviation, d.full_name, t.name as team_name " +
+                                 "FROM drivers d " +
+                                 "JOIN teams t ON d.team_id = t.id " +
+                                 "ORDER BY d.driver_number";
             
             try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, raceId);
-                ResultSet rs = stmt.executeQuery();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(fallbackSql)) {
                 
                 while (rs.next()) {
                     Map<String, Object> driver = new HashMap<>();
@@ -187,32 +265,6 @@ public class F1DatabaseManager {
                     drivers.add(driver);
                 }
             }
-            
-            // If no race results yet, fall back to just getting drivers with non-race-specific data
-            if (drivers.isEmpty()) {
-                String fallbackSql = "SELECT d.id, d.driver_number, d.abbreviation, d.full_name, t.name as team_name " +
-                                     "FROM drivers d " +
-                                     "JOIN teams t ON d.team_id = t.id " +
-                                     "ORDER BY d.driver_number";
-                
-                try (Connection conn = getConnection();
-                     Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery(fallbackSql)) {
-                    
-                    while (rs.next()) {
-                        Map<String, Object> driver = new HashMap<>();
-                        driver.put("id", rs.getInt("id"));
-                        driver.put("number", rs.getInt("driver_number"));
-                        driver.put("abbreviation", rs.getString("abbreviation"));
-                        driver.put("name", rs.getString("full_name"));
-                        driver.put("team", rs.getString("team_name"));
-                        
-                        drivers.add(driver);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting drivers for race: " + e.getMessage());
         }
         
         return drivers;
@@ -241,10 +293,26 @@ public class F1DatabaseManager {
         return -1;
     }
     
+    /**
+     * Get every season, race and driver, from memory once loaded
+     */
+    public RaceCatalogue getCatalogue() {
+        return CatalogueCache.shared(pool).get();
+    }
+    
     /**
      * Get available seasons from the database
      */
     public List<String> getAvailableSeasons() {
+        try {
+            return new ArrayList<>(queryCache.get(AVAILABLE_SEASONS, this::loadAvailableSeasons));
+        } catch (SQLException e) {
+            System.err.println("Error getting available seasons: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<String> loadAvailableSeasons() throws SQLException {
         List<String> seasons = new ArrayList<>();
         String sql = "SELECT year FROM seasons ORDER BY year DESC";
         
@@ -255,173 +323,62 @@ public class F1DatabaseManager {
             while (rs.next()) {
                 seasons.add(String.valueOf(rs.getInt("year")));
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting available seasons: " + e.getMessage());
         }
         
         return seasons;
     }
     
     /**
-     * Get race data for a specific driver
+     * Get race data for a specific driver, with their laps, as the map the views use
      */
     public Map<String, Object> getDriverRaceData(int driverId, int raceId) {
-        Map<String, Object> data = new HashMap<>();
-        
-        try {
-            // Get basic race and driver information
-            String baseSql = "SELECT d.full_name as driver_name, d.driver_number, t.name as team_name, " +
-                            "r.name as race_name, s.year as season, " +
-                            "rr.position, rr.points, rr.grid_position, rr.laps_completed " +
-                            "FROM race_results rr " +
-                            "JOIN drivers d ON rr.driver_id = d.id " +
-                            "JOIN teams t ON d.team_id = t.id " +
-                            "JOIN races r ON rr.race_id = r.id " +
-                            "JOIN seasons s ON r.season_id = s.id " +
-                            "WHERE rr.driver_id = ? AND rr.race_id = ?";
-            
-            try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(baseSql)) {
-                stmt.setInt(1, driverId);
-                stmt.setInt(2, raceId);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    data.put("driver", rs.getString("driver_name"));
-                    data.put("driver_number", rs.getInt("driver_number"));
-                    data.put("team", rs.getString("team_name"));
-                    data.put("race", rs.getString("race_name"));
-                    data.put("season", String.valueOf(rs.getInt("season")));
-                    data.put("position", rs.getInt("position"));
-                    data.put("points", rs.getDouble("points"));
-                    data.put("grid_position", rs.getInt("grid_position"));
-                    data.put("laps_completed", rs.getInt("laps_completed"));
-                    
-                    // Get additional performance data
-                    getLapDataForDriver(conn, data, driverId, raceId);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting driver race data: " + e.getMessage());
-        }
-        
-        return data;
+        DriverRaceData race = getDriverRace(driverId, raceId);
+        return race != null ? race.toMap() : new HashMap<>();
     }
     
     /**
-     * Get lap data for a driver in a race
+     * Get a driver's result, lap summary, stints and laps for a race; null if they
+     * have no result in it or the query fails
      */
-    private void getLapDataForDriver(Connection conn, Map<String, Object> data, int driverId, int raceId) throws SQLException {
-        String lapSql = "SELECT lap_number, position, lap_time, sector1_time, sector2_time, sector3_time, speed " +
-                        "FROM lap_data " +
-                        "WHERE driver_id = ? AND race_id = ? " +
-                        "ORDER BY lap_number";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(lapSql)) {
-            stmt.setInt(1, driverId);
-            stmt.setInt(2, raceId);
-            ResultSet rs = stmt.executeQuery();
-            
-            List<Map<String, Object>> laps = new ArrayList<>();
-            double bestLapTime = Double.MAX_VALUE;
-            String bestLapTimeStr = "";
-            double totalSpeed = 0;
-            int lapCount = 0;
-            double maxSpeed = 0;
-            
-            while (rs.next()) {
-                Map<String, Object> lap = new HashMap<>();
-                lap.put("lap", rs.getInt("lap_number"));
-                lap.put("position", rs.getInt("position"));
-                
-                String lapTimeStr = rs.getString("lap_time");
-                lap.put("time", lapTimeStr);
-                
-                lap.put("sector_1", rs.getString("sector1_time"));
-                lap.put("sector_2", rs.getString("sector2_time"));
-                lap.put("sector_3", rs.getString("sector3_time"));
-                
-                double speed = rs.getDouble("speed");
-                lap.put("speed", speed);
-                
-                laps.add(lap);
-                
-                // Calculate statistics
-                double lapTimeSeconds = parseLapTimeToSeconds(lapTimeStr);
-                if (lapTimeSeconds > 0 && lapTimeSeconds < bestLapTime) {
-                    bestLapTime = lapTimeSeconds;
-                    bestLapTimeStr = lapTimeStr;
-                }
-                
-                totalSpeed += speed;
-                lapCount++;
-                
-                if (speed > maxSpeed) {
-                    maxSpeed = speed;
+    public DriverRaceData getDriverRace(int driverId, int raceId) {
+        DriverRaceData.Key key = new DriverRaceData.Key(driverId, raceId);
+        try {
+            // DriverRaceData is read-only, so callers can share the cached one
+            return queryCache.get(DriverRaceData.CACHED, () -> {
+                try (Connection conn = getConnection()) {
+                    return DriverRaceData.load(conn, driverId, raceId, true);
                 }
-            }
-            
-            // Add lap data and statistics to the main data map
-            data.put("laps", laps);
-            data.put("best_lap_time", bestLapTimeStr);
-            data.put("avg_speed", lapCount > 0 ? Math.round((totalSpeed / lapCount) * 100) / 100.0 : 0);
-            data.put("max_speed", maxSpeed);
-            
-            // Additional analytics like pit stops
-            data.put("pit_stops", calculatePitStops(laps));
+            }, key);
+        } catch (SQLException e) {
+            System.err.println("Error getting driver race data: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Parse lap time string to seconds
+     * A driver's car telemetry between two times in a race, at the coarsest rollup that
+     * still gives at least the number of points asked for; null if the query fails
      */
-    private double parseLapTimeToSeconds(String lapTimeStr) {
-        if (lapTimeStr == null || lapTimeStr.isEmpty()) {
-            return 0;
-        }
-        
-        try {
-            // Format can be "MM:SS.mmm" or "SS.mmm"
-            String[] parts = lapTimeStr.split(":");
-            
-            if (parts.length == 2) {
-                // Format is "MM:SS.mmm"
-                int minutes = Integer.parseInt(parts[0]);
-                double seconds = Double.parseDouble(parts[1]);
-                return minutes * 60 + seconds;
-            } else {
-                // Format is "SS.mmm"
-                return Double.parseDouble(lapTimeStr);
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing lap time " + lapTimeStr + ": " + e.getMessage());
-            return 0;
+    public TelemetryRollup.CarSeries getCarData(int raceId, int driverId, long fromMs, long toMs, int points) {
+        try (Connection conn = getConnection()) {
+            return TelemetryRollup.loadCarData(conn, raceId, driverId, fromMs, toMs, points);
+        } catch (SQLException e) {
+            System.err.println("Error getting car data: " + e.getMessage());
+            return null;
         }
     }
     
     /**
-     * Calculate number of pit stops from lap data
+     * A driver's positions between two times in a race, at the coarsest rollup that
+     * still gives at least the number of points asked for; null if the query fails
      */
-    private int calculatePitStops(List<Map<String, Object>> laps) {
-        if (laps.size() < 2) {
-            return 0;
-        }
-        
-        int pitStops = 0;
-        for (int i = 1; i < laps.size(); i++) {
-            Map<String, Object> prevLap = laps.get(i - 1);
-            Map<String, Object> currentLap = laps.get(i);
-            
-            double prevLapTime = parseLapTimeToSeconds((String) prevLap.get("time"));
-            double currentLapTime = parseLapTimeToSeconds((String) currentLap.get("time"));
-            
-            // If lap time increases significantly, it's likely a pit stop
-            if (currentLapTime > prevLapTime * 1.3 && currentLapTime > prevLapTime + 5) {
-                pitStops++;
-            }
+    public TelemetryRollup.LocationSeries getLocations(int raceId, int driverId, long fromMs, long toMs, int points) {
+        try (Connection conn = getConnection()) {
+            return TelemetryRollup.loadLocations(conn, raceId, driverId, fromMs, toMs, points);
+        } catch (SQLException e) {
+            System.err.println("Error getting locations: " + e.getMessage());
+            return null;
         }
-        
-        return pitStops;
     }
     
     /**
@@ -430,10 +387,16 @@ public class F1DatabaseManager {
     public void initializeDatabase() {
         try {
             createTables();
-            insertSampleData();
+            // Only a new database gets sample data; an embedded file keeps it between runs
+            if (!hasSeasons()) {
+                insertSampleData();
+            }
             System.out.println("Database initialized successfully.");
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
+        } finally {
+            // The migrations and sample data may have written to any table
+            queryCache.invalidateAll();
         }
     }
     
@@ -503,12 +466,104 @@ public class F1DatabaseManager {
             "    driver_id INTEGER REFERENCES drivers(id)," +
             "    lap_number INTEGER NOT NULL," +
             "    position INTEGER," +
-            "    lap_time VARCHAR(20)," +
-            "    sector1_time VARCHAR(20)," +
-            "    sector2_time VARCHAR(20)," +
-            "    sector3_time VARCHAR(20)," +
+            "    lap_time_ms INTEGER," +
+            "    sector1_ms INTEGER," +
+            "    sector2_ms INTEGER," +
+            "    sector3_ms INTEGER," +
             "    speed DECIMAL(6,3)," +
             "    UNIQUE(race_id, driver_id, lap_number)" +
+            ")",
+            
+            // Per-driver race figures, kept up to date as laps are written
+            "CREATE TABLE IF NOT EXISTS driver_race_summary (" +
+            "    race_id INTEGER NOT NULL REFERENCES races(id)," +
+            "    driver_id INTEGER NOT NULL REFERENCES drivers(id)," +
+            "    laps INTEGER NOT NULL," +
+            "    timed_laps INTEGER NOT NULL," +
+            "    best_lap_ms INTEGER," +
+            "    avg_lap_ms INTEGER," +
+            "    avg_speed DECIMAL(6,3)," +
+            "    max_speed DECIMAL(6,3)," +
+            "    pit_stops INTEGER NOT NULL," +
+            "    PRIMARY KEY (race_id, driver_id)" +
+            ")",
+            
+            // Per-driver stints and their pace, refreshed with driver_race_summary
+            "CREATE TABLE IF NOT EXISTS driver_race_stints (" +
+            "    race_id INTEGER NOT NULL REFERENCES races(id)," +
+            "    driver_id INTEGER NOT NULL REFERENCES drivers(id)," +
+            "    stint INTEGER NOT NULL," +
+            "    first_lap INTEGER NOT NULL," +
+            "    last_lap INTEGER NOT NULL," +
+            "    laps INTEGER NOT NULL," +
+            "    pace_ms INTEGER," +
+            "    PRIMARY KEY (race_id, driver_id, stint)" +
+            ")",
+            
+            // Car telemetry samples, keyed in the order they are written and read
+            "CREATE TABLE IF NOT EXISTS car_data (" +
+            "    race_id INTEGER NOT NULL REFERENCES races(id)," +
+            "    driver_id INTEGER NOT NULL REFERENCES drivers(id)," +
+            "    date_ms BIGINT NOT NULL," +
+            "    speed SMALLINT," +
+            "    rpm SMALLINT," +
+            "    n_gear SMALLINT," +
+            "    throttle SMALLINT," +
+            "    brake SMALLINT," +
+            "    drs SMALLINT," +
+            "    PRIMARY KEY (race_id, driver_id, date_ms)" +
+            ")",
+            
+            // Car position samples
+            "CREATE TABLE IF NOT EXISTS location (" +
+            "    race_id INTEGER NOT NULL REFERENCES races(id)," +
+            "    driver_id INTEGER NOT NULL REFERENCES drivers(id)," +
+            "    date_ms BIGINT NOT NULL," +
+            "    x INTEGER," +
+            "    y INTEGER," +
+            "    z INTEGER," +
+            "    PRIMARY KEY (race_id, driver_id, date_ms)" +
+            ")",
+            
+            // Car data summed up per 1 s and 10 s bucket (bucket_ms), kept by TelemetryRollup
+            "CREATE TABLE IF NOT EXISTS car_data_rollup (" +
+            "    race_id INTEGER NOT NULL," +
+            "    driver_id INTEGER NOT NULL," +
+            "    bucket_ms INTEGER NOT NULL," +
+            "    start_ms BIGINT NOT NULL," +
+            "    samples INTEGER NOT NULL," +
+            "    min_speed SMALLINT," +
+            "    max_speed SMALLINT," +
+            "    avg_speed DECIMAL(8,2)," +
+            "    min_rpm SMALLINT," +
+            "    max_rpm SMALLINT," +
+            "    avg_rpm DECIMAL(8,2)," +
+            "    min_throttle SMALLINT," +
+            "    max_throttle SMALLINT," +
+            "    avg_throttle DECIMAL(8,2)," +
+            "    gear_0 INTEGER NOT NULL," +
+            "    gear_1 INTEGER NOT NULL," +
+            "    gear_2 INTEGER NOT NULL," +
+            "    gear_3 INTEGER NOT NULL," +
+            "    gear_4 INTEGER NOT NULL," +
+            "    gear_5 INTEGER NOT NULL," +
+            "    gear_6 INTEGER NOT NULL," +
+            "    gear_7 INTEGER NOT NULL," +
+            "    gear_8 INTEGER NOT NULL," +
+            "    PRIMARY KEY (race_id, driver_id, bucket_ms, start_ms)" +
+            ")",
+            
+            // Last car position per 1 s and 10 s bucket
+            "CREATE TABLE IF NOT EXISTS location_rollup (" +
+            "    race_id INTEGER NOT NULL," +
+            "    driver_id INTEGER NOT NULL," +
+            "    bucket_ms INTEGER NOT NULL," +
+            "    start_ms BIGINT NOT NULL," +
+            "    samples INTEGER NOT NULL," +
+            "    x INTEGER," +
+            "    y INTEGER," +
+            "    z INTEGER," +
+            "    PRIMARY KEY (race_id, driver_id, bucket_ms, start_ms)" +
             ")"
         };
         
@@ -518,6 +573,22 @@ public class F1DatabaseManager {
             for (String sql : createTableStatements) {
                 stmt.execute(sql);
             }
+            
+            // Older databases still keep lap times as text
+            LapTimeMigration.migrate(conn);
+            DriverRaceSummary.rebuildIfEmpty(conn);
+            TelemetryRollup.rebuildIfEmpty(conn);
+        }
+    }
+    
+    /**
+     * Whether any seasons are stored yet
+     */
+    private boolean hasSeasons() throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM seasons")) {
+            return rs.next() && rs.getInt(1) > 0;
         }
     }
     
@@ -536,8 +607,7 @@ public class F1DatabaseManager {
      * Insert seasons
      */
     private void insertSeasons() throws SQLException {
-        String sql = "INSERT INTO seasons (year, name) VALUES (?, ?) " +
-                     "ON CONFLICT (year) DO NOTHING";
+        String sql = "INSERT INTO seasons (year, name) VALUES (?, ?)";
         
         int[][] seasons = {
             {2020, 2020},
@@ -552,7 +622,13 @@ public class F1DatabaseManager {
             for (int[] season : seasons) {
                 stmt.setInt(1, season[0]);
                 stmt.setString(2, season[0] + " Formula 1 Season");
-                stmt.executeUpdate();
+                
+                try {
+                    stmt.executeUpdate();
+                } catch (SQLException e) {
+                    // Skip if already exists
+                    System.out.println("Skipping season: " + season[0] + " - " + e.getMessage());
+                }
             }
         }
     }
@@ -561,8 +637,7 @@ public class F1DatabaseManager {
      * Insert teams
      */
     private void insertTeams() throws SQLException {
-        String sql = "INSERT INTO teams (name, full_name, nationality, base) VALUES (?, ?, ?, ?) " +
-                     "ON CONFLICT (name) DO NOTHING";
+        String sql = "INSERT INTO teams (name, full_name, nationality, base) VALUES (?, ?, ?, ?)";
         
         String[][] teams = {
             {"Mercedes", "Mercedes-AMG Petronas F1 Team", "German", "Brackley, United Kingdom"},
@@ -585,7 +660,13 @@ public class F1DatabaseManager {
                 stmt.setString(2, team[1]);
                 stmt.setString(3, team[2]);
                 stmt.setString(4, team[3]);
-                stmt.executeUpdate();
+                
+                try {
+                    stmt.executeUpdate();
+                } catch (SQLException e) {
+                    // Skip if already exists
+                    System.out.println("Skipping team: " + team[0] + " - " + e.getMessage());
+                }
             }
         }
     }
@@ -643,7 +724,13 @@ public class F1DatabaseManager {
                     stmt.setString(5, (String) race[4]);
                     stmt.setString(6, (String) race[5]);
                     stmt.setInt(7, (Integer) race[6]);
-                    stmt.executeUpdate();
+                    
+                    try {
+                        stmt.executeUpdate();
+                    } catch (SQLException e) {
+                        // Skip if already exists
+                        System.out.println("Skipping race: " + race[1] + " - " + e.getMessage());
+                    }
                 }
             }
         }
@@ -737,38 +824,28 @@ public class F1DatabaseManager {
             }
             Collections.shuffle(positions);
             
-            String resultSql = "INSERT INTO race_results (race_id, driver_id, position, points, grid_position, " +
-                              "status, laps_completed) " +
-                              "VALUES (?, ?, ?, ?, ?, ?, ?)";
-            
-            try (Connection conn = getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(resultSql)) {
+            List<Object[]> results = new ArrayList<>(drivers.size());
+            for (int i = 0; i < drivers.size(); i++) {
+                int driverId = (int) drivers.get(i).get("id");
+                int position = positions.get(i);
+                double points = getPointsForPosition(position);
+                int gridPosition = (int) (Math.random() * drivers.size()) + 1;
+                String status = position <= drivers.size() - 2 ? "Finished" : "DNF";
+                int lapsCompleted = status.equals("Finished") ? 57 : (int) (Math.random() * 40) + 10;
                 
-                for (int i = 0; i < drivers.size(); i++) {
-                    int driverId = (int) drivers.get(i).get("id");
-                    int position = positions.get(i);
-                    double points = getPointsForPosition(position);
-                    int gridPosition = (int) (Math.random() * drivers.size()) + 1;
-                    String status = position <= drivers.size() - 2 ? "Finished" : "DNF";
-                    int lapsCompleted = status.equals("Finished") ? 57 : (int) (Math.random() * 40) + 10;
-                    
-                    stmt.setInt(1, raceId);
-                    stmt.setInt(2, driverId);
-                    stmt.setInt(3, position);
-                    stmt.setDouble(4, points);
-                    stmt.setInt(5, gridPosition);
-                    stmt.setString(6, status);
-                    stmt.setInt(7, lapsCompleted);
-                    
-                    stmt.executeUpdate();
-                }
+                results.add(new Object[] {raceId, driverId, position, points, gridPosition, status, lapsCompleted});
             }
             
-            // Generate sample lap data for the first few drivers
+            BatchWriter writer = new BatchWriter(pool);
+            System.out.println("Sample results written: " + writer.writeRows(BatchWriter.Table.RACE_RESULTS, results));
+            
+            // Generate sample lap data for the first few drivers, written in one batch
+            Map<Integer, List<LapRecord>> laps = new LinkedHashMap<>();
             for (int i = 0; i < Math.min(5, drivers.size()); i++) {
                 int driverId = (int) drivers.get(i).get("id");
-                generateSampleLapData(raceId, driverId, positions.get(i));
+                laps.put(driverId, generateSampleLaps(positions.get(i)));
             }
+            System.out.println("Sample laps written: " + writer.writeLaps(raceId, laps));
             
         } catch (SQLException e) {
             System.err.println("Error inserting sample results: " + e.getMessage());
@@ -795,60 +872,42 @@ public class F1DatabaseManager {
     }
     
     /**
-     * Generate sample lap data for a driver
+     * Generate sample laps for a driver
      */
-    private void generateSampleLapData(int raceId, int driverId, int finalPosition) throws SQLException {
-        String sql = "INSERT INTO lap_data (race_id, driver_id, lap_number, position, " +
-                     "lap_time, sector1_time, sector2_time, sector3_time, speed) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private List<LapRecord> generateSampleLaps(int finalPosition) {
+        List<LapRecord> laps = new ArrayList<>(57);
+        double baseSpeed = 200 + Math.random() * 20;
+        double baseLapTime = 90.0 + Math.random() * 5.0; // Base lap time in seconds
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        for (int lap = 1; lap <= 57; lap++) {
+            int position = calculateLapPosition(lap, finalPosition);
             
-            double baseSpeed = 200 + Math.random() * 20;
-            double baseLapTime = 90.0 + Math.random() * 5.0; // Base lap time in seconds
+            // Vary lap time by fuel load, tire wear, etc.
+            double fuelEffect = -0.05 * lap; // Faster as fuel burns off
+            double tireEffect = 0.02 * lap; // Slower as tires wear
+            double randomVariation = (Math.random() - 0.5) * 2.0; // Random variation
             
-            for (int lap = 1; lap <= 57; lap++) {
-                int position = calculateLapPosition(lap, finalPosition);
-                
-                // Vary lap time by fuel load, tire wear, etc.
-                double fuelEffect = -0.05 * lap; // Faster as fuel burns off
-                double tireEffect = 0.02 * lap; // Slower as tires wear
-                double randomVariation = (Math.random() - 0.5) * 2.0; // Random variation
-                
-                // Reset tire effect after pit stops
-                if (lap == 18 || lap == 38) {
-                    tireEffect = -0.5; // Fresh tires
-                }
-                
-                double adjustedLapTime = baseLapTime + fuelEffect + tireEffect + randomVariation;
-                String lapTimeStr = formatLapTime(adjustedLapTime);
-                
-                // Generate sector times that add up to lap time
-                double sector1Percent = 0.3 + (Math.random() - 0.5) * 0.05;
-                double sector2Percent = 0.4 + (Math.random() - 0.5) * 0.05;
-                double sector3Percent = 1.0 - sector1Percent - sector2Percent;
-                
-                String sector1Time = formatLapTime(adjustedLapTime * sector1Percent);
-                String sector2Time = formatLapTime(adjustedLapTime * sector2Percent);
-                String sector3Time = formatLapTime(adjustedLapTime * sector3Percent);
-                
-                // Speed varies slightly each lap
-                double speed = baseSpeed + (Math.random() - 0.5) * 10;
-                
-                stmt.setInt(1, raceId);
-                stmt.setInt(2, driverId);
-                stmt.setInt(3, lap);
-                stmt.setInt(4, position);
-                stmt.setString(5, lapTimeStr);
-                stmt.setString(6, sector1Time);
-                stmt.setString(7, sector2Time);
-                stmt.setString(8, sector3Time);
-                stmt.setDouble(9, speed);
-                
-                stmt.executeUpdate();
+            // Reset tire effect after pit stops
+            if (lap == 18 || lap == 38) {
+                tireEffect = -0.5; // Fresh tires
             }
+            
+            int lapMillis = LapRecord.toMillis(baseLapTime + fuelEffect + tireEffect + randomVariation);
+            
+            // Generate sector times that add up to lap time
+            double sector1Percent = 0.3 + (Math.random() - 0.5) * 0.05;
+            double sector2Percent = 0.4 + (Math.random() - 0.5) * 0.05;
+            int sector1Millis = (int) Math.round(lapMillis * sector1Percent);
+            int sector2Millis = (int) Math.round(lapMillis * sector2Percent);
+            int sector3Millis = lapMillis - sector1Millis - sector2Millis;
+            
+            // Speed varies slightly each lap
+            double speed = baseSpeed + (Math.random() - 0.5) * 10;
+            
+            laps.add(new LapRecord(lap, position, lapMillis, sector1Millis, sector2Millis, sector3Millis, speed));
         }
+        
+        return laps;
     }
     
     /**
@@ -871,12 +930,14 @@ public class F1DatabaseManager {
     }
     
     /**
-     * Format lap time as "M:SS.mmm"
+     * A copy of cached rows the caller is free to change
      */
-    private String formatLapTime(double seconds) {
-        int minutes = (int) (seconds / 60);
-        double remainingSeconds = seconds % 60;
-        return String.format("%d:%05.3f", minutes, remainingSeconds);
+    private static List<Map<String, Object>> copyRows(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(new HashMap<>(row));
+        }
+        return copy;
     }
     
     /**
@@ -904,6 +965,11 @@ public class F1DatabaseManager {
                     System.out.println("Driver race data: " + driverData);
                 }
             }
+            
+            System.out.println("Connection pool: " + dbManager.getPoolStats());
+            for (QueryCache.Stats stats : dbManager.getQueryCacheStats()) {
+                System.out.println("Query cache " + stats);
+            }
         } else {
             System.err.println("Failed to connect to the database.");
         }
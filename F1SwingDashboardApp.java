@@ -10,7 +10,9 @@ import java.text.DecimalFormat;
 import java.util.*;
 import java.util.List;
 import java.sql.*;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * F1SwingDashboardApp - Standalone Swing application for F1 Dashboard
@@ -184,6 +186,17 @@ public class F1SwingDashboardApp extends JFrame {
         trackMapTools.add(showSectorsCheck);
         trackMapTools.add(showPitLaneCheck);
         
+        // Place every car from the dashboard server's state-at-time endpoint
+        SessionSnapshotClient snapshotClient = new SessionSnapshotClient();
+        JTextField sessionField = new JTextField(6);
+        JTextField timeField = new JTextField("2024-03-02T15:30:00Z", 16);
+        JButton showSnapshotButton = new JButton("Show");
+        trackMapTools.add(new JLabel("Session:"));
+        trackMapTools.add(sessionField);
+        trackMapTools.add(new JLabel("At (UTC):"));
+        trackMapTools.add(timeField);
+        trackMapTools.add(showSnapshotButton);
+        
         // Add listeners for track map options
         circuitBox.addActionListener(e -> {
             int index = circuitBox.getSelectedIndex();
@@ -193,6 +206,17 @@ public class F1SwingDashboardApp extends JFrame {
         showNamesCheck.addActionListener(e -> trackMapPanel.toggleDriverNames());
         showSectorsCheck.addActionListener(e -> trackMapPanel.toggleSectors());
         showPitLaneCheck.addActionListener(e -> trackMapPanel.togglePitLane());
+        showSnapshotButton.addActionListener(e -> {
+            try {
+                int sessionKey = Integer.parseInt(sessionField.getText().trim());
+                long epochMillis = Instant.parse(timeField.getText().trim()).toEpochMilli();
+                trackMapPanel.showSessionAt(snapshotClient, sessionKey, epochMillis);
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(F1SwingDashboardApp.this,
+                    "Enter an OpenF1 session key and a UTC time such as 2024-03-02T15:30:00Z",
+                    "Session Snapshot", JOptionPane.WARNING_MESSAGE);
+            }
+        });
         
         JPanel trackMapContainer = new JPanel(new BorderLayout());
         trackMapContainer.add(trackMapTools, BorderLayout.NORTH);
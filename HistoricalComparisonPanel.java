@@ -5,25 +5,54 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Panel for comparing historical F1 data between drivers and races from 2020
  */
 public class HistoricalComparisonPanel extends JPanel {
-    private JComboBox<String> season1ComboBox;
-    private JComboBox<String> season2ComboBox;
-    private JComboBox<String> race1ComboBox;
-    private JComboBox<String> race2ComboBox;
-    private JComboBox<String> driver1ComboBox;
-    private JComboBox<String> driver2ComboBox;
+    // One chart colour per driver, which also caps how many can be compared
+    private static final Color[] SERIES_COLORS = {
+        Color.RED, Color.BLUE, new Color(0, 150, 0), Color.ORANGE, Color.MAGENTA, new Color(0, 150, 150)
+    };
+    private static final int MIN_DRIVERS = 2;
+    
+    private final List<ComparisonRow> comparisonRows = new ArrayList<>();
+    private JPanel rowsPanel;
+    private JButton compareButton;
+    private JButton addDriverButton;
+    private JButton removeDriverButton;
     private JPanel comparisonDisplayPanel;
     private JPanel chartPanel;
     
     // Maps to store selection data
+    private final F1DatabaseService dbService = new F1DatabaseService();
+    private List<String> seasons = new ArrayList<>();
     private Map<String, Integer> seasonMap = new HashMap<>();
     private Map<String, Integer> racesMap = new HashMap<>();
     private Map<String, Integer> driversMap = new HashMap<>();
     
+    /**
+     * The season, race and driver picked for one driver in the comparison
+     */
+    private static class ComparisonRow {
+        final JPanel panel;
+        final JComboBox<String> seasonComboBox = new JComboBox<>();
+        final JComboBox<String> raceComboBox = new JComboBox<>();
+        final JComboBox<String> driverComboBox = new JComboBox<>();
+        
+        ComparisonRow(int number) {
+            panel = new JPanel(new GridLayout(3, 2, 5, 5));
+            panel.setBorder(BorderFactory.createTitledBorder("Driver " + number));
+            panel.add(new JLabel("Season:"));
+            panel.add(seasonComboBox);
+            panel.add(new JLabel("Race:"));
+            panel.add(raceComboBox);
+            panel.add(new JLabel("Driver:"));
+            panel.add(driverComboBox);
+        }
+    }
+    
     /**
      * Constructor for the historical comparison panel
      */
@@ -58,100 +87,61 @@ public class HistoricalComparisonPanel extends JPanel {
     }
     
     /**
-     * Initialize the selection panel with season, race, and driver selection options
+     * Initialize the selection panel with a season, race, and driver selection per driver
      */
     private void initializeSelectionPanel() {
-        JPanel selectionPanel = new JPanel();
-        selectionPanel.setLayout(new BoxLayout(selectionPanel, BoxLayout.Y_AXIS));
+        JPanel selectionPanel = new JPanel(new BorderLayout());
         selectionPanel.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createTitledBorder("Select Comparison Data"),
             BorderFactory.createEmptyBorder(5, 5, 5, 5)));
         
-        // Season selection
-        JPanel seasonPanel = new JPanel(new GridLayout(2, 2, 5, 5));
-        seasonPanel.setBorder(BorderFactory.createTitledBorder("Seasons"));
-        
-        season1ComboBox = new JComboBox<>();
-        season2ComboBox = new JComboBox<>();
-        
-        seasonPanel.add(new JLabel("Season 1:"));
-        seasonPanel.add(season1ComboBox);
-        seasonPanel.add(new JLabel("Season 2:"));
-        seasonPanel.add(season2ComboBox);
-        
-        // Race selection
-        JPanel racePanel = new JPanel(new GridLayout(2, 2, 5, 5));
-        racePanel.setBorder(BorderFactory.createTitledBorder("Races"));
-        
-        race1ComboBox = new JComboBox<>();
-        race2ComboBox = new JComboBox<>();
-        
-        racePanel.add(new JLabel("Race 1:"));
-        racePanel.add(race1ComboBox);
-        racePanel.add(new JLabel("Race 2:"));
-        racePanel.add(race2ComboBox);
+        // One row of dropdowns per driver; rows are added in loadHistoricalData
+        rowsPanel = new JPanel();
+        rowsPanel.setLayout(new BoxLayout(rowsPanel, BoxLayout.Y_AXIS));
         
-        // Driver selection
-        JPanel driverPanel = new JPanel(new GridLayout(2, 2, 5, 5));
-        driverPanel.setBorder(BorderFactory.createTitledBorder("Drivers"));
+        JPanel rowsHolder = new JPanel(new BorderLayout());
+        rowsHolder.add(rowsPanel, BorderLayout.NORTH);
+        JScrollPane rowsScrollPane = new JScrollPane(rowsHolder);
+        rowsScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        rowsScrollPane.getVerticalScrollBar().setUnitIncrement(16);
         
-        driver1ComboBox = new JComboBox<>();
-        driver2ComboBox = new JComboBox<>();
-        
-        driverPanel.add(new JLabel("Driver 1:"));
-        driverPanel.add(driver1ComboBox);
-        driverPanel.add(new JLabel("Driver 2:"));
-        driverPanel.add(driver2ComboBox);
-        
-        // Compare button
-        JButton compareButton = new JButton("Compare");
-        compareButton.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                performComparison();
-            }
-        });
-        
-        // Add listeners for dropdowns
-        season1ComboBox.addActionListener(new ActionListener() {
+        // Buttons to change the number of drivers and to compare
+        addDriverButton = new JButton("Add Driver");
+        addDriverButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                updateRaceOptions(season1ComboBox, race1ComboBox);
+                addDriverRow();
             }
         });
         
-        season2ComboBox.addActionListener(new ActionListener() {
+        removeDriverButton = new JButton("Remove Driver");
+        removeDriverButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                updateRaceOptions(season2ComboBox, race2ComboBox);
+                removeDriverRow();
             }
         });
         
-        race1ComboBox.addActionListener(new ActionListener() {
+        compareButton = new JButton("Compare");
+        compareButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                updateDriverOptions(race1ComboBox, driver1ComboBox);
+                performComparison();
             }
         });
         
-        race2ComboBox.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                updateDriverOptions(race2ComboBox, driver2ComboBox);
-            }
-        });
+        JPanel buttonPanel = new JPanel(new GridLayout(2, 1, 0, 5));
+        JPanel rowButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        rowButtonPanel.add(addDriverButton);
+        rowButtonPanel.add(removeDriverButton);
+        JPanel compareButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        compareButtonPanel.add(compareButton);
+        buttonPanel.add(rowButtonPanel);
+        buttonPanel.add(compareButtonPanel);
         
         // Add components to selection panel
-        selectionPanel.add(seasonPanel);
-        selectionPanel.add(Box.createRigidArea(new Dimension(0, 10)));
-        selectionPanel.add(racePanel);
-        selectionPanel.add(Box.createRigidArea(new Dimension(0, 10)));
-        selectionPanel.add(driverPanel);
-        selectionPanel.add(Box.createRigidArea(new Dimension(0, 10)));
-        
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        buttonPanel.add(compareButton);
-        selectionPanel.add(buttonPanel);
+        selectionPanel.add(rowsScrollPane, BorderLayout.CENTER);
+        selectionPanel.add(buttonPanel, BorderLayout.SOUTH);
         
         // Add selection panel to the west area
         add(selectionPanel, BorderLayout.WEST);
@@ -162,48 +152,97 @@ public class HistoricalComparisonPanel extends JPanel {
      */
     private void loadHistoricalData() {
         try {
-            // Create database manager
-            F1DatabaseManager dbManager = new F1DatabaseManager();
-            
-            // Get available seasons from database
-            List<String> seasons = dbManager.getAvailableSeasons();
+            // Get available seasons from the catalogue, loading it on first use
+            seasons = new ArrayList<>();
+            for (RaceCatalogue.Season season : dbService.getCatalogue().getSeasons()) {
+                seasons.add(String.valueOf(season.getYear()));
+            }
             
             if (seasons.isEmpty()) {
                 // If no seasons in database, add them manually
                 seasons = Arrays.asList("2020", "2021", "2022", "2023");
             }
             
-            // Populate seasons dropdown
             for (String season : seasons) {
-                season1ComboBox.addItem(season);
-                season2ComboBox.addItem(season);
                 seasonMap.put(season, Integer.parseInt(season));
             }
-            
-            // Set season2 default to a different season
-            if (season2ComboBox.getItemCount() > 1) {
-                season2ComboBox.setSelectedIndex(1);
-            }
-            
-            // Initial update of race options
-            updateRaceOptions(season1ComboBox, race1ComboBox);
-            updateRaceOptions(season2ComboBox, race2ComboBox);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 "Error loading historical data: " + e.getMessage(),
                 "Database Error", JOptionPane.ERROR_MESSAGE);
         }
+        
+        // Start with two drivers, the second in a different season
+        while (comparisonRows.size() < MIN_DRIVERS) {
+            addDriverRow();
+        }
+    }
+    
+    /**
+     * Add a driver to the comparison, in the same season as the driver above it
+     */
+    private void addDriverRow() {
+        if (comparisonRows.size() >= SERIES_COLORS.length) return;
+        
+        ComparisonRow row = new ComparisonRow(comparisonRows.size() + 1);
+        
+        row.seasonComboBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateRaceOptions(row);
+            }
+        });
+        
+        row.raceComboBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateDriverOptions(row);
+            }
+        });
+        
+        // Populate seasons dropdown, which fills in the races and drivers
+        for (String season : seasons) {
+            row.seasonComboBox.addItem(season);
+        }
+        
+        int seasonIndex = comparisonRows.size() == 1
+            ? 1 : comparisonRows.isEmpty() ? 0 : comparisonRows.get(comparisonRows.size() - 1).seasonComboBox.getSelectedIndex();
+        if (seasonIndex > 0 && seasonIndex < row.seasonComboBox.getItemCount()) {
+            row.seasonComboBox.setSelectedIndex(seasonIndex);
+        }
+        
+        comparisonRows.add(row);
+        rowsPanel.add(row.panel);
+        updateRowButtons();
+    }
+    
+    /**
+     * Remove the last driver from the comparison
+     */
+    private void removeDriverRow() {
+        if (comparisonRows.size() <= MIN_DRIVERS) return;
+        
+        ComparisonRow row = comparisonRows.remove(comparisonRows.size() - 1);
+        rowsPanel.remove(row.panel);
+        updateRowButtons();
+    }
+    
+    private void updateRowButtons() {
+        addDriverButton.setEnabled(comparisonRows.size() < SERIES_COLORS.length);
+        removeDriverButton.setEnabled(comparisonRows.size() > MIN_DRIVERS);
+        rowsPanel.revalidate();
+        rowsPanel.repaint();
     }
     
     /**
      * Update race options based on selected season
      */
-    private void updateRaceOptions(JComboBox<String> seasonComboBox, JComboBox<String> raceComboBox) {
-        String selectedSeason = (String) seasonComboBox.getSelectedItem();
+    private void updateRaceOptions(ComparisonRow row) {
+        String selectedSeason = (String) row.seasonComboBox.getSelectedItem();
         if (selectedSeason == null) return;
         
         // Clear current items
-        raceComboBox.removeAllItems();
+        row.raceComboBox.removeAllItems();
         
         // Get races for the selected season
         List<Map<String, Object>> races = getRacesForSeason(selectedSeason);
@@ -213,88 +252,130 @@ public class HistoricalComparisonPanel extends JPanel {
             String raceName = (String) race.get("name");
             Integer raceId = (Integer) race.get("id");
             racesMap.put(raceName, raceId);
-            raceComboBox.addItem(raceName);
+            row.raceComboBox.addItem(raceName);
         }
         
         // Update driver options if a race is selected
-        if (raceComboBox.getItemCount() > 0) {
-            updateDriverOptions(raceComboBox, 
-                raceComboBox == race1ComboBox ? driver1ComboBox : driver2ComboBox);
+        if (row.raceComboBox.getItemCount() > 0) {
+            updateDriverOptions(row);
         }
     }
     
     /**
      * Update driver options based on selected race
      */
-    private void updateDriverOptions(JComboBox<String> raceComboBox, JComboBox<String> driverComboBox) {
-        String selectedRace = (String) raceComboBox.getSelectedItem();
+    private void updateDriverOptions(ComparisonRow row) {
+        String selectedRace = (String) row.raceComboBox.getSelectedItem();
         if (selectedRace == null) return;
         
         // Clear current items
-        driverComboBox.removeAllItems();
+        row.driverComboBox.removeAllItems();
         
         // Get drivers for the selected race
-        List<Map<String, Object>> drivers = getDriversForRace(selectedRace);
+        List<Map<String, Object>> drivers = getDriversForRace((String) row.seasonComboBox.getSelectedItem(), selectedRace);
         
         // Populate driver dropdown
         for (Map<String, Object> driver : drivers) {
             String driverName = (String) driver.get("name");
             Integer driverId = (Integer) driver.get("id");
             driversMap.put(driverName, driverId);
-            driverComboBox.addItem(driverName);
+            row.driverComboBox.addItem(driverName);
         }
     }
     
     /**
      * Perform the comparison of selected data
+     * The data is loaded off the event dispatch thread, all drivers in one database call
      */
     private void performComparison() {
-        String season1 = (String) season1ComboBox.getSelectedItem();
-        String season2 = (String) season2ComboBox.getSelectedItem();
-        String race1 = (String) race1ComboBox.getSelectedItem();
-        String race2 = (String) race2ComboBox.getSelectedItem();
-        String driver1 = (String) driver1ComboBox.getSelectedItem();
-        String driver2 = (String) driver2ComboBox.getSelectedItem();
-        
-        // Check if all required selections are made
-        if (season1 == null || season2 == null || race1 == null || 
-            race2 == null || driver1 == null || driver2 == null) {
-            JOptionPane.showMessageDialog(this, 
-                "Please make all selections to perform comparison.",
-                "Incomplete Selection", JOptionPane.WARNING_MESSAGE);
-            return;
+        List<String> driverNames = new ArrayList<>();
+        List<String> raceNames = new ArrayList<>();
+        List<String> seasonNames = new ArrayList<>();
+        List<DriverRaceData.Key> keys = new ArrayList<>();
+        
+        for (ComparisonRow row : comparisonRows) {
+            String season = (String) row.seasonComboBox.getSelectedItem();
+            String race = (String) row.raceComboBox.getSelectedItem();
+            String driver = (String) row.driverComboBox.getSelectedItem();
+            
+            // Check if all required selections are made
+            if (season == null || race == null || driver == null) {
+                JOptionPane.showMessageDialog(this, 
+                    "Please make all selections to perform comparison.",
+                    "Incomplete Selection", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            seasonNames.add(season);
+            raceNames.add(race);
+            driverNames.add(driver);
+            keys.add(new DriverRaceData.Key(driversMap.getOrDefault(driver, -1), racesMap.getOrDefault(race, -1)));
         }
         
-        // Get comparison data
-        Map<String, Object> driver1Data = getDriverRaceData(driver1, race1, season1);
-        Map<String, Object> driver2Data = getDriverRaceData(driver2, race2, season2);
-        
-        // Update the comparison display
-        updateComparisonDisplay(driver1, driver1Data, driver2, driver2Data);
+        List<String> labels = columnLabels(driverNames, raceNames);
+        compareButton.setEnabled(false);
         
-        // Update the chart display
-        updateComparisonChart(driver1, driver1Data, driver2, driver2Data);
+        new SwingWorker<List<Map<String, Object>>, Void>() {
+            @Override
+            protected List<Map<String, Object>> doInBackground() {
+                return getDriverRaceData(keys, driverNames, raceNames, seasonNames);
+            }
+            
+            @Override
+            protected void done() {
+                compareButton.setEnabled(true);
+                try {
+                    List<Map<String, Object>> data = get();
+                    
+                    // Update the comparison display
+                    updateComparisonDisplay(labels, data);
+                    
+                    // Update the chart display
+                    updateComparisonChart(labels, data);
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(HistoricalComparisonPanel.this,
+                        "Error comparing drivers: " + e.getMessage(),
+                        "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
+    /**
+     * Column and legend names, the driver with the race added when a driver is picked twice
+     */
+    private List<String> columnLabels(List<String> driverNames, List<String> raceNames) {
+        List<String> labels = new ArrayList<>(driverNames.size());
+        for (int i = 0; i < driverNames.size(); i++) {
+            String driver = driverNames.get(i);
+            boolean repeated = driverNames.indexOf(driver) != driverNames.lastIndexOf(driver);
+            labels.add(repeated ? driver + " (" + raceNames.get(i) + ")" : driver);
+        }
+        return labels;
     }
     
     /**
      * Update the comparison display panel with detailed metrics
      */
-    private void updateComparisonDisplay(String driver1, Map<String, Object> driver1Data, 
-                                        String driver2, Map<String, Object> driver2Data) {
+    private void updateComparisonDisplay(List<String> labels, List<Map<String, Object>> data) {
         comparisonDisplayPanel.removeAll();
         
         // Create a table model for the comparison
-        String[] columns = {"Metric", driver1, driver2, "Difference"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0);
+        // Two drivers show their difference, more show the range from lowest to highest
+        List<String> columns = new ArrayList<>();
+        columns.add("Metric");
+        columns.addAll(labels);
+        columns.add(data.size() == 2 ? "Difference" : "Range");
+        DefaultTableModel model = new DefaultTableModel(columns.toArray(), 0);
         
         // Add metrics to the table
-        addComparisonRow(model, "Final Position", driver1Data, driver2Data, "position");
-        addComparisonRow(model, "Points", driver1Data, driver2Data, "points");
-        addComparisonRow(model, "Best Lap Time", driver1Data, driver2Data, "best_lap_time");
-        addComparisonRow(model, "Average Speed (kph)", driver1Data, driver2Data, "avg_speed");
-        addComparisonRow(model, "Max Speed (kph)", driver1Data, driver2Data, "max_speed");
-        addComparisonRow(model, "Pit Stops", driver1Data, driver2Data, "pit_stops");
-        addComparisonRow(model, "Laps Completed", driver1Data, driver2Data, "laps_completed");
+        addComparisonRow(model, "Final Position", data, "position");
+        addComparisonRow(model, "Points", data, "points");
+        addComparisonRow(model, "Best Lap Time", data, "best_lap_time");
+        addComparisonRow(model, "Average Speed (kph)", data, "avg_speed");
+        addComparisonRow(model, "Max Speed (kph)", data, "max_speed");
+        addComparisonRow(model, "Pit Stops", data, "pit_stops");
+        addComparisonRow(model, "Laps Completed", data, "laps_completed");
         
         // Create the table
         JTable comparisonTable = new JTable(model);
@@ -312,74 +393,79 @@ public class HistoricalComparisonPanel extends JPanel {
      * Helper method to add a comparison row to the table model
      */
     private void addComparisonRow(DefaultTableModel model, String metricName, 
-                                Map<String, Object> driver1Data, Map<String, Object> driver2Data, 
-                                String metricKey) {
-        Object value1 = driver1Data.getOrDefault(metricKey, "-");
-        Object value2 = driver2Data.getOrDefault(metricKey, "-");
+                                List<Map<String, Object>> data, String metricKey) {
+        Object[] row = new Object[data.size() + 2];
+        row[0] = metricName;
+        for (int i = 0; i < data.size(); i++) {
+            row[i + 1] = data.get(i).getOrDefault(metricKey, "-");
+        }
+        
+        // Lap times come with their milliseconds alongside the display text
+        String numberKey = metricKey.equals("best_lap_time") ? "best_lap_ms" : metricKey;
+        
+        // The first less the second for two drivers, else the highest less the lowest
+        Object high = null;
+        Object low = null;
+        if (data.size() == 2) {
+            high = data.get(0).get(numberKey);
+            low = data.get(1).get(numberKey);
+        } else {
+            for (Map<String, Object> driverData : data) {
+                Object value = driverData.get(numberKey);
+                if (!(value instanceof Number)) {
+                    high = null;
+                    low = null;
+                    break;
+                }
+                if (high == null || ((Number) value).doubleValue() > ((Number) high).doubleValue()) high = value;
+                if (low == null || ((Number) value).doubleValue() < ((Number) low).doubleValue()) low = value;
+            }
+        }
         
         // Calculate difference if both values are numbers
         String difference = "-";
-        if (value1 instanceof Number && value2 instanceof Number) {
-            double diff = ((Number)value1).doubleValue() - ((Number)value2).doubleValue();
+        if (numberKey.equals("best_lap_ms")) {
+            difference = calculateTimeDifference(high, low);
+        } else if (high instanceof Number && low instanceof Number) {
+            double diff = ((Number)high).doubleValue() - ((Number)low).doubleValue();
             difference = String.format("%.2f", diff);
             
             // Add + sign for positive differences
             if (diff > 0) {
                 difference = "+" + difference;
             }
-        } else if (metricKey.equals("best_lap_time")) {
-            // Special handling for lap times (format: "1:23.456")
-            difference = calculateTimeDifference((String)value1, (String)value2);
         }
         
-        model.addRow(new Object[]{metricName, value1, value2, difference});
+        row[row.length - 1] = difference;
+        model.addRow(row);
     }
     
     /**
      * Calculate the difference between two lap times
      */
-    private String calculateTimeDifference(String time1, String time2) {
-        if (time1.equals("-") || time2.equals("-")) {
+    private String calculateTimeDifference(Object millis1, Object millis2) {
+        if (!(millis1 instanceof Integer) || !(millis2 instanceof Integer)) {
             return "-";
         }
         
-        try {
-            // Parse lap times (format: "1:23.456")
-            double seconds1 = parseLapTime(time1);
-            double seconds2 = parseLapTime(time2);
-            
-            double diff = seconds1 - seconds2;
-            String sign = diff < 0 ? "-" : "+";
-            diff = Math.abs(diff);
-            
-            return String.format("%s%.3f", sign, diff);
-        } catch (Exception e) {
-            return "Error";
-        }
-    }
-    
-    /**
-     * Parse lap time string to seconds
-     */
-    private double parseLapTime(String timeStr) {
-        String[] parts = timeStr.split(":");
-        double minutes = Double.parseDouble(parts[0]);
-        double seconds = Double.parseDouble(parts[1]);
-        return minutes * 60 + seconds;
+        int diff = (Integer) millis1 - (Integer) millis2;
+        String sign = diff < 0 ? "-" : "+";
+        diff = Math.abs(diff);
+        
+        return String.format("%s%d.%03d", sign, diff / 1000, diff % 1000);
     }
     
     /**
      * Update the comparison chart display
      */
-    private void updateComparisonChart(String driver1, Map<String, Object> driver1Data, 
-                                     String driver2, Map<String, Object> driver2Data) {
+    private void updateComparisonChart(List<String> labels, List<Map<String, Object>> data) {
         chartPanel.removeAll();
         
         JPanel chartContent = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                drawComparisonChart(g, driver1, driver1Data, driver2, driver2Data);
+                drawComparisonChart(g, labels, data);
             }
         };
         
@@ -389,10 +475,9 @@ public class HistoricalComparisonPanel extends JPanel {
     }
     
     /**
-     * Draw a comparison chart for the two drivers
+     * Draw a comparison chart for the drivers, one colour each
      */
-    private void drawComparisonChart(Graphics g, String driver1, Map<String, Object> driver1Data, 
-                                   String driver2, Map<String, Object> driver2Data) {
+    private void drawComparisonChart(Graphics g, List<String> labels, List<Map<String, Object>> data) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
@@ -412,11 +497,15 @@ public class HistoricalComparisonPanel extends JPanel {
         g2d.setFont(new Font("Arial", Font.BOLD, 16));
         g2d.drawString("Lap Time Comparison", width / 2 - 90, 25);
         
-        // Generate lap data arrays for both drivers
-        List<Double> driver1Laps = generateLapTimeData(driver1Data);
-        List<Double> driver2Laps = generateLapTimeData(driver2Data);
+        // Generate lap data arrays for every driver
+        List<List<Double>> driverLaps = new ArrayList<>(data.size());
+        int maxLaps = 0;
+        for (Map<String, Object> driverData : data) {
+            List<Double> laps = generateLapTimeData(driverData);
+            driverLaps.add(laps);
+            maxLaps = Math.max(maxLaps, laps.size());
+        }
         
-        int maxLaps = Math.max(driver1Laps.size(), driver2Laps.size());
         if (maxLaps == 0) {
             g2d.setFont(new Font("Arial", Font.PLAIN, 14));
             g2d.drawString("No lap data available", width / 2 - 70, height / 2);
@@ -427,14 +516,11 @@ public class HistoricalComparisonPanel extends JPanel {
         double minLapTime = Double.MAX_VALUE;
         double maxLapTime = 0;
         
-        for (Double lapTime : driver1Laps) {
-            if (lapTime < minLapTime) minLapTime = lapTime;
-            if (lapTime > maxLapTime) maxLapTime = lapTime;
-        }
-        
-        for (Double lapTime : driver2Laps) {
-            if (lapTime < minLapTime) minLapTime = lapTime;
-            if (lapTime > maxLapTime) maxLapTime = lapTime;
+        for (List<Double> laps : driverLaps) {
+            for (Double lapTime : laps) {
+                if (lapTime < minLapTime) minLapTime = lapTime;
+                if (lapTime > maxLapTime) maxLapTime = lapTime;
+            }
         }
         
         // Add a small buffer
@@ -470,28 +556,24 @@ public class HistoricalComparisonPanel extends JPanel {
         }
         
         // Draw data lines
-        drawDriverLapTimes(g2d, driver1Laps, padding, height - padding, chartWidth, chartHeight, 
-                         minLapTime, maxLapTime, Color.RED, driver1);
-        
-        drawDriverLapTimes(g2d, driver2Laps, padding, height - padding, chartWidth, chartHeight, 
-                         minLapTime, maxLapTime, Color.BLUE, driver2);
+        for (int i = 0; i < driverLaps.size(); i++) {
+            drawDriverLapTimes(g2d, driverLaps.get(i), padding, height - padding, chartWidth, chartHeight, 
+                             minLapTime, maxLapTime, SERIES_COLORS[i % SERIES_COLORS.length], labels.get(i));
+        }
         
         // Add a legend
         int legendX = width - 200;
         int legendY = 50;
         
         g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.setColor(Color.RED);
-        g2d.fillRect(legendX, legendY, 15, 15);
-        g2d.setColor(Color.BLACK);
-        g2d.drawRect(legendX, legendY, 15, 15);
-        g2d.drawString(driver1, legendX + 20, legendY + 12);
-        
-        g2d.setColor(Color.BLUE);
-        g2d.fillRect(legendX, legendY + 25, 15, 15);
-        g2d.setColor(Color.BLACK);
-        g2d.drawRect(legendX, legendY + 25, 15, 15);
-        g2d.drawString(driver2, legendX + 20, legendY + 37);
+        for (int i = 0; i < labels.size(); i++) {
+            int y = legendY + i * 25;
+            g2d.setColor(SERIES_COLORS[i % SERIES_COLORS.length]);
+            g2d.fillRect(legendX, y, 15, 15);
+            g2d.setColor(Color.BLACK);
+            g2d.drawRect(legendX, y, 15, 15);
+            g2d.drawString(labels.get(i), legendX + 20, y + 12);
+        }
     }
     
     /**
@@ -536,18 +618,13 @@ public class HistoricalComparisonPanel extends JPanel {
      */
     private List<Double> generateLapTimeData(Map<String, Object> driverData) {
         @SuppressWarnings("unchecked")
-        List<Map<String, Object>> laps = (List<Map<String, Object>>) driverData.getOrDefault("laps", new ArrayList<>());
+        List<LapRecord> laps = (List<LapRecord>) driverData.getOrDefault("laps", new ArrayList<>());
         
-        List<Double> lapTimes = new ArrayList<>();
-        for (Map<String, Object> lap : laps) {
-            String timeStr = (String) lap.get("time");
-            if (timeStr != null) {
-                try {
-                    double seconds = parseLapTime(timeStr);
-                    lapTimes.add(seconds);
-                } catch (Exception e) {
-                    // Skip invalid lap times
-                }
+        List<Double> lapTimes = new ArrayList<>(laps.size());
+        for (LapRecord lap : laps) {
+            // Skip untimed laps
+            if (lap.isTimed()) {
+                lapTimes.add(lap.getLapSeconds());
             }
         }
         
@@ -558,19 +635,25 @@ public class HistoricalComparisonPanel extends JPanel {
     
     /**
      * Get races for a specific season
+     * Served from the in-memory catalogue, so changing the season doesn't query the database
      */
     private List<Map<String, Object>> getRacesForSeason(String season) {
         List<Map<String, Object>> races = new ArrayList<>();
         
         try {
-            // Create database service
-            F1DatabaseService dbService = new F1DatabaseService();
-            
-            // Get races from database
+            // Get races from the catalogue
             int seasonYear = Integer.parseInt(season);
-            races = dbService.getRacesForSeason(seasonYear);
+            RaceCatalogue.Season catalogueSeason = dbService.getCatalogue().getSeason(seasonYear);
+            if (catalogueSeason != null) {
+                for (RaceCatalogue.Race race : catalogueSeason.getRaces()) {
+                    Map<String, Object> raceMap = new HashMap<>();
+                    raceMap.put("id", race.getId());
+                    raceMap.put("name", race.getName());
+                    races.add(raceMap);
+                }
+            }
             
-            // If database returned no races, use hardcoded data as fallback
+            // If the catalogue has no races, use hardcoded data as fallback
             if (races.isEmpty()) {
                 if (season.equals("2020")) {
                     races.add(createRace(1, "2020 Austrian Grand Prix"));
@@ -607,37 +690,37 @@ public class HistoricalComparisonPanel extends JPanel {
     
     /**
      * Helper method to create a race map
+     * The id is made negative so it can't be mistaken for a stored race
      */
     private Map<String, Object> createRace(int id, String name) {
         Map<String, Object> race = new HashMap<>();
-        race.put("id", id);
+        race.put("id", -id);
         race.put("name", name);
         return race;
     }
     
     /**
      * Get drivers for a specific race
+     * Served from the in-memory catalogue, so changing the race doesn't query the database
      */
-    private List<Map<String, Object>> getDriversForRace(String raceName) {
+    private List<Map<String, Object>> getDriversForRace(String season, String raceName) {
         List<Map<String, Object>> drivers = new ArrayList<>();
         
         try {
-            // Extract season from race name (assuming format: "2023 Race Name")
-            String seasonStr = raceName.substring(0, 4);
-            int seasonYear = Integer.parseInt(seasonStr);
-            
-            // Create database service
-            F1DatabaseService dbService = new F1DatabaseService();
-            
-            // Get race ID from the database
-            int raceId = dbService.getRaceId(raceName, seasonYear);
-            
-            if (raceId > 0) {
-                // Get drivers for the race from database
-                drivers = dbService.getDriversForRace(raceId);
+            // Get drivers for the race from the catalogue
+            int seasonYear = Integer.parseInt(season);
+            RaceCatalogue.Race race = dbService.getCatalogue().getRace(seasonYear, raceName);
+            if (race != null) {
+                for (RaceCatalogue.Driver driver : race.getDrivers()) {
+                    Map<String, Object> driverMap = new HashMap<>();
+                    driverMap.put("id", driver.getId());
+                    driverMap.put("name", driver.getName());
+                    driverMap.put("team", driver.getTeam());
+                    drivers.add(driverMap);
+                }
             }
             
-            // If database returned no drivers, use hardcoded data as fallback
+            // If the catalogue has no drivers, use hardcoded data as fallback
             if (drivers.isEmpty()) {
                 // Core drivers that were in all seasons from 2020-2023
                 drivers.add(createDriver(44, "Lewis Hamilton", "Mercedes"));
@@ -673,122 +756,119 @@ public class HistoricalComparisonPanel extends JPanel {
     
     /**
      * Helper method to create a driver map
+     * The id is made negative so it can't be mistaken for a stored driver
      */
     private Map<String, Object> createDriver(int id, String name, String team) {
         Map<String, Object> driver = new HashMap<>();
-        driver.put("id", id);
+        driver.put("id", -id);
         driver.put("name", name);
         driver.put("team", team);
         return driver;
     }
     
     /**
-     * Get race data for a specific driver
+     * Get race data for each selected driver
+     * Every stored driver and race comes from one database call, however many are compared
      */
-    private Map<String, Object> getDriverRaceData(String driverName, String raceName, String season) {
-        Map<String, Object> data = new HashMap<>();
+    private List<Map<String, Object>> getDriverRaceData(List<DriverRaceData.Key> keys, List<String> driverNames,
+                                                        List<String> raceNames, List<String> seasons) {
+        // Made-up ids from the fallback lists are negative and never stored
+        List<DriverRaceData.Key> storedKeys = new ArrayList<>();
+        for (DriverRaceData.Key key : keys) {
+            if (key.getDriverId() > 0 && key.getRaceId() > 0) {
+                storedKeys.add(key);
+            }
+        }
         
-        try {
-            // Create database service
-            F1DatabaseService dbService = new F1DatabaseService();
-            
-            // Extract season from race name (assuming format: "2023 Race Name")
-            int seasonYear = Integer.parseInt(season);
-            
-            // Get race ID from the database
-            int raceId = dbService.getRaceId(raceName, seasonYear);
-            
-            // Get driver ID from the database
-            int driverId = dbService.getDriverId(driverName);
-            
-            // If we have valid IDs, get the data from the database
-            if (raceId > 0 && driverId > 0) {
-                Map<String, Object> dbData = dbService.getDriverRaceData(driverId, raceId);
-                
-                // If we got data from the database, use it
-                if (dbData != null && !dbData.isEmpty()) {
-                    return dbData;
-                }
+        Map<DriverRaceData.Key, DriverRaceData> stored = new HashMap<>();
+        if (!storedKeys.isEmpty()) {
+            try {
+                stored = dbService.getDriverRaces(storedKeys);
+            } catch (Exception e) {
+                System.err.println("Error getting driver race data: " + e.getMessage());
             }
+        }
+        
+        List<Map<String, Object>> data = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            DriverRaceData race = stored.get(keys.get(i));
             
             // If database data not available, use generated data as fallback
-            // Set basic info
-            data.put("driver", driverName);
-            data.put("race", raceName);
-            data.put("season", season);
-            
-            // Add team information
-            if (driverName.equals("Lewis Hamilton") || driverName.equals("George Russell") || driverName.equals("Valtteri Bottas")) {
-                data.put("team", "Mercedes");
-            } else if (driverName.equals("Max Verstappen") || driverName.equals("Sergio Perez") || driverName.equals("Alexander Albon")) {
-                data.put("team", "Red Bull Racing");
-            } else if (driverName.equals("Charles Leclerc") || driverName.equals("Carlos Sainz")) {
-                data.put("team", "Ferrari");
-            } else if (driverName.equals("Lando Norris") || driverName.equals("Daniel Ricciardo") || driverName.equals("Oscar Piastri")) {
-                data.put("team", "McLaren");
-            } else {
-                data.put("team", "Other");
-            }
-            
-            // Generate semi-realistic performance data based on driver and season
-            // This would be replaced with real data in a production environment
-            
-            // Generate position
-            int position = getRandomPosition(driverName);
-            data.put("position", position);
-            
-            // Generate points based on position
-            int points = 0;
-            if (position == 1) points = 25;
-            else if (position == 2) points = 18;
-            else if (position == 3) points = 15;
-            else if (position <= 10) points = 11 - position;
-            data.put("points", points);
-            
-            // Generate best lap time (around 1:30)
-            String bestLapTime = generateLapTime(driverName, 90.0, 95.0);
-            data.put("best_lap_time", bestLapTime);
-            
-            // Generate average speed (around 200-220 kph)
-            double avgSpeed = 200 + Math.random() * 20;
-            if (driverName.equals("Lewis Hamilton") || driverName.equals("Max Verstappen")) {
-                avgSpeed += 5; // Top drivers slightly faster
-            }
-            data.put("avg_speed", Math.round(avgSpeed * 100) / 100.0);
-            
-            // Generate max speed (around 320-340 kph)
-            double maxSpeed = 320 + Math.random() * 20;
-            data.put("max_speed", Math.round(maxSpeed * 100) / 100.0);
-            
-            // Number of pit stops (1-3)
-            int pitStops = 1 + (int)(Math.random() * 2);
-            data.put("pit_stops", pitStops);
-            
-            // Laps completed (max 55, DNF possible)
-            int maxLaps = 55;
-            int lapsCompleted = position > 15 ? (int)(maxLaps * 0.8 + Math.random() * (maxLaps * 0.2)) : maxLaps;
-            data.put("laps_completed", lapsCompleted);
-            
-            // Generate lap data
-            List<Map<String, Object>> laps = generateLapData(driverName, lapsCompleted);
-            data.put("laps", laps);
-            
-        } catch (Exception e) {
-            System.err.println("Error getting driver race data: " + e.getMessage());
-            
-            // Fallback to basic info in case of error
-            data.put("driver", driverName);
-            data.put("race", raceName);
-            data.put("season", season);
-            data.put("position", "-");
-            data.put("points", 0);
-            data.put("best_lap_time", "-");
-            data.put("avg_speed", 0);
-            data.put("max_speed", 0);
-            data.put("pit_stops", 0);
-            data.put("laps_completed", 0);
-            data.put("laps", new ArrayList<>());
+            data.add(race != null && race.size() > 0
+                ? race.toMap()
+                : generateDriverRaceData(driverNames.get(i), raceNames.get(i), seasons.get(i)));
+        }
+        
+        return data;
+    }
+    
+    /**
+     * Generate race data for a driver with nothing stored
+     */
+    private Map<String, Object> generateDriverRaceData(String driverName, String raceName, String season) {
+        Map<String, Object> data = new HashMap<>();
+        
+        // Set basic info
+        data.put("driver", driverName);
+        data.put("race", raceName);
+        data.put("season", season);
+        
+        // Add team information
+        if (driverName.equals("Lewis Hamilton") || driverName.equals("George Russell") || driverName.equals("Valtteri Bottas")) {
+            data.put("team", "Mercedes");
+        } else if (driverName.equals("Max Verstappen") || driverName.equals("Sergio Perez") || driverName.equals("Alexander Albon")) {
+            data.put("team", "Red Bull Racing");
+        } else if (driverName.equals("Charles Leclerc") || driverName.equals("Carlos Sainz")) {
+            data.put("team", "Ferrari");
+        } else if (driverName.equals("Lando Norris") || driverName.equals("Daniel Ricciardo") || driverName.equals("Oscar Piastri")) {
+            data.put("team", "McLaren");
+        } else {
+            data.put("team", "Other");
+        }
+        
+        // Generate semi-realistic performance data based on driver and season
+        // This would be replaced with real data in a production environment
+        
+        // Generate position
+        int position = getRandomPosition(driverName);
+        data.put("position", position);
+        
+        // Generate points based on position
+        int points = 0;
+        if (position == 1) points = 25;
+        else if (position == 2) points = 18;
+        else if (position == 3) points = 15;
+        else if (position <= 10) points = 11 - position;
+        data.put("points", points);
+        
+        // Generate best lap time (around 1:30)
+        int bestLapMillis = generateLapTime(driverName, 90.0, 95.0);
+        data.put("best_lap_ms", bestLapMillis);
+        data.put("best_lap_time", LapRecord.format(bestLapMillis));
+        
+        // Generate average speed (around 200-220 kph)
+        double avgSpeed = 200 + Math.random() * 20;
+        if (driverName.equals("Lewis Hamilton") || driverName.equals("Max Verstappen")) {
+            avgSpeed += 5; // Top drivers slightly faster
         }
+        data.put("avg_speed", Math.round(avgSpeed * 100) / 100.0);
+        
+        // Generate max speed (around 320-340 kph)
+        double maxSpeed = 320 + Math.random() * 20;
+        data.put("max_speed", Math.round(maxSpeed * 100) / 100.0);
+        
+        // Number of pit stops (1-3)
+        int pitStops = 1 + (int)(Math.random() * 2);
+        data.put("pit_stops", pitStops);
+        
+        // Laps completed (max 55, DNF possible)
+        int maxLaps = 55;
+        int lapsCompleted = position > 15 ? (int)(maxLaps * 0.8 + Math.random() * (maxLaps * 0.2)) : maxLaps;
+        data.put("laps_completed", lapsCompleted);
+        
+        // Generate lap data
+        List<LapRecord> laps = generateLapData(driverName, lapsCompleted);
+        data.put("laps", laps);
         
         return data;
     }
@@ -817,9 +897,9 @@ public class HistoricalComparisonPanel extends JPanel {
     }
     
     /**
-     * Generate a lap time string (format: "1:30.123")
+     * Generate a lap time in milliseconds
      */
-    private String generateLapTime(String driverName, double minSeconds, double maxSeconds) {
+    private int generateLapTime(String driverName, double minSeconds, double maxSeconds) {
         // Better drivers have slightly better lap times
         double driverFactor = 0.0;
         if (driverName.equals("Lewis Hamilton") || driverName.equals("Max Verstappen")) {
@@ -829,17 +909,14 @@ public class HistoricalComparisonPanel extends JPanel {
         }
         
         double seconds = minSeconds + Math.random() * (maxSeconds - minSeconds) + driverFactor;
-        int minutes = (int)(seconds / 60);
-        double remainingSeconds = seconds % 60;
-        
-        return String.format("%d:%05.3f", minutes, remainingSeconds);
+        return LapRecord.toMillis(seconds);
     }
     
     /**
      * Generate lap data for a driver
      */
-    private List<Map<String, Object>> generateLapData(String driverName, int lapsCompleted) {
-        List<Map<String, Object>> laps = new ArrayList<>();
+    private List<LapRecord> generateLapData(String driverName, int lapsCompleted) {
+        List<LapRecord> laps = new ArrayList<>(lapsCompleted);
         
         double baseLapTime = 90.0; // Base lap time in seconds
         double variability = 2.0; // Lap time variability
@@ -851,8 +928,6 @@ public class HistoricalComparisonPanel extends JPanel {
         }
         
         for (int lap = 1; lap <= lapsCompleted; lap++) {
-            Map<String, Object> lapData = new HashMap<>();
-            
             // Generate lap time (varies by fuel load, tire wear, etc.)
             double fuelEffect = -0.05 * lap; // Faster as fuel burns off
             double tireEffect = 0.02 * lap; // Slower as tires wear
@@ -864,29 +939,22 @@ public class HistoricalComparisonPanel extends JPanel {
             }
             
             double adjustedLapTime = baseLapTime + fuelEffect + tireEffect + randomEffect;
-            String lapTime = generateLapTime(driverName, adjustedLapTime, adjustedLapTime);
-            
-            lapData.put("lap", lap);
-            lapData.put("time", lapTime);
-            lapData.put("sector_1", generateSectorTime(27, 29));
-            lapData.put("sector_2", generateSectorTime(32, 34));
-            lapData.put("sector_3", generateSectorTime(29, 31));
             
             // Generate speed data
-            lapData.put("avg_speed", 210 + (Math.random() * 20 - 10));
-            lapData.put("max_speed", 315 + (Math.random() * 25 - 5));
+            double avgSpeed = 210 + (Math.random() * 20 - 10);
             
-            laps.add(lapData);
+            laps.add(new LapRecord(lap, 0, generateLapTime(driverName, adjustedLapTime, adjustedLapTime),
+                    generateSectorTime(27, 29), generateSectorTime(32, 34), generateSectorTime(29, 31), avgSpeed));
         }
         
         return laps;
     }
     
     /**
-     * Generate a sector time string (format: "27.123")
+     * Generate a sector time in milliseconds
      */
-    private String generateSectorTime(double minSeconds, double maxSeconds) {
+    private int generateSectorTime(double minSeconds, double maxSeconds) {
         double seconds = minSeconds + Math.random() * (maxSeconds - minSeconds);
-        return String.format("%.3f", seconds);
+        return LapRecord.toMillis(seconds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * lap_data SQL shared by the database classes. Lap and sector times are integer
+ * milliseconds, NULL for a lap without a time.
+ *
+ * A lap counts as a pit lap when it is over 30% and over 5 seconds slower than the
+ * driver's lap before; PIT_LAP flags it with LAG so the database can count pit stops
+ * for driver_race_summary. DriverRaceData.isPitLap applies the same rule to laps it
+ * has already loaded.
+ */
+public final class LapQueries {
+
+    /** 1 for a pit lap, else 0, over lap_data rows */
+    static final String PIT_LAP =
+            "CASE WHEN lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) * 1.3 " +
+            " AND lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) + 5000 " +
+            "THEN 1 ELSE 0 END";
+
+    private LapQueries() {
+    }
+
+    /**
+     * Bind a lap or sector time, NULL when there is none
+     */
+    static void setMillis(PreparedStatement stmt, int index, int millis) throws SQLException {
+        if (millis > LapRecord.NO_TIME) {
+            stmt.setInt(index, millis);
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
+    }
+}
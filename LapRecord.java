@@ -0,0 +1,126 @@
+/**
+ * One lap as the Swing panels use it, immutable and compact: lap and sector times
+ * are int milliseconds and the average speed is a short in tenths of km/h. Display
+ * strings are formatted only when asked for, and lap time text from the database is
+ * parsed once, when the record is built.
+ */
+public final class LapRecord {
+
+    /** Stored for a lap or sector without a time */
+    public static final int NO_TIME = 0;
+
+    private final short lapNumber;
+    private final short position;
+    private final short speedTenths;
+    private final int lapMillis;
+    private final int sector1Millis;
+    private final int sector2Millis;
+    private final int sector3Millis;
+
+    public LapRecord(int lapNumber, int position, int lapMillis,
+                     int sector1Millis, int sector2Millis, int sector3Millis, double speed) {
+        this.lapNumber = (short) lapNumber;
+        this.position = (short) position;
+        this.speedTenths = (short) Math.max(0, Math.min(Short.MAX_VALUE, Math.round(speed * 10)));
+        this.lapMillis = lapMillis;
+        this.sector1Millis = sector1Millis;
+        this.sector2Millis = sector2Millis;
+        this.sector3Millis = sector3Millis;
+    }
+
+    public int getLapNumber() {
+        return lapNumber;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getLapMillis() {
+        return lapMillis;
+    }
+
+    public double getLapSeconds() {
+        return lapMillis / 1000.0;
+    }
+
+    public boolean isTimed() {
+        return lapMillis > NO_TIME;
+    }
+
+    /**
+     * Sector time in milliseconds, sector being 1, 2 or 3
+     */
+    public int getSectorMillis(int sector) {
+        switch (sector) {
+            case 1: return sector1Millis;
+            case 2: return sector2Millis;
+            case 3: return sector3Millis;
+            default: throw new IllegalArgumentException("No sector " + sector);
+        }
+    }
+
+    public double getSpeed() {
+        return speedTenths / 10.0;
+    }
+
+    /**
+     * Lap time as "M:SS.mmm", or "-" if the lap was not timed
+     */
+    public String getLapTime() {
+        return isTimed() ? format(lapMillis) : "-";
+    }
+
+    @Override
+    public String toString() {
+        return "Lap " + lapNumber + " " + getLapTime();
+    }
+
+    /**
+     * Parse "M:SS.mmm" or "SS.mmm" into milliseconds; NO_TIME if blank or malformed
+     */
+    public static int parseMillis(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_TIME;
+        }
+
+        try {
+            int colon = text.indexOf(':');
+            if (colon < 0) {
+                return (int) Math.round(Double.parseDouble(text) * 1000);
+            }
+            int minutes = Integer.parseInt(text.substring(0, colon));
+            return minutes * 60_000 + (int) Math.round(Double.parseDouble(text.substring(colon + 1)) * 1000);
+        } catch (NumberFormatException e) {
+            return NO_TIME;
+        }
+    }
+
+    /**
+     * Milliseconds as "M:SS.mmm"
+     */
+    public static String format(int millis) {
+        int minutes = millis / 60_000;
+        int seconds = millis / 1000 % 60;
+        int fraction = millis % 1000;
+        StringBuilder text = new StringBuilder(9).append(minutes).append(':');
+        if (seconds < 10) {
+            text.append('0');
+        }
+        text.append(seconds).append('.');
+        if (fraction < 100) {
+            text.append('0');
+        }
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    /**
+     * Seconds rounded to the millisecond
+     */
+    public static int toMillis(double seconds) {
+        return (int) Math.round(seconds * 1000);
+    }
+}
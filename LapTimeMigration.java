@@ -0,0 +1,123 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Moves lap_data from the old "M:SS.mmm" VARCHAR columns (lap_time, sector1_time,
+ * sector2_time, sector3_time) to integer milliseconds (lap_time_ms, sector1_ms,
+ * sector2_ms, sector3_ms). The new columns are added, filled from the text with
+ * LapRecord.parseMillis in batches, and the text columns are dropped. Text that
+ * doesn't parse becomes NULL.
+ *
+ * Safe to run on every start: it does nothing once the text columns are gone, and
+ * an interrupted run picks up the rows that are still unconverted.
+ */
+public final class LapTimeMigration {
+
+    private static final String[] TEXT_COLUMNS = {"lap_time", "sector1_time", "sector2_time", "sector3_time"};
+    private static final String[] MILLIS_COLUMNS = {"lap_time_ms", "sector1_ms", "sector2_ms", "sector3_ms"};
+
+    private LapTimeMigration() {
+    }
+
+    /**
+     * Migrate lap_data if it still has the text columns; returns the number of rows converted
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        Set<String> columns = columnsOf(conn, "lap_data");
+        if (!columns.contains(TEXT_COLUMNS[0])) {
+            return 0;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String column : MILLIS_COLUMNS) {
+                if (!columns.contains(column)) {
+                    stmt.execute("ALTER TABLE lap_data ADD COLUMN " + column + " INTEGER");
+                }
+            }
+        }
+
+        int converted = backfill(conn);
+
+        // Only drop the text once every row has its numbers
+        try (Statement stmt = conn.createStatement()) {
+            for (String column : TEXT_COLUMNS) {
+                stmt.execute("ALTER TABLE lap_data DROP COLUMN " + column);
+            }
+        }
+
+        System.out.println("Migrated lap_data to millisecond columns: " + converted + " rows converted");
+        return converted;
+    }
+
+    /**
+     * Convert the unconverted rows in id order, committing each batch, so an
+     * interrupted run keeps what it did and the next picks up after it
+     */
+    private static int backfill(Connection conn) throws SQLException {
+        String selectSql = "SELECT id, lap_time, sector1_time, sector2_time, sector3_time " +
+                           "FROM lap_data WHERE lap_time_ms IS NULL AND lap_time IS NOT NULL AND id > ? " +
+                           "ORDER BY id";
+        String updateSql = "UPDATE lap_data SET lap_time_ms = ?, sector1_ms = ?, sector2_ms = ?, sector3_ms = ? " +
+                           "WHERE id = ?";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        int converted = 0;
+        try (PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement update = conn.prepareStatement(updateSql)) {
+            select.setMaxRows(BatchWriter.DEFAULT_BATCH_SIZE);
+            // Text that doesn't parse leaves lap_time_ms NULL, so page by id rather than
+            // re-selecting until nothing matches
+            int lastId = 0;
+            while (true) {
+                int pending = 0;
+                select.setInt(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        for (int i = 0; i < TEXT_COLUMNS.length; i++) {
+                            LapQueries.setMillis(update, i + 1, LapRecord.parseMillis(rs.getString(TEXT_COLUMNS[i])));
+                        }
+                        lastId = rs.getInt("id");
+                        update.setInt(5, lastId);
+                        update.addBatch();
+                        pending++;
+                    }
+                }
+                if (pending == 0) {
+                    break;
+                }
+                update.executeBatch();
+                conn.commit();
+                converted += pending;
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return converted;
+    }
+
+    /**
+     * Column names of a table, lower case
+     */
+    private static Set<String> columnsOf(Connection conn, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.add(meta.getColumnName(i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,302 @@
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of query results, one per connection pool. Results are kept by
+ * query and parameters, the least recently used going first once there are more than
+ * f1.db.query-cache.size of them (default 1000, 0 to turn the cache off).
+ *
+ * Each query names the tables it reads. Writers call invalidate with the table they
+ * wrote, which drops the results that read it; BatchWriter does this for every write
+ * through the pool. Writes from outside this process aren't seen, so only cache
+ * queries over data that doesn't change under the app, like past seasons.
+ *
+ * Cached values are shared between callers and must not be modified; hand out copies
+ * of mutable results.
+ *
+ * F1DatabaseManager and F1DatabaseService share the cache of their pool. The
+ * RaceCatalogue behind the comparison dropdowns is not in it; CatalogueCache keeps
+ * that in memory and reloads it on its own schedule.
+ */
+public final class QueryCache {
+
+    private static final Map<ConnectionPool, QueryCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * A cached query: its id and the tables it reads
+     */
+    public static final class Query {
+        private final String id;
+        private final List<String> tables;
+
+        public Query(String id, String... tables) {
+            this.id = id;
+            this.tables = Arrays.asList(tables);
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Runs the query on a miss
+     */
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /**
+     * Runs the query for all the missed parameters at once, returning a result for
+     * each one found
+     */
+    public interface BatchLoader<P, T> {
+        Map<P, T> load(Collection<P> params) throws SQLException;
+    }
+
+    private final int maxSize;
+    private final Map<Key, Object> results;
+    private final Map<String, long[]> counts = new HashMap<>();
+    // Bumped by every invalidation, so a load that overlaps a write isn't kept
+    private long generation;
+    private long evictions;
+    private long invalidations;
+
+    private QueryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > QueryCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cache for a pool, created on first use
+     */
+    public static QueryCache shared(ConnectionPool pool) {
+        return CACHES.computeIfAbsent(pool, p -> new QueryCache(Integer.getInteger("f1.db.query-cache.size", 1000)));
+    }
+
+    /**
+     * The cached result of a query with these parameters, loading it on a miss. A
+     * load that throws is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Query query, Loader<T> loader, Object... params) throws SQLException {
+        Key key = new Key(query, params);
+        long loadGeneration;
+        synchronized (this) {
+            long[] count = counts.computeIfAbsent(query.id, id -> new long[2]);
+            if (results.containsKey(key)) {
+                count[0]++;
+                return (T) results.get(key);
+            }
+            count[1]++;
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock; two threads missing together both query
+        T result = loader.load();
+        synchronized (this) {
+            if (maxSize > 0 && generation == loadGeneration) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The cached results of a query taking one parameter, for several parameters,
+     * loading all the missed ones in one call. Entries are shared with get() called
+     * with the same single parameter. A parameter the loader finds nothing for is
+     * cached as null and left out of the map.
+     */
+    @SuppressWarnings("unchecked")
+    public <P, T> Map<P, T> getAll(Query query, Collection<P> params, BatchLoader<P, T> loader) throws SQLException {
+        Map<P, T> found = new LinkedHashMap<>();
+        Set<P> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            long[] count = counts.computeIfAbsent(query.id, id -> new long[2]);
+            for (P param : params) {
+                Key key = new Key(query, new Object[] {param});
+                if (results.containsKey(key)) {
+                    count[0]++;
+                    T result = (T) results.get(key);
+                    if (result != null) {
+                        found.put(param, result);
+                    }
+                } else if (missing.add(param)) {
+                    count[1]++;
+                }
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<P, T> loaded = loader.load(missing);
+        synchronized (this) {
+            if (maxSize > 0 && generation == loadGeneration) {
+                for (P param : missing) {
+                    results.put(new Key(query, new Object[] {param}), loaded.get(param));
+                }
+            }
+        }
+        for (P param : missing) {
+            T result = loaded.get(param);
+            if (result != null) {
+                found.put(param, result);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Drop the results of every query reading a table, after writing to it
+     */
+    public synchronized void invalidate(String table) {
+        generation++;
+        Iterator<Key> keys = results.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().query.tables.contains(table)) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Drop every result, as after a migration or other writes to many tables
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += results.size();
+        results.clear();
+    }
+
+    /**
+     * Hits and misses of all queries
+     */
+    public synchronized Stats getStats() {
+        long hits = 0;
+        long misses = 0;
+        for (long[] count : counts.values()) {
+            hits += count[0];
+            misses += count[1];
+        }
+        return new Stats("all", results.size(), maxSize, hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Hits and misses of one query
+     */
+    public synchronized Stats getStats(Query query) {
+        long[] count = counts.getOrDefault(query.id, new long[2]);
+        int size = 0;
+        for (Key key : results.keySet()) {
+            if (key.query.id.equals(query.id)) {
+                size++;
+            }
+        }
+        return new Stats(query.id, size, maxSize, count[0], count[1], evictions, invalidations);
+    }
+
+    private static final class Key {
+        private final Query query;
+        private final List<Object> params;
+
+        Key(Query query, Object[] params) {
+            this.query = query;
+            this.params = Arrays.asList(params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return query.id.equals(other.query.id) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.id.hashCode() + params.hashCode();
+        }
+    }
+
+    /**
+     * Snapshot of the cache's counters. Evictions and invalidations are for the whole cache.
+     */
+    public static final class Stats {
+        private final String query;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        Stats(String query, int size, int maxSize, long hits, long misses, long evictions, long invalidations) {
+            this.query = query;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /** Share of lookups answered from memory, 0 before the first */
+        public double getHitRate() {
+            return hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size=%d/%d hits=%d misses=%d hitRate=%.1f%% evictions=%d invalidations=%d",
+                    query, size, maxSize, hits, misses, getHitRate() * 100, evictions, invalidations);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every season with its races and each race's drivers, loaded in one query and never
+ * changed afterwards, for the dropdowns that pick a season, then a race, then a driver.
+ * CatalogueCache keeps the current one and reloads it in the background, so working the
+ * dropdowns doesn't touch the database.
+ *
+ * A race's drivers are the ones with a result, in finishing order. A race without
+ * results lists every driver by number, as F1DatabaseManager.getDriversForRace does.
+ */
+public final class RaceCatalogue {
+
+    static final RaceCatalogue EMPTY = new RaceCatalogue(Collections.emptyList());
+
+    // The second half is the full driver list for races without results; it comes
+    // back with a NULL year
+    private static final String SQL =
+            "SELECT s.year, r.id AS race_id, r.name AS race_name, r.round_number, rr.position, " +
+            "       d.id AS driver_id, d.full_name, d.driver_number, d.abbreviation, t.name AS team_name " +
+            "FROM seasons s " +
+            "LEFT JOIN races r ON r.season_id = s.id " +
+            "LEFT JOIN race_results rr ON rr.race_id = r.id " +
+            "LEFT JOIN drivers d ON rr.driver_id = d.id " +
+            "LEFT JOIN teams t ON d.team_id = t.id " +
+            "UNION ALL " +
+            "SELECT NULL, NULL, NULL, NULL, NULL, " +
+            "       d.id, d.full_name, d.driver_number, d.abbreviation, t.name " +
+            "FROM drivers d " +
+            "JOIN teams t ON d.team_id = t.id " +
+            "ORDER BY 1 DESC, 4, 2, 5, 8";
+
+    private final List<Season> seasons;
+    private final Map<Integer, Season> seasonsByYear = new HashMap<>();
+    private final Map<Integer, Race> racesById = new HashMap<>();
+
+    private RaceCatalogue(List<Season> seasons) {
+        this.seasons = Collections.unmodifiableList(seasons);
+        for (Season season : seasons) {
+            seasonsByYear.put(season.year, season);
+            for (Race race : season.races) {
+                racesById.put(race.id, race);
+            }
+        }
+    }
+
+    /**
+     * Load the whole catalogue
+     */
+    public static RaceCatalogue load(Connection conn) throws SQLException {
+        Map<Integer, List<Integer>> raceIdsByYear = new LinkedHashMap<>();
+        Map<Integer, Object[]> raceRows = new HashMap<>();
+        Map<Integer, List<Driver>> raceDrivers = new HashMap<>();
+        Map<Integer, Driver> driversById = new HashMap<>();
+        List<Driver> allDrivers = new ArrayList<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SQL)) {
+            while (rs.next()) {
+                int year = rs.getInt("year");
+                boolean allDriversRow = rs.wasNull();
+
+                Driver driver = null;
+                int driverId = rs.getInt("driver_id");
+                if (!rs.wasNull()) {
+                    driver = driversById.get(driverId);
+                    if (driver == null) {
+                        driver = new Driver(driverId, rs.getString("full_name"), rs.getInt("driver_number"),
+                                rs.getString("abbreviation"), rs.getString("team_name"));
+                        driversById.put(driverId, driver);
+                    }
+                }
+
+                if (allDriversRow) {
+                    allDrivers.add(driver);
+                    continue;
+                }
+
+                List<Integer> raceIds = raceIdsByYear.computeIfAbsent(year, key -> new ArrayList<>());
+                int raceId = rs.getInt("race_id");
+                if (rs.wasNull()) {
+                    continue;
+                }
+                if (!raceRows.containsKey(raceId)) {
+                    raceIds.add(raceId);
+                    raceRows.put(raceId, new Object[] {rs.getString("race_name"), rs.getInt("round_number")});
+                    raceDrivers.put(raceId, new ArrayList<>());
+                }
+                if (driver != null) {
+                    raceDrivers.get(raceId).add(driver);
+                }
+            }
+        }
+
+        List<Driver> unmodifiableAllDrivers = Collections.unmodifiableList(allDrivers);
+        List<Season> seasons = new ArrayList<>(raceIdsByYear.size());
+        for (Map.Entry<Integer, List<Integer>> entry : raceIdsByYear.entrySet()) {
+            List<Race> races = new ArrayList<>(entry.getValue().size());
+            for (int raceId : entry.getValue()) {
+                Object[] row = raceRows.get(raceId);
+                List<Driver> drivers = raceDrivers.get(raceId);
+                races.add(new Race(raceId, (String) row[0], (Integer) row[1],
+                        drivers.isEmpty() ? unmodifiableAllDrivers : Collections.unmodifiableList(drivers)));
+            }
+            seasons.add(new Season(entry.getKey(), Collections.unmodifiableList(races)));
+        }
+        return new RaceCatalogue(seasons);
+    }
+
+    /**
+     * The seasons, newest first
+     */
+    public List<Season> getSeasons() {
+        return seasons;
+    }
+
+    /**
+     * A season by year, or null if there is none
+     */
+    public Season getSeason(int year) {
+        return seasonsByYear.get(year);
+    }
+
+    /**
+     * A race by id, or null if there is none
+     */
+    public Race getRace(int raceId) {
+        return racesById.get(raceId);
+    }
+
+    /**
+     * A race by season and name, or null if there is none
+     */
+    public Race getRace(int year, String name) {
+        Season season = seasonsByYear.get(year);
+        if (season != null) {
+            for (Race race : season.races) {
+                if (race.name.equals(name)) {
+                    return race;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return seasons.isEmpty();
+    }
+
+    /**
+     * A season and its races in round order
+     */
+    public static final class Season {
+        private final int year;
+        private final List<Race> races;
+
+        private Season(int year, List<Race> races) {
+            this.year = year;
+            this.races = races;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public List<Race> getRaces() {
+            return races;
+        }
+    }
+
+    /**
+     * A race and its drivers
+     */
+    public static final class Race {
+        private final int id;
+        private final String name;
+        private final int round;
+        private final List<Driver> drivers;
+
+        private Race(int id, String name, int round, List<Driver> drivers) {
+            this.id = id;
+            this.name = name;
+            this.round = round;
+            this.drivers = drivers;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public List<Driver> getDrivers() {
+            return drivers;
+        }
+    }
+
+    /**
+     * A driver and their team
+     */
+    public static final class Driver {
+        private final int id;
+        private final String name;
+        private final int number;
+        private final String abbreviation;
+        private final String team;
+
+        private Driver(int id, String name, int number, String abbreviation, String team) {
+            this.id = id;
+            this.name = name;
+            this.number = number;
+            this.abbreviation = abbreviation;
+            this.team = team;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String getAbbreviation() {
+            return abbreviation;
+        }
+
+        public String getTeam() {
+            return team;
+        }
+    }
+}
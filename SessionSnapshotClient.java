@@ -0,0 +1,83 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Client for the dashboard server's "state at time t" endpoint, so the Swing
+ * panels can place every car without fetching and scanning each driver's series.
+ * The server defaults to http://localhost:5000 (server.port) and can be changed with the
+ * f1.dashboard.url system property.
+ */
+public class SessionSnapshotClient {
+    private static final String DEFAULT_BASE_URL = "http://localhost:5000";
+    private static final int TIMEOUT_MS = 10000;
+
+    private final String baseUrl;
+
+    public SessionSnapshotClient() {
+        this(System.getProperty("f1.dashboard.url", DEFAULT_BASE_URL));
+    }
+
+    public SessionSnapshotClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Every car in the session at the given instant, in running order, as track map markers.
+     * Cars with no lap yet sit at the start of the lap.
+     */
+    public List<TrackMapPanel.DriverPosition> getDriverPositions(int sessionKey, long epochMillis)
+            throws IOException {
+        String time = URLEncoder.encode(Instant.ofEpochMilli(epochMillis).toString(), StandardCharsets.UTF_8.name());
+        JSONObject snapshot = new JSONObject(get("/api/sessions/" + sessionKey + "/snapshot?t=" + time));
+
+        JSONArray cars = snapshot.getJSONArray("cars");
+        List<TrackMapPanel.DriverPosition> positions = new ArrayList<>(cars.length());
+        for (int i = 0; i < cars.length(); i++) {
+            JSONObject car = cars.getJSONObject(i);
+            positions.add(new TrackMapPanel.DriverPosition(
+                    car.getInt("driverNumber"),
+                    car.optString("nameAcronym", String.valueOf(car.getInt("driverNumber"))),
+                    car.optString("teamName", ""),
+                    car.optDouble("lapFraction", 0.0)));
+        }
+        return positions;
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Snapshot request failed with HTTP " + status);
+            }
+
+            StringBuilder response = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    response.append(line);
+                }
+            }
+            return response.toString();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,490 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maintains car_data_rollup and location_rollup, the car_data and location samples
+ * (about 4 a second per car) summed up over 1 second and 10 second buckets. A car
+ * bucket holds the sample count, min, max and average speed, rpm and throttle, and
+ * how many samples were in each gear; a location bucket holds the last position in
+ * it. A chart over a whole session needs a few thousand points, which the 10 second
+ * buckets give from a twentieth of the rows.
+ *
+ * BatchWriter refreshes the buckets covering the samples it writes. A refresh
+ * recomputes whole buckets from the samples, so samples can arrive in any order or
+ * be rewritten. rebuildAll is the bulk job for samples loaded some other way.
+ *
+ * loadCarData and loadLocations pick the coarsest resolution that still gives at
+ * least the number of points asked for, falling back to the raw samples.
+ */
+public final class TelemetryRollup {
+
+    /**
+     * A bucket size, from the raw samples up
+     */
+    public enum Resolution {
+        RAW(0),
+        ONE_SECOND(1000),
+        TEN_SECONDS(10000);
+
+        private final int bucketMillis;
+
+        Resolution(int bucketMillis) {
+            this.bucketMillis = bucketMillis;
+        }
+
+        public int getBucketMillis() {
+            return bucketMillis;
+        }
+
+        /**
+         * The coarsest resolution with at least the given number of buckets between two times
+         */
+        public static Resolution forPoints(long fromMs, long toMs, int points) {
+            Resolution[] coarsestFirst = {TEN_SECONDS, ONE_SECOND};
+            for (Resolution resolution : coarsestFirst) {
+                if ((toMs - fromMs) / resolution.bucketMillis >= points) {
+                    return resolution;
+                }
+            }
+            return RAW;
+        }
+    }
+
+    private static final Resolution[] ROLLUPS = {Resolution.ONE_SECOND, Resolution.TEN_SECONDS};
+    private static final int GEARS = 9;
+
+    // %1$d is the bucket size, %2$s the WHERE clause over the samples
+    private static final String CAR_INSERT_SQL =
+            "INSERT INTO car_data_rollup (race_id, driver_id, bucket_ms, start_ms, samples, " +
+            "    min_speed, max_speed, avg_speed, min_rpm, max_rpm, avg_rpm, " +
+            "    min_throttle, max_throttle, avg_throttle" + gearColumns("") + ") " +
+            "SELECT race_id, driver_id, %1$d, date_ms - MOD(date_ms, %1$d), COUNT(*), " +
+            "    MIN(speed), MAX(speed), AVG(speed), MIN(rpm), MAX(rpm), AVG(rpm), " +
+            "    MIN(throttle), MAX(throttle), AVG(throttle)" + gearCounts() + " " +
+            "FROM car_data" +
+            "%2$s " +
+            "GROUP BY race_id, driver_id, date_ms - MOD(date_ms, %1$d)";
+
+    private static final String LOCATION_INSERT_SQL =
+            "INSERT INTO location_rollup (race_id, driver_id, bucket_ms, start_ms, samples, x, y, z) " +
+            "SELECT l.race_id, l.driver_id, %1$d, b.start_ms, b.samples, l.x, l.y, l.z " +
+            "FROM (" +
+            "    SELECT race_id, driver_id, date_ms - MOD(date_ms, %1$d) AS start_ms, " +
+            "           COUNT(*) AS samples, MAX(date_ms) AS last_ms " +
+            "    FROM location" +
+            "    %2$s " +
+            "    GROUP BY race_id, driver_id, date_ms - MOD(date_ms, %1$d)" +
+            ") b " +
+            "JOIN location l ON l.race_id = b.race_id AND l.driver_id = b.driver_id AND l.date_ms = b.last_ms";
+
+    private static final String SPAN_WHERE = " WHERE race_id = ? AND driver_id = ? AND date_ms >= ? AND date_ms < ?";
+
+    private TelemetryRollup() {
+    }
+
+    /**
+     * Recompute the buckets holding one driver's samples between two times in one race
+     */
+    public static void refresh(Connection conn, BatchWriter.Table table, int raceId, int driverId,
+                               long fromMs, long toMs) throws SQLException {
+        Spans spans = new Spans();
+        spans.add(raceId, driverId, fromMs);
+        spans.add(raceId, driverId, toMs);
+        refresh(conn, table, spans);
+    }
+
+    /**
+     * Recompute the buckets holding the sample times noted in spans
+     */
+    static void refresh(Connection conn, BatchWriter.Table table, Spans spans) throws SQLException {
+        if (spans.isEmpty()) {
+            return;
+        }
+
+        String rollupTable = rollupTable(table);
+        Transactions.inTransaction(conn, () -> {
+            for (Resolution resolution : ROLLUPS) {
+                int bucket = resolution.bucketMillis;
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM " + rollupTable +
+                             " WHERE race_id = ? AND driver_id = ? AND bucket_ms = " + bucket +
+                             " AND start_ms >= ? AND start_ms < ?");
+                     PreparedStatement insert = conn.prepareStatement(insertSql(table, bucket, SPAN_WHERE))) {
+                    for (long[] span : spans.spans.values()) {
+                        // Whole buckets, so each is recomputed from all of its samples
+                        long from = span[2] - Math.floorMod(span[2], bucket);
+                        long to = span[3] - Math.floorMod(span[3], bucket) + bucket;
+                        for (PreparedStatement stmt : new PreparedStatement[] {delete, insert}) {
+                            stmt.setInt(1, (int) span[0]);
+                            stmt.setInt(2, (int) span[1]);
+                            stmt.setLong(3, from);
+                            stmt.setLong(4, to);
+                            stmt.executeUpdate();
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Recompute every bucket of both tables; returns the number of rows written
+     */
+    public static int rebuildAll(Connection conn) throws SQLException {
+        int[] rows = new int[1];
+        Transactions.inTransaction(conn, () -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (BatchWriter.Table table : new BatchWriter.Table[] {BatchWriter.Table.CAR_DATA, BatchWriter.Table.LOCATION}) {
+                    stmt.executeUpdate("DELETE FROM " + rollupTable(table));
+                    for (Resolution resolution : ROLLUPS) {
+                        rows[0] += stmt.executeUpdate(insertSql(table, resolution.bucketMillis, ""));
+                    }
+                }
+            }
+        });
+        return rows[0];
+    }
+
+    /**
+     * Build the buckets if there are samples but no buckets yet, as after an upgrade
+     */
+    public static void rebuildIfEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT (SELECT COUNT(*) FROM car_data_rollup) + (SELECT COUNT(*) FROM location_rollup), " +
+                     "       (SELECT COUNT(*) FROM car_data) + (SELECT COUNT(*) FROM location)")) {
+            if (rs.next() && rs.getLong(1) == 0 && rs.getLong(2) > 0) {
+                System.out.println("Built " + rebuildAll(conn) + " telemetry rollup rows");
+            }
+        }
+    }
+
+    /**
+     * One driver's car data between two times, at the coarsest resolution giving at least points points
+     */
+    public static CarSeries loadCarData(Connection conn, int raceId, int driverId, long fromMs, long toMs,
+                                        int points) throws SQLException {
+        Resolution resolution = Resolution.forPoints(fromMs, toMs, points);
+        CarSeries series = new CarSeries(resolution, expectedPoints(resolution, fromMs, toMs));
+
+        String sql = resolution == Resolution.RAW
+                ? "SELECT date_ms AS start_ms, speed, rpm, throttle, n_gear FROM car_data" + SPAN_WHERE +
+                  " ORDER BY date_ms"
+                : "SELECT start_ms, samples, min_speed, max_speed, avg_speed, min_rpm, max_rpm, avg_rpm, " +
+                  "min_throttle, max_throttle, avg_throttle" + gearColumns("") + " FROM car_data_rollup" +
+                  bucketWhere(resolution);
+        try (PreparedStatement stmt = prepareSpan(conn, sql, resolution, raceId, driverId, fromMs, toMs);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                series.add(rs);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * One driver's positions between two times, at the coarsest resolution giving at least points points
+     */
+    public static LocationSeries loadLocations(Connection conn, int raceId, int driverId, long fromMs, long toMs,
+                                               int points) throws SQLException {
+        Resolution resolution = Resolution.forPoints(fromMs, toMs, points);
+        LocationSeries series = new LocationSeries(resolution, expectedPoints(resolution, fromMs, toMs));
+
+        String sql = resolution == Resolution.RAW
+                ? "SELECT date_ms AS start_ms, x, y, z FROM location" + SPAN_WHERE + " ORDER BY date_ms"
+                : "SELECT start_ms, x, y, z FROM location_rollup" + bucketWhere(resolution);
+        try (PreparedStatement stmt = prepareSpan(conn, sql, resolution, raceId, driverId, fromMs, toMs);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                series.add(rs);
+            }
+        }
+        return series;
+    }
+
+    private static String bucketWhere(Resolution resolution) {
+        return " WHERE race_id = ? AND driver_id = ? AND bucket_ms = " + resolution.bucketMillis +
+               " AND start_ms >= ? AND start_ms < ? ORDER BY start_ms";
+    }
+
+    private static PreparedStatement prepareSpan(Connection conn, String sql, Resolution resolution, int raceId,
+                                                 int driverId, long fromMs, long toMs) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql);
+        stmt.setInt(1, raceId);
+        stmt.setInt(2, driverId);
+        // The bucket that fromMs falls in starts before it
+        stmt.setLong(3, resolution == Resolution.RAW ? fromMs : fromMs - Math.floorMod(fromMs, resolution.bucketMillis));
+        stmt.setLong(4, toMs);
+        return stmt;
+    }
+
+    private static int expectedPoints(Resolution resolution, long fromMs, long toMs) {
+        // Raw samples come about every 250 ms
+        long points = (toMs - fromMs) / (resolution == Resolution.RAW ? 250 : resolution.bucketMillis) + 1;
+        return (int) Math.max(16, Math.min(points, 1 << 20));
+    }
+
+    private static String rollupTable(BatchWriter.Table table) {
+        switch (table) {
+            case CAR_DATA: return "car_data_rollup";
+            case LOCATION: return "location_rollup";
+            default: throw new IllegalArgumentException(table.getName() + " has no rollups");
+        }
+    }
+
+    private static String insertSql(BatchWriter.Table table, int bucket, String where) {
+        return String.format(table == BatchWriter.Table.CAR_DATA ? CAR_INSERT_SQL : LOCATION_INSERT_SQL, bucket, where);
+    }
+
+    private static String gearColumns(String prefix) {
+        StringBuilder columns = new StringBuilder();
+        for (int gear = 0; gear < GEARS; gear++) {
+            columns.append(", ").append(prefix).append("gear_").append(gear);
+        }
+        return columns.toString();
+    }
+
+    private static String gearCounts() {
+        StringBuilder counts = new StringBuilder();
+        for (int gear = 0; gear < GEARS; gear++) {
+            counts.append(", SUM(CASE WHEN n_gear = ").append(gear).append(" THEN 1 ELSE 0 END)");
+        }
+        return counts.toString();
+    }
+
+    /**
+     * The earliest and latest sample time written per driver and race
+     */
+    static final class Spans {
+        // race_id, driver_id, first date_ms, last date_ms
+        private final Map<Long, long[]> spans = new LinkedHashMap<>();
+        // Rows mostly come one driver at a time, so the last span usually matches
+        private long[] last;
+
+        void add(long raceId, long driverId, long dateMs) {
+            long[] span = last;
+            if (span == null || span[0] != raceId || span[1] != driverId) {
+                span = spans.computeIfAbsent(raceId << 32 | driverId,
+                        key -> new long[] {raceId, driverId, dateMs, dateMs});
+                last = span;
+            }
+            span[2] = Math.min(span[2], dateMs);
+            span[3] = Math.max(span[3], dateMs);
+        }
+
+        boolean isEmpty() {
+            return spans.isEmpty();
+        }
+    }
+
+    /**
+     * Car data points in time order. At RAW each point is one sample, so its min, max
+     * and average are the sample's value and it counts once in its gear.
+     */
+    public static final class CarSeries {
+        private final Resolution resolution;
+        private int size;
+        private long[] startMillis;
+        private int[] samples;
+        private int[] minSpeed;
+        private int[] maxSpeed;
+        private float[] avgSpeed;
+        private int[] minRpm;
+        private int[] maxRpm;
+        private float[] avgRpm;
+        private int[] minThrottle;
+        private int[] maxThrottle;
+        private float[] avgThrottle;
+        private int[] gearSamples;
+
+        private CarSeries(Resolution resolution, int capacity) {
+            this.resolution = resolution;
+            allocate(capacity);
+        }
+
+        private void add(ResultSet rs) throws SQLException {
+            if (size == startMillis.length) {
+                allocate(size * 2);
+            }
+            // By position, in the order loadCarData selects the columns
+            startMillis[size] = rs.getLong(1);
+            if (resolution == Resolution.RAW) {
+                samples[size] = 1;
+                minSpeed[size] = maxSpeed[size] = rs.getInt(2);
+                avgSpeed[size] = minSpeed[size];
+                minRpm[size] = maxRpm[size] = rs.getInt(3);
+                avgRpm[size] = minRpm[size];
+                minThrottle[size] = maxThrottle[size] = rs.getInt(4);
+                avgThrottle[size] = minThrottle[size];
+                int gear = rs.getInt(5);
+                if (gear >= 0 && gear < GEARS) {
+                    gearSamples[size * GEARS + gear] = 1;
+                }
+            } else {
+                samples[size] = rs.getInt(2);
+                minSpeed[size] = rs.getInt(3);
+                maxSpeed[size] = rs.getInt(4);
+                avgSpeed[size] = rs.getFloat(5);
+                minRpm[size] = rs.getInt(6);
+                maxRpm[size] = rs.getInt(7);
+                avgRpm[size] = rs.getFloat(8);
+                minThrottle[size] = rs.getInt(9);
+                maxThrottle[size] = rs.getInt(10);
+                avgThrottle[size] = rs.getFloat(11);
+                for (int gear = 0; gear < GEARS; gear++) {
+                    gearSamples[size * GEARS + gear] = rs.getInt(12 + gear);
+                }
+            }
+            size++;
+        }
+
+        private void allocate(int capacity) {
+            startMillis = Arrays.copyOf(startMillis == null ? new long[0] : startMillis, capacity);
+            samples = Arrays.copyOf(samples == null ? new int[0] : samples, capacity);
+            minSpeed = Arrays.copyOf(minSpeed == null ? new int[0] : minSpeed, capacity);
+            maxSpeed = Arrays.copyOf(maxSpeed == null ? new int[0] : maxSpeed, capacity);
+            avgSpeed = Arrays.copyOf(avgSpeed == null ? new float[0] : avgSpeed, capacity);
+            minRpm = Arrays.copyOf(minRpm == null ? new int[0] : minRpm, capacity);
+            maxRpm = Arrays.copyOf(maxRpm == null ? new int[0] : maxRpm, capacity);
+            avgRpm = Arrays.copyOf(avgRpm == null ? new float[0] : avgRpm, capacity);
+            minThrottle = Arrays.copyOf(minThrottle == null ? new int[0] : minThrottle, capacity);
+            maxThrottle = Arrays.copyOf(maxThrottle == null ? new int[0] : maxThrottle, capacity);
+            avgThrottle = Arrays.copyOf(avgThrottle == null ? new float[0] : avgThrottle, capacity);
+            gearSamples = Arrays.copyOf(gearSamples == null ? new int[0] : gearSamples, capacity * GEARS);
+        }
+
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** Time of the sample, or the start of the bucket */
+        public long getStartMillis(int i) {
+            return startMillis[i];
+        }
+
+        public int getSamples(int i) {
+            return samples[i];
+        }
+
+        public int getMinSpeed(int i) {
+            return minSpeed[i];
+        }
+
+        public int getMaxSpeed(int i) {
+            return maxSpeed[i];
+        }
+
+        public float getAvgSpeed(int i) {
+            return avgSpeed[i];
+        }
+
+        public int getMinRpm(int i) {
+            return minRpm[i];
+        }
+
+        public int getMaxRpm(int i) {
+            return maxRpm[i];
+        }
+
+        public float getAvgRpm(int i) {
+            return avgRpm[i];
+        }
+
+        public int getMinThrottle(int i) {
+            return minThrottle[i];
+        }
+
+        public int getMaxThrottle(int i) {
+            return maxThrottle[i];
+        }
+
+        public float getAvgThrottle(int i) {
+            return avgThrottle[i];
+        }
+
+        /** Samples of the point in a gear, 0 for neutral to 8 */
+        public int getGearSamples(int i, int gear) {
+            return gearSamples[i * GEARS + gear];
+        }
+
+        /** The gear the most samples of the point were in */
+        public int getMainGear(int i) {
+            int main = 0;
+            for (int gear = 1; gear < GEARS; gear++) {
+                if (gearSamples[i * GEARS + gear] > gearSamples[i * GEARS + main]) {
+                    main = gear;
+                }
+            }
+            return main;
+        }
+    }
+
+    /**
+     * Positions in time order: each sample at RAW, else the last position in each bucket
+     */
+    public static final class LocationSeries {
+        private final Resolution resolution;
+        private int size;
+        private long[] startMillis;
+        private int[] x;
+        private int[] y;
+        private int[] z;
+
+        private LocationSeries(Resolution resolution, int capacity) {
+            this.resolution = resolution;
+            startMillis = new long[capacity];
+            x = new int[capacity];
+            y = new int[capacity];
+            z = new int[capacity];
+        }
+
+        private void add(ResultSet rs) throws SQLException {
+            if (size == startMillis.length) {
+                startMillis = Arrays.copyOf(startMillis, size * 2);
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                z = Arrays.copyOf(z, size * 2);
+            }
+            // By position, in the order loadLocations selects the columns
+            startMillis[size] = rs.getLong(1);
+            x[size] = rs.getInt(2);
+            y[size] = rs.getInt(3);
+            z[size] = rs.getInt(4);
+            size++;
+        }
+
+        public Resolution getResolution() {
+            return resolution;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** Time of the sample, or the start of the bucket */
+        public long getStartMillis(int i) {
+            return startMillis[i];
+        }
+
+        public int getX(int i) {
+            return x[i];
+        }
+
+        public int getY(int i) {
+            return y[i];
+        }
+
+        public int getZ(int i) {
+            return z[i];
+        }
+    }
+}
@@ -80,6 +80,33 @@ public class TrackMapPanel extends JPanel {
         repaint();
     }
     
+    /**
+     * Show every car where it was at the given instant of a session, fetched
+     * from the dashboard server in the background
+     *
+     * @param client Client for the dashboard server
+     * @param sessionKey OpenF1 session key
+     * @param epochMillis Instant to show
+     */
+    public void showSessionAt(SessionSnapshotClient client, int sessionKey, long epochMillis) {
+        SwingWorker<List<DriverPosition>, Void> worker = new SwingWorker<List<DriverPosition>, Void>() {
+            @Override
+            protected List<DriverPosition> doInBackground() throws Exception {
+                return client.getDriverPositions(sessionKey, epochMillis);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    updateDriverPositions(get());
+                } catch (Exception e) {
+                    System.err.println("Error loading session snapshot: " + e.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
     /**
      * Toggle showing driver names
      */
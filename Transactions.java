@@ -0,0 +1,37 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Runs JDBC work as one transaction on a connection, for the classes that keep
+ * derived tables (DriverRaceSummary, TelemetryRollup) in step with their sources.
+ */
+final class Transactions {
+
+    /**
+     * Statements to run in the transaction
+     */
+    interface Work {
+        void run() throws SQLException;
+    }
+
+    private Transactions() {
+    }
+
+    /**
+     * Run the work and commit, or roll back and rethrow if it fails. The
+     * connection's auto-commit setting is restored either way.
+     */
+    static void inTransaction(Connection conn, Work work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            work.run();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -62,23 +62,85 @@ CREATE TABLE IF NOT EXISTS race_results (
     FOREIGN KEY (driver_id) REFERENCES drivers(id)
 );
 
--- Create lap_data table
+-- Create lap_data table (times in milliseconds; databases with the old VARCHAR
+-- time columns are converted by LapTimeMigration when the app starts)
 CREATE TABLE IF NOT EXISTS lap_data (
     id INT AUTO_INCREMENT PRIMARY KEY,
     race_id INT NOT NULL,
     driver_id INT NOT NULL,
     lap_number INT NOT NULL,
     position INT,
-    lap_time VARCHAR(20),
-    sector1_time VARCHAR(20),
-    sector2_time VARCHAR(20),
-    sector3_time VARCHAR(20),
+    lap_time_ms INT,
+    sector1_ms INT,
+    sector2_ms INT,
+    sector3_ms INT,
     speed DECIMAL(6,3),
     UNIQUE KEY race_driver_lap (race_id, driver_id, lap_number),
     FOREIGN KEY (race_id) REFERENCES races(id),
     FOREIGN KEY (driver_id) REFERENCES drivers(id)
 );
 
+-- Create driver_race_summary table (per-driver race figures, refreshed when laps
+-- are written; java DriverRaceSummary rebuilds it from lap_data)
+CREATE TABLE IF NOT EXISTS driver_race_summary (
+    race_id INT NOT NULL,
+    driver_id INT NOT NULL,
+    laps INT NOT NULL,
+    timed_laps INT NOT NULL,
+    best_lap_ms INT,
+    avg_lap_ms INT,
+    avg_speed DECIMAL(6,3),
+    max_speed DECIMAL(6,3),
+    pit_stops INT NOT NULL,
+    PRIMARY KEY (race_id, driver_id),
+    FOREIGN KEY (race_id) REFERENCES races(id),
+    FOREIGN KEY (driver_id) REFERENCES drivers(id)
+);
+
+-- Create driver_race_stints table (per-driver stints, a new one at each pit lap, with
+-- their pace; refreshed with driver_race_summary)
+CREATE TABLE IF NOT EXISTS driver_race_stints (
+    race_id INT NOT NULL,
+    driver_id INT NOT NULL,
+    stint INT NOT NULL,
+    first_lap INT NOT NULL,
+    last_lap INT NOT NULL,
+    laps INT NOT NULL,
+    pace_ms INT,
+    PRIMARY KEY (race_id, driver_id, stint),
+    FOREIGN KEY (race_id) REFERENCES races(id),
+    FOREIGN KEY (driver_id) REFERENCES drivers(id)
+);
+
+-- Create car_data table (telemetry samples, keyed in write and read order)
+CREATE TABLE IF NOT EXISTS car_data (
+    race_id INT NOT NULL,
+    driver_id INT NOT NULL,
+    date_ms BIGINT NOT NULL,
+    speed SMALLINT,
+    rpm SMALLINT,
+    n_gear SMALLINT,
+    throttle SMALLINT,
+    brake SMALLINT,
+    drs SMALLINT,
+    PRIMARY KEY (race_id, driver_id, date_ms),
+    FOREIGN KEY (race_id) REFERENCES races(id),
+    FOREIGN KEY (driver_id) REFERENCES drivers(id)
+);
+
+-- Create location table (position samples)
+CREATE TABLE IF NOT EXISTS location (
+    race_id INT NOT NULL,
+    driver_id INT NOT NULL,
+    date_ms BIGINT NOT NULL,
+    x INT,
+    y INT,
+    z INT,
+    PRIMARY KEY (race_id, driver_id, date_ms),
+    FOREIGN KEY (race_id) REFERENCES races(id),
+    FOREIGN KEY (driver_id) REFERENCES drivers(id)
+);
+
 -- Insert sample seasons data
 INSERT INTO seasons (year, name) VALUES 
 (2020, '2020 Formula 1 Season'),
@@ -165,32 +227,59 @@ VALUES (@race_id, (SELECT id FROM drivers WHERE driver_number = 44), 5, 10, 7, '
 SET @driver_id = (SELECT id FROM drivers WHERE driver_number = 1);
 
 -- Insert 10 sample laps for demonstration
-INSERT INTO lap_data (race_id, driver_id, lap_number, position, lap_time, sector1_time, sector2_time, sector3_time, speed)
+INSERT INTO lap_data (race_id, driver_id, lap_number, position, lap_time_ms, sector1_ms, sector2_ms, sector3_ms, speed)
 VALUES 
-(@race_id, @driver_id, 1, 1, '1:35.245', '29.123', '38.657', '27.465', 212.345),
-(@race_id, @driver_id, 2, 1, '1:34.876', '28.987', '38.532', '27.357', 213.678),
-(@race_id, @driver_id, 3, 1, '1:34.562', '28.876', '38.421', '27.265', 214.123),
-(@race_id, @driver_id, 4, 1, '1:34.321', '28.765', '38.312', '27.244', 214.567),
-(@race_id, @driver_id, 5, 1, '1:34.123', '28.654', '38.256', '27.213', 214.982),
-(@race_id, @driver_id, 6, 1, '1:33.987', '28.543', '38.234', '27.210', 215.345),
-(@race_id, @driver_id, 7, 1, '1:33.876', '28.521', '38.189', '27.166', 215.687),
-(@race_id, @driver_id, 8, 1, '1:33.765', '28.498', '38.145', '27.122', 215.912),
-(@race_id, @driver_id, 9, 1, '1:33.654', '28.476', '38.089', '27.089', 216.234),
-(@race_id, @driver_id, 10, 1, '1:33.543', '28.454', '38.023', '27.066', 216.567);
+(@race_id, @driver_id, 1, 1, 95245, 29123, 38657, 27465, 212.345),
+(@race_id, @driver_id, 2, 1, 94876, 28987, 38532, 27357, 213.678),
+(@race_id, @driver_id, 3, 1, 94562, 28876, 38421, 27265, 214.123),
+(@race_id, @driver_id, 4, 1, 94321, 28765, 38312, 27244, 214.567),
+(@race_id, @driver_id, 5, 1, 94123, 28654, 38256, 27213, 214.982),
+(@race_id, @driver_id, 6, 1, 93987, 28543, 38234, 27210, 215.345),
+(@race_id, @driver_id, 7, 1, 93876, 28521, 38189, 27166, 215.687),
+(@race_id, @driver_id, 8, 1, 93765, 28498, 38145, 27122, 215.912),
+(@race_id, @driver_id, 9, 1, 93654, 28476, 38089, 27089, 216.234),
+(@race_id, @driver_id, 10, 1, 93543, 28454, 38023, 27066, 216.567);
 
 -- Generate sample lap data for Sergio Perez
 SET @driver_id = (SELECT id FROM drivers WHERE driver_number = 11);
 
 -- Insert 10 sample laps for demonstration
-INSERT INTO lap_data (race_id, driver_id, lap_number, position, lap_time, sector1_time, sector2_time, sector3_time, speed)
+INSERT INTO lap_data (race_id, driver_id, lap_number, position, lap_time_ms, sector1_ms, sector2_ms, sector3_ms, speed)
 VALUES 
-(@race_id, @driver_id, 1, 2, '1:35.567', '29.223', '38.857', '27.487', 211.345),
-(@race_id, @driver_id, 2, 2, '1:35.123', '29.087', '38.632', '27.404', 212.678),
-(@race_id, @driver_id, 3, 2, '1:34.876', '28.976', '38.521', '27.379', 213.123),
-(@race_id, @driver_id, 4, 2, '1:34.654', '28.865', '38.432', '27.357', 213.567),
-(@race_id, @driver_id, 5, 2, '1:34.432', '28.754', '38.356', '27.322', 213.982),
-(@race_id, @driver_id, 6, 2, '1:34.321', '28.643', '38.334', '27.344', 214.345),
-(@race_id, @driver_id, 7, 2, '1:34.123', '28.621', '38.289', '27.213', 214.687),
-(@race_id, @driver_id, 8, 2, '1:34.023', '28.598', '38.245', '27.180', 214.912),
-(@race_id, @driver_id, 9, 2, '1:33.934', '28.576', '38.189', '27.169', 215.234),
-(@race_id, @driver_id, 10, 2, '1:33.845', '28.554', '38.123', '27.168', 215.567);
\ No newline at end of file
+(@race_id, @driver_id, 1, 2, 95567, 29223, 38857, 27487, 211.345),
+(@race_id, @driver_id, 2, 2, 95123, 29087, 38632, 27404, 212.678),
+(@race_id, @driver_id, 3, 2, 94876, 28976, 38521, 27379, 213.123),
+(@race_id, @driver_id, 4, 2, 94654, 28865, 38432, 27357, 213.567),
+(@race_id, @driver_id, 5, 2, 94432, 28754, 38356, 27322, 213.982),
+(@race_id, @driver_id, 6, 2, 94321, 28643, 38334, 27344, 214.345),
+(@race_id, @driver_id, 7, 2, 94123, 28621, 38289, 27213, 214.687),
+(@race_id, @driver_id, 8, 2, 94023, 28598, 38245, 27180, 214.912),
+(@race_id, @driver_id, 9, 2, 93934, 28576, 38189, 27169, 215.234),
+(@race_id, @driver_id, 10, 2, 93845, 28554, 38123, 27168, 215.567);
+-- Summarise the sample laps (a pit lap is over 30% and 5 s slower than the lap before)
+INSERT INTO driver_race_summary (race_id, driver_id, laps, timed_laps, best_lap_ms, avg_lap_ms, avg_speed, max_speed, pit_stops)
+SELECT race_id, driver_id, COUNT(*), COUNT(lap_time_ms), MIN(lap_time_ms),
+       ROUND(AVG(lap_time_ms)), AVG(speed), MAX(speed), SUM(pit_lap)
+FROM (
+    SELECT race_id, driver_id, lap_time_ms, speed,
+           CASE WHEN lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) * 1.3
+                 AND lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) + 5000
+                THEN 1 ELSE 0 END AS pit_lap
+    FROM lap_data
+) flagged
+GROUP BY race_id, driver_id;
+INSERT INTO driver_race_stints (race_id, driver_id, stint, first_lap, last_lap, laps, pace_ms)
+SELECT race_id, driver_id, stint, MIN(lap_number), MAX(lap_number), COUNT(*),
+       ROUND(AVG(CASE WHEN pit_lap = 0 THEN lap_time_ms END))
+FROM (
+    SELECT race_id, driver_id, lap_number, lap_time_ms, pit_lap,
+           1 + SUM(pit_lap) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) AS stint
+    FROM (
+        SELECT race_id, driver_id, lap_number, lap_time_ms,
+               CASE WHEN lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) * 1.3
+                     AND lap_time_ms > LAG(lap_time_ms) OVER (PARTITION BY race_id, driver_id ORDER BY lap_number) + 5000
+                    THEN 1 ELSE 0 END AS pit_lap
+        FROM lap_data
+    ) flagged
+) numbered
+GROUP BY race_id, driver_id, stint;
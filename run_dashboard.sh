@@ -31,10 +31,18 @@ if [ ! -f "lib/json-20231013.jar" ]; then
     echo "JSON library downloaded successfully."
 fi
 
+# H2 for the embedded database mode (-Df1.db.mode=h2 in JAVA_OPTS)
+if [ ! -f "lib/h2.jar" ]; then
+    echo "H2 database not found, downloading..."
+    mkdir -p lib
+    curl -L https://repo1.maven.org/maven2/com/h2database/h2/2.2.224/h2-2.2.224.jar -o lib/h2.jar
+    echo "H2 database downloaded successfully."
+fi
+
 # Compile all Java files with MySQL JDBC driver in classpath
 echo "Compiling Java files..."
-javac -cp .:lib/mysql-connector-j.jar:lib/json-20231013.jar *.java
+javac -cp .:lib/mysql-connector-j.jar:lib/json-20231013.jar:lib/h2.jar *.java
 
 # Run the application with the MySQL JDBC driver in classpath
 echo "Running F1 Dashboard application..."
-java -cp .:lib/mysql-connector-j.jar:lib/json-20231013.jar F1SwingDashboardApp
\ No newline at end of file
+java $JAVA_OPTS -cp .:lib/mysql-connector-j.jar:lib/json-20231013.jar:lib/h2.jar F1SwingDashboardApp
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.f1.dashboard.benchmark;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.f1.dashboard.model.LapData;
+
+/**
+ * Retained heap per lap: the compact LapData against the earlier mutable layout, which
+ * kept both a "M:SS.mmm" string and double seconds, an OffsetDateTime start and boxed
+ * segment lists. Both hold the same OpenF1-style laps. Measured as the heap still in
+ * use after a full GC, so run with a fixed heap and nothing else going on, e.g.
+ * java -Xms1g -Xmx1g -cp target/classes:<runtime classpath> com.f1.dashboard.benchmark.LapMemoryBenchmark
+ */
+public class LapMemoryBenchmark {
+
+    private static final int LAPS = 200_000;
+    private static final int SEGMENTS_PER_SECTOR = 8;
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 3, 2, 15, 3, 0, 0, ZoneOffset.UTC);
+
+    public static void main(String[] args) {
+        System.out.printf("%-8s %10s %12s%n", "layout", "laps", "bytes/lap");
+        // The first round of each warms up class loading and the string caches
+        for (int round = 0; round < 2; round++) {
+            report("legacy", LapMemoryBenchmark::legacyLap, round == 1);
+            report("compact", LapMemoryBenchmark::compactLap, round == 1);
+        }
+    }
+
+    private static void report(String layout, IntFunction<Object> factory, boolean print) {
+        long before = usedHeap();
+        Object[] laps = new Object[LAPS];
+        for (int i = 0; i < LAPS; i++) {
+            laps[i] = factory.apply(i);
+        }
+        long after = usedHeap();
+        // The array itself is the same for both layouts
+        long retained = after - before - (16L + 4L * LAPS);
+        if (print) {
+            System.out.printf("%-8s %10d %12.1f%n", layout, laps.length, (double) retained / LAPS);
+        }
+        Arrays.fill(laps, null);
+    }
+
+    private static LapData compactLap(int i) {
+        int duration = lapMillis(i);
+        return LapData.builder()
+                .driverNumber(1 + i % 20)
+                .meetingKey(1229)
+                .sessionKey(9472)
+                .lapNumber(1 + i % 57)
+                .dateStart(START.plusNanos(i * 1_000_000L * duration))
+                .lapDurationMillis(duration)
+                .sectorMillis(duration * 3 / 10, duration * 4 / 10, duration - duration * 7 / 10)
+                .i1Speed(290 + i % 20)
+                .i2Speed(270 + i % 15)
+                .stSpeed(300 + i % 25)
+                .pitOutLap(i % 57 == 18)
+                .segmentsSector1(shortSegments(i))
+                .segmentsSector2(shortSegments(i + 1))
+                .segmentsSector3(shortSegments(i + 2))
+                .build();
+    }
+
+    private static LegacyLap legacyLap(int i) {
+        int duration = lapMillis(i);
+        LegacyLap lap = new LegacyLap();
+        lap.driverNumber = 1 + i % 20;
+        lap.meetingKey = 1229;
+        lap.sessionKey = 9472;
+        lap.lapNumber = 1 + i % 57;
+        lap.dateStart = START.plusNanos(i * 1_000_000L * duration);
+        lap.lapDuration = duration / 1000.0;
+        // Formatted eagerly, as the parser and sample data used to
+        lap.lapTime = String.format("%d:%06.3f", duration / 60000, (duration % 60000) / 1000.0);
+        lap.durationSector1 = duration * 3 / 10 / 1000.0;
+        lap.durationSector2 = duration * 4 / 10 / 1000.0;
+        lap.durationSector3 = (duration - duration * 7 / 10) / 1000.0;
+        lap.i1Speed = 290 + i % 20;
+        lap.i2Speed = 270 + i % 15;
+        lap.stSpeed = 300 + i % 25;
+        lap.isPitOutLap = i % 57 == 18;
+        lap.segmentsSector1 = boxedSegments(i);
+        lap.segmentsSector2 = boxedSegments(i + 1);
+        lap.segmentsSector3 = boxedSegments(i + 2);
+        return lap;
+    }
+
+    private static int lapMillis(int i) {
+        return 91_000 + (i * 7919) % 4_000;
+    }
+
+    // OpenF1 mini-sector codes are in the 2048-2064 range, outside the Integer cache
+    private static short[] shortSegments(int seed) {
+        short[] segments = new short[SEGMENTS_PER_SECTOR];
+        for (int j = 0; j < segments.length; j++) {
+            segments[j] = (short) (2048 + (seed + j) % 3);
+        }
+        return segments;
+    }
+
+    private static List<Integer> boxedSegments(int seed) {
+        List<Integer> segments = new ArrayList<>();
+        for (int j = 0; j < SEGMENTS_PER_SECTOR; j++) {
+            segments.add(2048 + (seed + j) % 3);
+        }
+        return segments;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect until the figure settles
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * The field layout LapData had before it was made compact
+     */
+    private static final class LegacyLap {
+        private int driverNumber;
+        private int meetingKey;
+        private int sessionKey;
+        private OffsetDateTime dateStart;
+        private double lapDuration;
+        private String driverId;
+        private int lapNumber;
+        private String lapTime;
+        private int position;
+        private double speed;
+        private String compound;
+        private int sector1Time;
+        private int sector2Time;
+        private int sector3Time;
+        private double durationSector1;
+        private double durationSector2;
+        private double durationSector3;
+        private int i1Speed;
+        private int i2Speed;
+        private int stSpeed;
+        private boolean isPitOutLap;
+        private List<Integer> segmentsSector1;
+        private List<Integer> segmentsSector2;
+        private List<Integer> segmentsSector3;
+    }
+}
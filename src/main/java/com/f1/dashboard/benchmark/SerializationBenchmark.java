@@ -0,0 +1,110 @@
+package com.f1.dashboard.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.f1.dashboard.model.CarData;
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.util.ColumnarEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Compares JSON and the columnar binary layout for 100k car_data and location rows:
+ * encoded size and serialization time. Run as a plain main class, e.g.
+ * java -cp target/classes:<runtime classpath> com.f1.dashboard.benchmark.SerializationBenchmark
+ */
+public class SerializationBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+
+    public static void main(String[] args) throws IOException {
+        // Same date handling as the Spring Boot default ObjectMapper
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<CarData> carData = sampleCarData();
+        List<Location> locations = sampleLocations();
+
+        System.out.printf("%-10s %-9s %12s %10s %10s%n", "series", "format", "bytes", "ms", "bytes/row");
+        report("car_data", "json", () -> objectMapper.writeValueAsBytes(carData));
+        report("car_data", "columnar", () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ColumnarEncoder.writeCarData(carData, null, out);
+            return out.toByteArray();
+        });
+        report("location", "json", () -> objectMapper.writeValueAsBytes(locations));
+        report("location", "columnar", () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ColumnarEncoder.writeLocations(locations, null, out);
+            return out.toByteArray();
+        });
+    }
+
+    private static void report(String series, String format, Encoding encoding) throws IOException {
+        int size = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            size = encoding.encode().length;
+        }
+
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoding.encode();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        double medianMillis = times[MEASURED_ROUNDS / 2] / 1_000_000.0;
+
+        System.out.printf("%-10s %-9s %12d %10.2f %10.1f%n", series, format, size, medianMillis, (double) size / ROWS);
+    }
+
+    private static List<CarData> sampleCarData() {
+        OffsetDateTime start = OffsetDateTime.of(2024, 3, 2, 15, 0, 0, 0, ZoneOffset.UTC);
+        List<CarData> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            CarData row = new CarData();
+            row.setDate(start.plusNanos(i * 270_000_000L));
+            row.setSessionKey(9472);
+            row.setMeetingKey(1229);
+            row.setDriverNumber(1);
+            row.setSpeed(180 + (int) (120 * Math.sin(i / 90.0)));
+            row.setRpm(9000 + (int) (3000 * Math.sin(i / 45.0)));
+            row.setThrottle(i % 7 == 0 ? 0 : 100);
+            row.setBrake(i % 7 == 0 ? 100 : 0);
+            row.setNGear(1 + i % 8);
+            row.setDrs(i % 50 < 10 ? 12 : 0);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Location> sampleLocations() {
+        OffsetDateTime start = OffsetDateTime.of(2024, 3, 2, 15, 0, 0, 0, ZoneOffset.UTC);
+        List<Location> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Location row = new Location();
+            row.setDate(start.plusNanos(i * 270_000_000L));
+            row.setSessionKey(9472);
+            row.setMeetingKey(1229);
+            row.setDriverNumber(1);
+            row.setX((int) (4000 * Math.cos(i / 300.0)));
+            row.setY((int) (2500 * Math.sin(i / 300.0)));
+            row.setZ(120 + i % 30);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private interface Encoding {
+        byte[] encode() throws IOException;
+    }
+}
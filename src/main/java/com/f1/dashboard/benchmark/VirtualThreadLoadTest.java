@@ -0,0 +1,117 @@
+package com.f1.dashboard.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.f1.dashboard.F1DashboardApplication;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Load test for the request execution modes. Starts a stub OpenF1 that answers every
+ * call after a fixed delay, then boots the dashboard once with the platform thread
+ * pool and once with virtual threads, firing the same burst of concurrent uncached
+ * car_data requests at each. Usage: VirtualThreadLoadTest [requests] [upstreamDelayMs]
+ */
+public class VirtualThreadLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 800;
+        long upstreamDelay = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+
+        HttpServer upstream = startStubUpstream(upstreamDelay);
+        String upstreamUrl = "http://localhost:" + upstream.getAddress().getPort() + "/v1";
+        try {
+            System.out.printf("%d concurrent requests, upstream delay %d ms%n", requests, upstreamDelay);
+            System.out.printf("%-9s %10s %8s %10s %10s%n", "mode", "total ms", "ok", "req/s", "p99 ms");
+            run("platform", false, upstreamUrl, requests);
+            run("virtual", true, upstreamUrl, requests);
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private static void run(String mode, boolean virtualThreads, String upstreamUrl, int requests) throws Exception {
+        // Passed as arguments so they override application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(F1DashboardApplication.class)
+                .run("--server.port=0",
+                        "--openf1.api.base-url=" + upstreamUrl,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.f1.dashboard=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newCachedThreadPool())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            // Distinct sessions so every request misses the cache and waits on the upstream
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                URI uri = URI.create("http://localhost:" + port + "/api/sessions/" + (100000 + i)
+                        + "/drivers/1/car_data");
+                long sent = System.nanoTime();
+                calls.add(client.sendAsync(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).build(),
+                                HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200 ? System.nanoTime() - sent : -1L)
+                        .exceptionally(e -> -1L));
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            int ok = 0;
+            for (CompletableFuture<Long> call : calls) {
+                long latency = call.join();
+                if (latency >= 0) {
+                    ok++;
+                    latencies.add(latency);
+                }
+            }
+            long totalMillis = (System.nanoTime() - start) / 1_000_000;
+            latencies.sort(null);
+            long p99 = latencies.isEmpty() ? 0
+                    : latencies.get(Math.max(0, (int) Math.ceil(latencies.size() * 0.99) - 1)) / 1_000_000;
+
+            System.out.printf("%-9s %10d %8d %10.0f %10d%n", mode, totalMillis, ok,
+                    ok * 1000.0 / Math.max(1, totalMillis), p99);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static HttpServer startStubUpstream(long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Unbounded, so the stub never queues and every call sees only the fixed delay
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,104 @@
+package com.f1.dashboard.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.f1.dashboard.service.AdmissionControlService;
+import com.f1.dashboard.service.AdmissionControlService.Priority;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects API requests over their class's concurrency limit with 429 before any
+ * work is done. The slot is held until the response is complete, including
+ * streamed (async) responses, so the measured latency covers serialization.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControlService admissionControlService;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlService admissionControlService) {
+        this.admissionControlService = admissionControlService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = admissionControlService.classify(request.getRequestURI());
+        if (priority == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!admissionControlService.tryAcquire(priority)) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControlService.retryAfterSeconds(priority)));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(priority, start));
+            } else {
+                admissionControlService.release(priority, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class ReleaseListener implements AsyncListener {
+        private final Priority priority;
+        private final long start;
+        private boolean released;
+
+        ReleaseListener(Priority priority, long start) {
+            this.priority = priority;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Keep listening if the request goes async again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release() {
+            if (!released) {
+                released = true;
+                admissionControlService.release(priority, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.f1.dashboard.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.f1.dashboard.model.CarData;
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.model.SeriesPage;
+import com.f1.dashboard.model.TelemetryPoints;
+import com.f1.dashboard.util.ColumnarEncoder;
+
+/**
+ * Serves car_data and location pages and downsampled telemetry in the columnar
+ * binary layout to clients that send Accept: application/vnd.f1.columnar.
+ * Everything else keeps going through Jackson.
+ */
+public class ColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public ColumnarHttpMessageConverter() {
+        super(MediaType.parseMediaType(ColumnarEncoder.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SeriesPage.class.isAssignableFrom(clazz) || TelemetryPoints.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (TelemetryPoints.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        return SeriesPage.class.isAssignableFrom(clazz) && recordType(type) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof TelemetryPoints) {
+            ColumnarEncoder.writeTelemetry((TelemetryPoints) body, outputMessage.getBody());
+            return;
+        }
+
+        SeriesPage<?> page = (SeriesPage<?>) body;
+        if (recordType(type) == CarData.class) {
+            ColumnarEncoder.writeCarData((List<CarData>) page.getItems(), page.getNextCursor(),
+                    outputMessage.getBody());
+        } else {
+            ColumnarEncoder.writeLocations((List<Location>) page.getItems(), page.getNextCursor(),
+                    outputMessage.getBody());
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar format is write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar format is write-only", inputMessage);
+    }
+
+    /**
+     * Element class of a SeriesPage type if it has a columnar layout, otherwise null
+     */
+    private static Class<?> recordType(Type type) {
+        if (type == null) {
+            return null;
+        }
+        Class<?> element = ResolvableType.forType(type).as(SeriesPage.class).getGeneric(0).resolve();
+        return element == CarData.class || element == Location.class ? element : null;
+    }
+}
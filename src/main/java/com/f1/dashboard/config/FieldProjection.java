@@ -0,0 +1,123 @@
+package com.f1.dashboard.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.f1.dashboard.model.CarData;
+import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.DriverSummary;
+import com.f1.dashboard.model.Interval;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.model.Stint;
+import com.f1.dashboard.model.TelemetryPoints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Support for the fields= query parameter. Each projectable model type gets a Jackson
+ * filter id, so its bean serializer (built once per type) consults a property filter.
+ * The property names of every type are resolved once, and the filter set for each
+ * distinct fields= value is compiled once and reused. Requested names apply to the
+ * types that have them; types with none of them are written in full, so a bundle
+ * projected to lap fields still carries its driver.
+ */
+public class FieldProjection {
+
+    /** Model types that can be projected, keyed by their filter id */
+    static final List<Class<?>> PROJECTABLE_TYPES = Collections.unmodifiableList(Arrays.asList(
+            LapData.class, Driver.class, CarData.class, Location.class, Interval.class,
+            TelemetryPoints.class, Stint.class, DriverSummary.class));
+
+    private static final int MAX_COMPILED_PROJECTIONS = 256;
+
+    private final Map<String, Set<String>> propertiesByFilterId = new LinkedHashMap<>();
+    private final Set<String> allProperties = new LinkedHashSet<>();
+    private final Map<String, FilterProvider> compiled = new ConcurrentHashMap<>();
+
+    public FieldProjection(ObjectMapper objectMapper) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        for (Class<?> type : PROJECTABLE_TYPES) {
+            Set<String> names = new LinkedHashSet<>();
+            for (BeanPropertyDefinition property : config.introspect(config.constructType(type)).findProperties()) {
+                if (property.couldSerialize()) {
+                    names.add(property.getName());
+                }
+            }
+            propertiesByFilterId.put(filterId(type), names);
+            allProperties.addAll(names);
+        }
+    }
+
+    /**
+     * Filters for a comma-separated field list
+     *
+     * @throws IllegalArgumentException if a name is not a property of any projectable type
+     */
+    public FilterProvider filtersFor(String fields) {
+        FilterProvider filters = compiled.get(fields);
+        if (filters != null) {
+            return filters;
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allProperties.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+
+        SimpleFilterProvider provider = new SimpleFilterProvider().setFailOnUnknownId(false);
+        for (Map.Entry<String, Set<String>> type : propertiesByFilterId.entrySet()) {
+            Set<String> kept = new LinkedHashSet<>(type.getValue());
+            kept.retainAll(requested);
+            if (!kept.isEmpty()) {
+                provider.addFilter(type.getKey(), SimpleBeanPropertyFilter.filterOutAllExcept(kept));
+            }
+        }
+
+        // Field lists come from clients, so keep the compiled set bounded
+        if (compiled.size() >= MAX_COMPILED_PROJECTIONS) {
+            compiled.clear();
+        }
+        compiled.put(fields, provider);
+        return provider;
+    }
+
+    static String filterId(Class<?> type) {
+        return type.getSimpleName();
+    }
+
+    /**
+     * Gives each projectable type its filter id without annotating the model classes
+     */
+    static class ProjectionIntrospector extends JacksonAnnotationIntrospector {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            if (annotated instanceof AnnotatedClass && PROJECTABLE_TYPES.contains(annotated.getRawType())) {
+                return filterId(annotated.getRawType());
+            }
+            return super.findFilterId(annotated);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.f1.dashboard.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+
+/**
+ * Applies ?fields=lapNumber,lapDuration to JSON responses from the API controllers.
+ * The list is checked before the handler runs, so an unknown field is a 400 even
+ * when the handler would answer 304 Not Modified without a body.
+ */
+@ControllerAdvice(basePackages = "com.f1.dashboard.controller")
+public class FieldProjectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private final FieldProjection fieldProjection;
+
+    @Autowired
+    public FieldProjectionAdvice(FieldProjection fieldProjection) {
+        this.fieldProjection = fieldProjection;
+    }
+
+    @ModelAttribute
+    public void validateFields(@RequestParam(name = "fields", required = false) String fields) {
+        if (fields != null && !fields.isEmpty()) {
+            // Compiled projections are cached, so the body write below reuses this one
+            filtersFor(fields);
+        }
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        // Decoded, unlike the raw query of request.getURI(), so fields=a%2Cb works
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter("fields");
+        if (fields == null || fields.isEmpty()) {
+            return;
+        }
+
+        bodyContainer.setFilters(filtersFor(fields));
+    }
+
+    private FilterProvider filtersFor(String fields) {
+        try {
+            return fieldProjection.filtersFor(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.f1.dashboard.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Register the projection filter ids; without a fields= parameter no filter
+     * is found for them and every property is written
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldProjectionCustomizer() {
+        return builder -> builder
+                .annotationIntrospector(new FieldProjection.ProjectionIntrospector())
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @Bean
+    public FieldProjection fieldProjection(ObjectMapper objectMapper) {
+        return new FieldProjection(objectMapper);
+    }
+}
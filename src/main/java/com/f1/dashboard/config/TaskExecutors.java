@@ -0,0 +1,65 @@
+package com.f1.dashboard.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the executors services use for blocking work (upstream calls, fan-out).
+ * With spring.threads.virtual.enabled, which also moves Tomcat and async MVC work
+ * onto virtual threads, every task gets its own virtual thread and the pool size
+ * is ignored; otherwise a fixed pool of named platform threads is used.
+ * <p>
+ * Virtual threads come from Spring's VirtualThreadTaskExecutor rather than the
+ * Thread.ofVirtual API so the app still compiles and runs on Java 17 with the
+ * switch off; turning it on needs Java 21 at runtime.
+ */
+@Component
+public class TaskExecutors {
+
+    private final boolean virtualThreads;
+
+    public TaskExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public ExecutorService newExecutor(String name, int platformThreads) {
+        if (virtualThreads) {
+            // No core threads and no keep-alive: each task starts a fresh virtual thread
+            ThreadFactory factory = new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), factory);
+        }
+        return Executors.newFixedThreadPool(platformThreads, platformThreadFactory(name));
+    }
+
+    /**
+     * A fixed pool of platform threads for tasks that write to client sockets, even
+     * with virtual threads on: such writes happen inside synchronized blocks, where a
+     * virtual thread pins its carrier.
+     */
+    public ExecutorService newPlatformExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, platformThreadFactory(name));
+    }
+
+    private static ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.f1.dashboard.config;
+
+import com.f1.dashboard.controller.PositionFeedHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PositionFeedHandler positionFeedHandler;
+
+    @Autowired
+    public WebSocketConfig(PositionFeedHandler positionFeedHandler) {
+        this.positionFeedHandler = positionFeedHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(positionFeedHandler, "/ws/positions")
+                .setAllowedOrigins("*");
+    }
+}
@@ -1,67 +1,394 @@
 package com.f1.dashboard.controller;
 
+import com.f1.dashboard.model.CarData;
 import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.DriverBundle;
+import com.f1.dashboard.model.Interval;
 import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Location;
 import com.f1.dashboard.model.Meeting;
+import com.f1.dashboard.model.SeriesPage;
+import com.f1.dashboard.model.SessionSnapshot;
+import com.f1.dashboard.model.TelemetryChannel;
+import com.f1.dashboard.model.TelemetryPoints;
+import com.f1.dashboard.service.DataCacheService;
+import com.f1.dashboard.service.DriverBundleService;
 import com.f1.dashboard.service.F1DataService;
+import com.f1.dashboard.service.SessionTimeService;
+import com.f1.dashboard.service.TelemetryService;
+import com.f1.dashboard.util.CarDataSeries;
+import com.f1.dashboard.util.LocationSeries;
+import com.f1.dashboard.util.SessionTimeIndex;
+import com.f1.dashboard.util.TimeSeries;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 public class ApiController {
 
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 10000;
+    private static final int DEFAULT_CHART_POINTS = 1000;
+    private static final int MAX_CHART_POINTS = 10000;
+
+    // Reference data rarely changes; finished sessions never do
+    private static final CacheControl REFERENCE_CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+    private static final CacheControl FINISHED_SESSION_CACHE = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+    private static final CacheControl LIVE_SESSION_CACHE = CacheControl.noCache();
+
     private final F1DataService f1DataService;
+    private final TelemetryService telemetryService;
+    private final DataCacheService cacheService;
+    private final DriverBundleService driverBundleService;
+    private final SessionTimeService sessionTimeService;
 
     @Autowired
-    public ApiController(F1DataService f1DataService) {
+    public ApiController(F1DataService f1DataService, TelemetryService telemetryService,
+                         DataCacheService cacheService, DriverBundleService driverBundleService,
+                         SessionTimeService sessionTimeService) {
         this.f1DataService = f1DataService;
+        this.telemetryService = telemetryService;
+        this.cacheService = cacheService;
+        this.driverBundleService = driverBundleService;
+        this.sessionTimeService = sessionTimeService;
     }
 
     @GetMapping("/races")
-    public ResponseEntity<List<Meeting>> getRaces() {
-        return ResponseEntity.ok(f1DataService.getLastFiveRaces());
+    public ResponseEntity<List<Meeting>> getRaces(WebRequest request) {
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE,
+                () -> ResponseEntity.ok(f1DataService.getLastFiveRaces()));
     }
 
     @GetMapping("/races/{raceId}/drivers")
-    public ResponseEntity<List<Driver>> getDriversForRace(@PathVariable String raceId) {
+    public ResponseEntity<List<Driver>> getDriversForRace(@PathVariable String raceId, WebRequest request) {
         // In a real app, we would filter drivers by race ID
-        return ResponseEntity.ok(f1DataService.getAllDrivers());
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE,
+                () -> ResponseEntity.ok(f1DataService.getAllDrivers()));
+    }
+
+    /**
+     * The race session of a meeting, whose key the session endpoints and live feed take
+     */
+    @GetMapping("/races/{meetingKey}/session")
+    public ResponseEntity<Map<String, Integer>> getRaceSession(@PathVariable String meetingKey) {
+        Integer sessionKey = f1DataService.getRaceSessionKey(meetingKey);
+        if (sessionKey == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Collections.singletonMap("sessionKey", sessionKey));
     }
 
     @GetMapping("/drivers")
-    public ResponseEntity<List<Driver>> getAllDrivers() {
-        return ResponseEntity.ok(f1DataService.getAllDrivers());
+    public ResponseEntity<List<Driver>> getAllDrivers(WebRequest request) {
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE,
+                () -> ResponseEntity.ok(f1DataService.getAllDrivers()));
     }
 
     @GetMapping("/drivers/{driverId}")
-    public ResponseEntity<Driver> getDriver(@PathVariable String driverId) {
-        List<Driver> drivers = f1DataService.getAllDrivers();
-        
-        // Find the driver with the matching ID
-        for (Driver driver : drivers) {
-            if (driver.getDriverId().equals(driverId)) {
-                return ResponseEntity.ok(driver);
+    public ResponseEntity<Driver> getDriver(@PathVariable String driverId, WebRequest request) {
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE, () -> {
+            List<Driver> drivers = f1DataService.getAllDrivers();
+            
+            // Find the driver with the matching ID
+            for (Driver driver : drivers) {
+                if (driver.getDriverId().equals(driverId)) {
+                    return ResponseEntity.ok(driver);
+                }
             }
+            
+            return ResponseEntity.notFound().build();
+        });
+    }
+
+    @GetMapping("/drivers/{driverId}/laps")
+    public ResponseEntity<List<LapData>> getDriverLaps(@PathVariable String driverId,
+                                                       @RequestParam(required = false) Integer from,
+                                                       @RequestParam(required = false) Integer to,
+                                                       WebRequest request) {
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE, () -> {
+            List<LapData> allLaps = f1DataService.getAllLapData();
+            
+            // Filter laps for the specific driver and optional lap range
+            List<LapData> driverLaps = allLaps.stream()
+                    .filter(lap -> lap.getDriverId().equals(driverId))
+                    .filter(lap -> from == null || lap.getLapNumber() >= from)
+                    .filter(lap -> to == null || lap.getLapNumber() <= to)
+                    .collect(Collectors.toList());
+            
+            return ResponseEntity.ok(driverLaps);
+        });
+    }
+
+    /**
+     * A reference driver's info, laps, stints and summary in one response, as the
+     * dashboard's sample races use.
+     */
+    @GetMapping("/drivers/{driverId}/bundle")
+    public ResponseEntity<DriverBundle> getDriverBundle(@PathVariable String driverId, WebRequest request) {
+        return conditional(request, cacheService.getReferenceDataVersion(), REFERENCE_CACHE, () -> {
+            DriverBundle bundle = driverBundleService.getReferenceBundle(driverId);
+            return bundle != null ? ResponseEntity.ok(bundle) : ResponseEntity.notFound().build();
+        });
+    }
+
+    /**
+     * Driver info, laps, stints and summary for a car in an OpenF1 session in one response.
+     */
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/bundle")
+    public ResponseEntity<DriverBundle> getSessionBundle(@PathVariable int sessionKey,
+                                                         @PathVariable int driverNumber,
+                                                         WebRequest request) {
+        DriverBundle bundle = driverBundleService.getSessionBundle(sessionKey, driverNumber);
+        if (bundle == null) {
+            return ResponseEntity.notFound().build();
         }
         
-        return ResponseEntity.notFound().build();
+        // The bundle changes whenever any of its parts is refreshed
+        String seriesKey = DataCacheService.seriesKey(sessionKey, driverNumber);
+        long version = Math.max(cacheService.getLapDataVersion(seriesKey),
+                Math.max(cacheService.getStintsVersion(seriesKey), cacheService.getDriversVersion(String.valueOf(sessionKey))));
+        return conditional(request, version, sessionCache(sessionKey), () -> ResponseEntity.ok(bundle));
     }
 
-    @GetMapping("/drivers/{driverId}/laps")
-    public ResponseEntity<List<LapData>> getDriverLaps(@PathVariable String driverId) {
-        List<LapData> allLaps = f1DataService.getAllLapData();
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/laps")
+    public ResponseEntity<SeriesPage<LapData>> getSessionLaps(
+            @PathVariable int sessionKey,
+            @PathVariable int driverNumber,
+            @RequestParam(required = false) Integer from,
+            @RequestParam(required = false) Integer to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        TimeSeries<LapData> laps = f1DataService.getSessionLaps(sessionKey, driverNumber);
+        long version = cacheService.getLapDataVersion(DataCacheService.seriesKey(sessionKey, driverNumber));
+        return conditional(request, version, sessionCache(sessionKey),
+                () -> lapRange(laps, from, to, start, end, cursor, limit));
+    }
+
+    private ResponseEntity<SeriesPage<LapData>> lapRange(TimeSeries<LapData> laps, Integer from, Integer to,
+                                                         OffsetDateTime start, OffsetDateTime end,
+                                                         String cursor, Integer limit) {
+        // Lap range on the primary key, then narrow by lap start time (laps start in lap order)
+        int lo = from != null ? laps.lowerBound(from) : 0;
+        int hi = to != null ? laps.upperBound(to) : laps.size();
+        if (start != null) {
+            lo = Math.max(lo, laps.lowerBound(LapData::dateStartMillis, start.toInstant().toEpochMilli()));
+        }
+        if (end != null) {
+            hi = Math.min(hi, laps.lowerBound(LapData::dateStartMillis, end.toInstant().toEpochMilli() + 1));
+        }
+        
+        return page(laps, lo, hi, cursor, limit);
+    }
+
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/car_data")
+    public ResponseEntity<SeriesPage<CarData>> getCarData(
+            @PathVariable int sessionKey,
+            @PathVariable int driverNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        CarDataSeries series = f1DataService.getCarData(sessionKey, driverNumber);
+        long version = cacheService.getCarDataVersion(DataCacheService.seriesKey(sessionKey, driverNumber));
+        return conditional(request, version, sessionCache(sessionKey), () -> {
+            int lo = start != null ? series.lowerBound(start.toInstant().toEpochMilli()) : 0;
+            int hi = end != null ? series.upperBound(end.toInstant().toEpochMilli()) : series.size();
+            try {
+                return ResponseEntity.ok(series.page(lo, hi, cursor, pageSize(limit)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/telemetry")
+    public ResponseEntity<TelemetryPoints> getTelemetry(
+            @PathVariable int sessionKey,
+            @PathVariable int driverNumber,
+            @RequestParam(defaultValue = "speed") String channel,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = TelemetryService.METHOD_LTTB) String method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+            WebRequest request) {
+        TelemetryChannel telemetryChannel = TelemetryChannel.fromName(channel);
+        if (telemetryChannel == null
+                || !(TelemetryService.METHOD_LTTB.equals(method) || TelemetryService.METHOD_MINMAX.equals(method))) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        // Filter laps for the specific driver
-        List<LapData> driverLaps = allLaps.stream()
-                .filter(lap -> lap.getDriverId().equals(driverId))
-                .collect(Collectors.toList());
+        int pointCount = points != null ? Math.max(3, Math.min(points, MAX_CHART_POINTS)) : DEFAULT_CHART_POINTS;
+        Long startMillis = start != null ? start.toInstant().toEpochMilli() : null;
+        Long endMillis = end != null ? end.toInstant().toEpochMilli() : null;
         
-        return ResponseEntity.ok(driverLaps);
+        // Load the series first so the version reflects what will be sampled
+        f1DataService.getCarData(sessionKey, driverNumber);
+        long version = cacheService.getCarDataVersion(DataCacheService.seriesKey(sessionKey, driverNumber));
+        return conditional(request, version, sessionCache(sessionKey),
+                () -> ResponseEntity.ok(telemetryService.getTelemetry(sessionKey, driverNumber, telemetryChannel,
+                        method, pointCount, startMillis, endMillis)));
+    }
+
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/location")
+    public ResponseEntity<SeriesPage<Location>> getLocations(
+            @PathVariable int sessionKey,
+            @PathVariable int driverNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        LocationSeries series = f1DataService.getLocations(sessionKey, driverNumber);
+        long version = cacheService.getLocationDataVersion(DataCacheService.seriesKey(sessionKey, driverNumber));
+        return conditional(request, version, sessionCache(sessionKey), () -> {
+            int lo = start != null ? series.lowerBound(start.toInstant().toEpochMilli()) : 0;
+            int hi = end != null ? series.upperBound(end.toInstant().toEpochMilli()) : series.size();
+            try {
+                return ResponseEntity.ok(series.page(lo, hi, cursor, pageSize(limit)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    @GetMapping("/sessions/{sessionKey}/drivers/{driverNumber}/intervals")
+    public ResponseEntity<SeriesPage<Interval>> getIntervals(
+            @PathVariable int sessionKey,
+            @PathVariable int driverNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        TimeSeries<Interval> series = f1DataService.getIntervals(sessionKey, driverNumber);
+        long version = cacheService.getIntervalsVersion(DataCacheService.seriesKey(sessionKey, driverNumber));
+        return conditional(request, version, sessionCache(sessionKey),
+                () -> timeWindow(series, start, end, cursor, limit));
+    }
+
+    /**
+     * Every car's interpolated position, lap, gap and running order at time t
+     */
+    @GetMapping("/sessions/{sessionKey}/snapshot")
+    public ResponseEntity<SessionSnapshot> getSnapshot(
+            @PathVariable int sessionKey,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime t,
+            WebRequest request) {
+        // The ETag is the version of the data this index was built from
+        SessionTimeIndex index = sessionTimeService.getIndex(sessionKey);
+        return conditional(request, index.getVersion(), sessionCache(sessionKey),
+                () -> ResponseEntity.ok(index.snapshotAt(t.toInstant().toEpochMilli())));
+    }
+
+    /**
+     * Slice an epoch-keyed series to the inclusive [start, end] window and page it
+     */
+    private <T> ResponseEntity<SeriesPage<T>> timeWindow(TimeSeries<T> series, OffsetDateTime start,
+                                                         OffsetDateTime end, String cursor, Integer limit) {
+        int lo = start != null ? series.lowerBound(start.toInstant().toEpochMilli()) : 0;
+        int hi = end != null ? series.upperBound(end.toInstant().toEpochMilli()) : series.size();
+        return page(series, lo, hi, cursor, limit);
+    }
+
+    private <T> ResponseEntity<SeriesPage<T>> page(TimeSeries<T> series, int lo, int hi, String cursor, Integer limit) {
+        try {
+            return ResponseEntity.ok(series.page(lo, hi, cursor, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Answer 304 Not Modified when the client's ETag matches, without building or
+     * serializing the body; otherwise tag the response with a strong ETag derived from
+     * the data version and the request's parameters and Accept header. Version 0
+     * means the data is not cached, so no ETag is sent.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, long version, CacheControl cacheControl,
+                                              Supplier<ResponseEntity<T>> response) {
+        if (version == 0) {
+            ResponseEntity<T> result = response.get();
+            return ResponseEntity.status(result.getStatusCode())
+                    .cacheControl(LIVE_SESSION_CACHE)
+                    .body(result.getBody());
+        }
+
+        String etag = "\"" + Long.toString(version, 36) + "-" + Integer.toHexString(variantHash(request)) + "\"";
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+
+        ResponseEntity<T> result = response.get();
+        if (!result.getStatusCode().is2xxSuccessful()) {
+            return result;
+        }
+        return ResponseEntity.status(result.getStatusCode())
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(result.getBody());
+    }
+
+    private CacheControl sessionCache(int sessionKey) {
+        return f1DataService.isSessionFinished(sessionKey) ? FINISHED_SESSION_CACHE : LIVE_SESSION_CACHE;
+    }
+
+    /**
+     * Hash of everything besides the data version that shapes the response body
+     */
+    private static int variantHash(WebRequest request) {
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        int hash = String.valueOf(request.getHeader(HttpHeaders.ACCEPT)).hashCode();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            hash = 31 * hash + parameter.getKey().hashCode();
+            hash = 31 * hash + Arrays.hashCode(parameter.getValue());
+        }
+        return hash;
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.f1.dashboard.controller;
+
+import com.f1.dashboard.service.LiveFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api")
+public class LiveFeedController {
+
+    private final LiveFeedService liveFeedService;
+
+    @Autowired
+    public LiveFeedController(LiveFeedService liveFeedService) {
+        this.liveFeedService = liveFeedService;
+    }
+
+    /**
+     * Server-Sent Events stream of "position", "interval" and "lap" deltas for a session
+     */
+    @GetMapping(path = "/sessions/{sessionKey}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSession(@PathVariable int sessionKey) {
+        return liveFeedService.subscribe(sessionKey);
+    }
+}
@@ -0,0 +1,52 @@
+package com.f1.dashboard.controller;
+
+import com.f1.dashboard.model.AdmissionStats;
+import com.f1.dashboard.model.StoreStats;
+import com.f1.dashboard.service.AdmissionControlService;
+import com.f1.dashboard.service.DataCacheService;
+import com.f1.dashboard.util.LocationStore;
+import com.f1.dashboard.util.TelemetryStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final AdmissionControlService admissionControlService;
+    private final DataCacheService cacheService;
+
+    @Autowired
+    public MetricsController(AdmissionControlService admissionControlService, DataCacheService cacheService) {
+        this.admissionControlService = admissionControlService;
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * Current adaptive limit, in-flight count and accept/reject totals per priority class
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<List<AdmissionStats>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControlService.getStats());
+    }
+
+    /**
+     * Memory held by the car_data and location stores, on and off the heap
+     */
+    @GetMapping("/stores")
+    public ResponseEntity<List<StoreStats>> getStoreStats() {
+        TelemetryStore carData = cacheService.getCarDataStore();
+        LocationStore locations = cacheService.getLocationStore();
+        return ResponseEntity.ok(Arrays.asList(
+                new StoreStats("car_data", carData.getSeriesCount(), carData.getSampleCount(),
+                        carData.getMemoryBytes(), 0),
+                new StoreStats("location", locations.getSessionCount(), locations.getRecordCount(),
+                        0, locations.getOffHeapBytes())));
+    }
+}
@@ -0,0 +1,50 @@
+package com.f1.dashboard.controller;
+
+import com.f1.dashboard.service.PositionFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * WebSocket endpoint streaming binary position frames: /ws/positions?sessionKey=...
+ * See PositionFrameEncoder for the frame layout.
+ */
+@Component
+public class PositionFeedHandler extends BinaryWebSocketHandler {
+
+    private static final String SESSION_KEY_ATTRIBUTE = "sessionKey";
+
+    private final PositionFeedService positionFeedService;
+
+    @Autowired
+    public PositionFeedHandler(PositionFeedService positionFeedService) {
+        this.positionFeedService = positionFeedService;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String sessionKey = session.getUri() == null ? null : UriComponentsBuilder.fromUri(session.getUri())
+                .build()
+                .getQueryParams()
+                .getFirst(SESSION_KEY_ATTRIBUTE);
+
+        try {
+            int key = Integer.parseInt(sessionKey);
+            session.getAttributes().put(SESSION_KEY_ATTRIBUTE, key);
+            positionFeedService.addViewer(key, session);
+        } catch (NumberFormatException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("sessionKey query parameter is required"));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Object sessionKey = session.getAttributes().get(SESSION_KEY_ATTRIBUTE);
+        if (sessionKey != null) {
+            positionFeedService.removeViewer((Integer) sessionKey, session);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.f1.dashboard.controller;
+
+import com.f1.dashboard.config.FieldProjection;
+import com.f1.dashboard.service.SessionBatchService;
+import com.f1.dashboard.service.SessionBatchService.DriverRange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-driver endpoints that return every requested driver's series in one
+ * streamed JSON object keyed by driver number
+ */
+@RestController
+@RequestMapping("/api")
+public class SessionBatchController {
+
+    private final SessionBatchService sessionBatchService;
+    private final FieldProjection fieldProjection;
+
+    @Autowired
+    public SessionBatchController(SessionBatchService sessionBatchService, FieldProjection fieldProjection) {
+        this.sessionBatchService = sessionBatchService;
+        this.fieldProjection = fieldProjection;
+    }
+
+    /**
+     * Laps for several drivers, e.g. ?drivers=1,44:10-20,16&from=5. A range after a
+     * driver number overrides the from/to lap range for that driver.
+     */
+    @GetMapping("/sessions/{sessionKey}/laps")
+    public ResponseEntity<StreamingResponseBody> getLaps(@PathVariable int sessionKey,
+                                                         @RequestParam String drivers,
+                                                         @RequestParam(required = false) Integer from,
+                                                         @RequestParam(required = false) Integer to,
+                                                         @RequestParam(required = false) String fields) {
+        List<DriverRange> ranges = parseDrivers(drivers, from, to);
+        if (ranges == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        FilterProvider filters;
+        try {
+            filters = fields != null && !fields.isEmpty() ? fieldProjection.filtersFor(fields) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> sessionBatchService.streamLaps(sessionKey, ranges, filters, out));
+    }
+
+    @GetMapping("/sessions/{sessionKey}/summaries")
+    public ResponseEntity<StreamingResponseBody> getSummaries(@PathVariable int sessionKey,
+                                                              @RequestParam String drivers,
+                                                              @RequestParam(required = false) String fields) {
+        List<DriverRange> ranges = parseDrivers(drivers, null, null);
+        if (ranges == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        FilterProvider filters;
+        try {
+            filters = fields != null && !fields.isEmpty() ? fieldProjection.filtersFor(fields) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> sessionBatchService.streamSummaries(sessionKey, ranges, filters, out));
+    }
+
+    /**
+     * Parse "1,44:10-20" into driver ranges; null if malformed, empty or over the batch cap
+     */
+    private List<DriverRange> parseDrivers(String drivers, Integer from, Integer to) {
+        Map<Integer, DriverRange> ranges = new LinkedHashMap<>();
+        try {
+            for (String token : drivers.split(",")) {
+                String spec = token.trim();
+                if (spec.isEmpty()) {
+                    continue;
+                }
+                
+                int separator = spec.indexOf(':');
+                if (separator < 0) {
+                    int driverNumber = Integer.parseInt(spec);
+                    ranges.putIfAbsent(driverNumber, new DriverRange(driverNumber, from, to));
+                    continue;
+                }
+                
+                int driverNumber = Integer.parseInt(spec.substring(0, separator));
+                String[] laps = spec.substring(separator + 1).split("-", -1);
+                if (laps.length != 2) {
+                    return null;
+                }
+                Integer fromLap = laps[0].isEmpty() ? null : Integer.valueOf(laps[0]);
+                Integer toLap = laps[1].isEmpty() ? null : Integer.valueOf(laps[1]);
+                ranges.putIfAbsent(driverNumber, new DriverRange(driverNumber, fromLap, toLap));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        if (ranges.isEmpty() || ranges.size() > sessionBatchService.getMaxDrivers()) {
+            return null;
+        }
+        return new ArrayList<>(ranges.values());
+    }
+}
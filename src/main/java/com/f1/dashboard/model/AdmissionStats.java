@@ -0,0 +1,47 @@
+package com.f1.dashboard.model;
+
+/**
+ * Current admission limit and counters for one priority class
+ */
+public class AdmissionStats {
+    private final String priority;
+    private final int limit;
+    private final int inFlight;
+    private final long accepted;
+    private final long rejected;
+    private final long targetLatencyMs;
+
+    public AdmissionStats(String priority, int limit, int inFlight, long accepted, long rejected,
+                          long targetLatencyMs) {
+        this.priority = priority;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.targetLatencyMs = targetLatencyMs;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getTargetLatencyMs() {
+        return targetLatencyMs;
+    }
+}
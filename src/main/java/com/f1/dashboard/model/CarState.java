@@ -0,0 +1,117 @@
+package com.f1.dashboard.model;
+
+/**
+ * Where one car was at a given instant. Position values are interpolated between
+ * the surrounding location samples; lap, gap and interval are the latest known
+ * values at that instant and are null before the first one.
+ */
+public class CarState {
+    private int driverNumber;
+    private String nameAcronym;
+    private String teamName;
+    private int position;
+    private Integer x;
+    private Integer y;
+    private Integer z;
+    private Integer lapNumber;
+    private Double lapFraction;
+    private Double gapToLeader;
+    private Double interval;
+
+    public CarState() {
+    }
+
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+
+    public void setDriverNumber(int driverNumber) {
+        this.driverNumber = driverNumber;
+    }
+
+    public String getNameAcronym() {
+        return nameAcronym;
+    }
+
+    public void setNameAcronym(String nameAcronym) {
+        this.nameAcronym = nameAcronym;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    public void setTeamName(String teamName) {
+        this.teamName = teamName;
+    }
+
+    /**
+     * Running order by lap progress, 1 for the leader
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public Integer getX() {
+        return x;
+    }
+
+    public void setX(Integer x) {
+        this.x = x;
+    }
+
+    public Integer getY() {
+        return y;
+    }
+
+    public void setY(Integer y) {
+        this.y = y;
+    }
+
+    public Integer getZ() {
+        return z;
+    }
+
+    public void setZ(Integer z) {
+        this.z = z;
+    }
+
+    public Integer getLapNumber() {
+        return lapNumber;
+    }
+
+    public void setLapNumber(Integer lapNumber) {
+        this.lapNumber = lapNumber;
+    }
+
+    /**
+     * Share of the current lap completed, from 0 up to but excluding 1
+     */
+    public Double getLapFraction() {
+        return lapFraction;
+    }
+
+    public void setLapFraction(Double lapFraction) {
+        this.lapFraction = lapFraction;
+    }
+
+    public Double getGapToLeader() {
+        return gapToLeader;
+    }
+
+    public void setGapToLeader(Double gapToLeader) {
+        this.gapToLeader = gapToLeader;
+    }
+
+    public Double getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Double interval) {
+        this.interval = interval;
+    }
+}
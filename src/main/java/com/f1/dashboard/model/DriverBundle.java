@@ -0,0 +1,48 @@
+package com.f1.dashboard.model;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard needs to render one driver, returned in a single response
+ */
+public class DriverBundle {
+    private Driver driver;
+    private List<LapData> laps;
+    private List<Stint> stints;
+    private DriverSummary summary;
+    
+    public DriverBundle() {
+    }
+    
+    public Driver getDriver() {
+        return driver;
+    }
+    
+    public void setDriver(Driver driver) {
+        this.driver = driver;
+    }
+    
+    public List<LapData> getLaps() {
+        return laps;
+    }
+    
+    public void setLaps(List<LapData> laps) {
+        this.laps = laps;
+    }
+    
+    public List<Stint> getStints() {
+        return stints;
+    }
+    
+    public void setStints(List<Stint> stints) {
+        this.stints = stints;
+    }
+    
+    public DriverSummary getSummary() {
+        return summary;
+    }
+    
+    public void setSummary(DriverSummary summary) {
+        this.summary = summary;
+    }
+}
@@ -0,0 +1,65 @@
+package com.f1.dashboard.model;
+
+/**
+ * Headline figures for one driver's session, computed from their laps and stints
+ */
+public class DriverSummary {
+    private int lapCount;
+    private int fastestLapNumber;
+    // Lap times in seconds
+    private double fastestLapTime;
+    private double averageLapTime;
+    private int topSpeed;
+    private int pitStops;
+    
+    public DriverSummary() {
+    }
+    
+    public int getLapCount() {
+        return lapCount;
+    }
+    
+    public void setLapCount(int lapCount) {
+        this.lapCount = lapCount;
+    }
+    
+    public int getFastestLapNumber() {
+        return fastestLapNumber;
+    }
+    
+    public void setFastestLapNumber(int fastestLapNumber) {
+        this.fastestLapNumber = fastestLapNumber;
+    }
+    
+    public double getFastestLapTime() {
+        return fastestLapTime;
+    }
+    
+    public void setFastestLapTime(double fastestLapTime) {
+        this.fastestLapTime = fastestLapTime;
+    }
+    
+    public double getAverageLapTime() {
+        return averageLapTime;
+    }
+    
+    public void setAverageLapTime(double averageLapTime) {
+        this.averageLapTime = averageLapTime;
+    }
+    
+    public int getTopSpeed() {
+        return topSpeed;
+    }
+    
+    public void setTopSpeed(int topSpeed) {
+        this.topSpeed = topSpeed;
+    }
+    
+    public int getPitStops() {
+        return pitStops;
+    }
+    
+    public void setPitStops(int pitStops) {
+        this.pitStops = pitStops;
+    }
+}
@@ -1,244 +1,380 @@
 package com.f1.dashboard.model;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * One lap, immutable and compact. Durations are held as int milliseconds and speeds
+ * as shorts (average speed in tenths of km/h); the start time is epoch millis. The
+ * JSON view is unchanged: seconds, the "M:SS.mmm" lap time, the start date and the
+ * segment lists are all derived on demand, so nothing is parsed or formatted twice.
+ * Sector times are stored once and served both as milliseconds (sectorNTime) and
+ * seconds (durationSectorN). Build instances with {@link #builder()}.
+ */
+public final class LapData {
+
+    /** Stored when a lap has no start time; sorts before every real timestamp */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final long dateStartMillis;
+    private final int meetingKey;
+    private final int sessionKey;
+    private final int lapDurationMillis;
+    private final int sector1Millis;
+    private final int sector2Millis;
+    private final int sector3Millis;
+    private final short driverNumber;
+    private final short lapNumber;
+    private final short position;
+    private final short speedTenths;
+    private final short i1Speed;
+    private final short i2Speed;
+    private final short stSpeed;
+    private final boolean pitOutLap;
+    private final String driverId;
+    private final String compound;
+    private final short[] segmentsSector1;
+    private final short[] segmentsSector2;
+    private final short[] segmentsSector3;
+
+    private LapData(Builder builder) {
+        this.dateStartMillis = builder.dateStartMillis;
+        this.meetingKey = builder.meetingKey;
+        this.sessionKey = builder.sessionKey;
+        this.lapDurationMillis = builder.lapDurationMillis;
+        this.sector1Millis = builder.sector1Millis;
+        this.sector2Millis = builder.sector2Millis;
+        this.sector3Millis = builder.sector3Millis;
+        this.driverNumber = (short) builder.driverNumber;
+        this.lapNumber = (short) builder.lapNumber;
+        this.position = (short) builder.position;
+        this.speedTenths = clampToShort(Math.round(builder.speed * 10));
+        this.i1Speed = clampToShort(builder.i1Speed);
+        this.i2Speed = clampToShort(builder.i2Speed);
+        this.stSpeed = clampToShort(builder.stSpeed);
+        this.pitOutLap = builder.pitOutLap;
+        this.driverId = builder.driverId;
+        this.compound = builder.compound;
+        this.segmentsSector1 = builder.segmentsSector1;
+        this.segmentsSector2 = builder.segmentsSector2;
+        this.segmentsSector3 = builder.segmentsSector3;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
 
-public class LapData {
-    // Fields for API implementation
-    private int driverNumber;
-    private int meetingKey;
-    private int sessionKey;
-    private OffsetDateTime dateStart;
-    private double lapDuration;
-    
-    // Common fields
-    private String driverId;
-    private int lapNumber;
-    private String lapTime;
-    private int position;
-    private double speed;
-    private String compound;
-    private int sector1Time;
-    private int sector2Time;
-    private int sector3Time;
-    private double durationSector1;
-    private double durationSector2;
-    private double durationSector3;
-    private int i1Speed;
-    private int i2Speed;
-    private int stSpeed;
-    private boolean isPitOutLap;
-    private List<Integer> segmentsSector1;
-    private List<Integer> segmentsSector2;
-    private List<Integer> segmentsSector3;
-
-    public LapData() {
-    }
-
-    public LapData(String driverId, int lapNumber, String lapTime, int position, double speed, String compound, 
-                  int sector1Time, int sector2Time, int sector3Time) {
-        this.driverId = driverId;
-        this.lapNumber = lapNumber;
-        this.lapTime = lapTime;
-        this.position = position;
-        this.speed = speed;
-        this.compound = compound;
-        this.sector1Time = sector1Time;
-        this.sector2Time = sector2Time;
-        this.sector3Time = sector3Time;
-    }
-    
-    // Getters and setters for API implementation
     public int getDriverNumber() {
         return driverNumber;
     }
 
-    public void setDriverNumber(int driverNumber) {
-        this.driverNumber = driverNumber;
-    }
-
     public int getMeetingKey() {
         return meetingKey;
     }
 
-    public void setMeetingKey(int meetingKey) {
-        this.meetingKey = meetingKey;
-    }
-
     public int getSessionKey() {
         return sessionKey;
     }
 
-    public void setSessionKey(int sessionKey) {
-        this.sessionKey = sessionKey;
-    }
-    
     public OffsetDateTime getDateStart() {
-        return dateStart;
+        return dateStartMillis != NO_DATE ? Instant.ofEpochMilli(dateStartMillis).atOffset(ZoneOffset.UTC) : null;
     }
 
-    public void setDateStart(OffsetDateTime dateStart) {
-        this.dateStart = dateStart;
+    /**
+     * Start time in epoch millis, or {@link #NO_DATE}
+     */
+    public long dateStartMillis() {
+        return dateStartMillis;
     }
 
     public double getLapDuration() {
-        return lapDuration;
+        return lapDurationMillis / 1000.0;
     }
 
-    public void setLapDuration(double lapDuration) {
-        this.lapDuration = lapDuration;
+    /**
+     * Lap duration in milliseconds, 0 if the lap was not timed
+     */
+    public int lapDurationMillis() {
+        return lapDurationMillis;
     }
 
-    // Getters and setters for common fields
     public String getDriverId() {
         return driverId;
     }
 
-    public void setDriverId(String driverId) {
-        this.driverId = driverId;
-    }
-
     public int getLapNumber() {
         return lapNumber;
     }
 
-    public void setLapNumber(int lapNumber) {
-        this.lapNumber = lapNumber;
-    }
-
+    /**
+     * The lap duration as "M:SS.mmm", formatted on each call; null if the lap was not timed
+     */
     public String getLapTime() {
-        return lapTime;
-    }
-
-    public void setLapTime(String lapTime) {
-        this.lapTime = lapTime;
+        return lapDurationMillis > 0 ? formatLapTime(lapDurationMillis) : null;
     }
 
     public int getPosition() {
         return position;
     }
 
-    public void setPosition(int position) {
-        this.position = position;
-    }
-
     public double getSpeed() {
-        return speed;
-    }
-
-    public void setSpeed(double speed) {
-        this.speed = speed;
+        return speedTenths / 10.0;
     }
 
     public String getCompound() {
         return compound;
     }
 
-    public void setCompound(String compound) {
-        this.compound = compound;
-    }
-
     public int getSector1Time() {
-        return sector1Time;
-    }
-
-    public void setSector1Time(int sector1Time) {
-        this.sector1Time = sector1Time;
+        return sector1Millis;
     }
 
     public int getSector2Time() {
-        return sector2Time;
-    }
-
-    public void setSector2Time(int sector2Time) {
-        this.sector2Time = sector2Time;
+        return sector2Millis;
     }
 
     public int getSector3Time() {
-        return sector3Time;
-    }
-
-    public void setSector3Time(int sector3Time) {
-        this.sector3Time = sector3Time;
+        return sector3Millis;
     }
 
     public double getDurationSector1() {
-        return durationSector1;
-    }
-
-    public void setDurationSector1(double durationSector1) {
-        this.durationSector1 = durationSector1;
+        return sector1Millis / 1000.0;
     }
 
     public double getDurationSector2() {
-        return durationSector2;
-    }
-
-    public void setDurationSector2(double durationSector2) {
-        this.durationSector2 = durationSector2;
+        return sector2Millis / 1000.0;
     }
 
     public double getDurationSector3() {
-        return durationSector3;
-    }
-
-    public void setDurationSector3(double durationSector3) {
-        this.durationSector3 = durationSector3;
+        return sector3Millis / 1000.0;
     }
 
     public int getI1Speed() {
         return i1Speed;
     }
 
-    public void setI1Speed(int i1Speed) {
-        this.i1Speed = i1Speed;
-    }
-
     public int getI2Speed() {
         return i2Speed;
     }
 
-    public void setI2Speed(int i2Speed) {
-        this.i2Speed = i2Speed;
-    }
-
     public int getStSpeed() {
         return stSpeed;
     }
 
-    public void setStSpeed(int stSpeed) {
-        this.stSpeed = stSpeed;
-    }
-
     public boolean isPitOutLap() {
-        return isPitOutLap;
-    }
-
-    public void setIsPitOutLap(boolean isPitOutLap) {
-        this.isPitOutLap = isPitOutLap;
+        return pitOutLap;
     }
 
     public List<Integer> getSegmentsSector1() {
-        return segmentsSector1;
-    }
-
-    public void setSegmentsSector1(List<Integer> segmentsSector1) {
-        this.segmentsSector1 = segmentsSector1;
+        return segmentsSector1 != null ? new Segments(segmentsSector1) : null;
     }
 
     public List<Integer> getSegmentsSector2() {
-        return segmentsSector2;
-    }
-
-    public void setSegmentsSector2(List<Integer> segmentsSector2) {
-        this.segmentsSector2 = segmentsSector2;
+        return segmentsSector2 != null ? new Segments(segmentsSector2) : null;
     }
 
     public List<Integer> getSegmentsSector3() {
-        return segmentsSector3;
-    }
-
-    public void setSegmentsSector3(List<Integer> segmentsSector3) {
-        this.segmentsSector3 = segmentsSector3;
-    }
-}
\ No newline at end of file
+        return segmentsSector3 != null ? new Segments(segmentsSector3) : null;
+    }
+
+    /**
+     * Milliseconds as "M:SS.mmm"
+     */
+    public static String formatLapTime(int millis) {
+        int minutes = millis / 60_000;
+        int seconds = millis / 1000 % 60;
+        int fraction = millis % 1000;
+        StringBuilder text = new StringBuilder(9).append(minutes).append(':');
+        if (seconds < 10) {
+            text.append('0');
+        }
+        text.append(seconds).append('.');
+        if (fraction < 100) {
+            text.append('0');
+        }
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    private static short clampToShort(long value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+
+    /**
+     * Read-only boxed view over a segment array, created only when serialized
+     */
+    private static final class Segments extends AbstractList<Integer> implements RandomAccess {
+        private final short[] values;
+
+        Segments(short[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return (int) values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    public static final class Builder {
+        private long dateStartMillis = NO_DATE;
+        private int meetingKey;
+        private int sessionKey;
+        private int lapDurationMillis;
+        private int sector1Millis;
+        private int sector2Millis;
+        private int sector3Millis;
+        private int driverNumber;
+        private int lapNumber;
+        private int position;
+        private double speed;
+        private int i1Speed;
+        private int i2Speed;
+        private int stSpeed;
+        private boolean pitOutLap;
+        private String driverId;
+        private String compound;
+        private short[] segmentsSector1;
+        private short[] segmentsSector2;
+        private short[] segmentsSector3;
+
+        private Builder() {
+        }
+
+        public Builder driverNumber(int driverNumber) {
+            this.driverNumber = driverNumber;
+            return this;
+        }
+
+        public Builder meetingKey(int meetingKey) {
+            this.meetingKey = meetingKey;
+            return this;
+        }
+
+        public Builder sessionKey(int sessionKey) {
+            this.sessionKey = sessionKey;
+            return this;
+        }
+
+        public Builder dateStart(OffsetDateTime dateStart) {
+            this.dateStartMillis = dateStart != null ? dateStart.toInstant().toEpochMilli() : NO_DATE;
+            return this;
+        }
+
+        public Builder lapDurationMillis(int lapDurationMillis) {
+            this.lapDurationMillis = lapDurationMillis;
+            return this;
+        }
+
+        /**
+         * Lap duration in seconds, as OpenF1 reports it
+         */
+        public Builder lapDuration(double seconds) {
+            return lapDurationMillis(toMillis(seconds));
+        }
+
+        public Builder sectorMillis(int sector1, int sector2, int sector3) {
+            this.sector1Millis = sector1;
+            this.sector2Millis = sector2;
+            this.sector3Millis = sector3;
+            return this;
+        }
+
+        public Builder durationSector1(double seconds) {
+            this.sector1Millis = toMillis(seconds);
+            return this;
+        }
+
+        public Builder durationSector2(double seconds) {
+            this.sector2Millis = toMillis(seconds);
+            return this;
+        }
+
+        public Builder durationSector3(double seconds) {
+            this.sector3Millis = toMillis(seconds);
+            return this;
+        }
+
+        public Builder driverId(String driverId) {
+            this.driverId = driverId;
+            return this;
+        }
+
+        public Builder lapNumber(int lapNumber) {
+            this.lapNumber = lapNumber;
+            return this;
+        }
+
+        public Builder position(int position) {
+            this.position = position;
+            return this;
+        }
+
+        /**
+         * Average speed in km/h; kept to a tenth
+         */
+        public Builder speed(double speed) {
+            this.speed = speed;
+            return this;
+        }
+
+        public Builder compound(String compound) {
+            this.compound = compound;
+            return this;
+        }
+
+        public Builder i1Speed(int i1Speed) {
+            this.i1Speed = i1Speed;
+            return this;
+        }
+
+        public Builder i2Speed(int i2Speed) {
+            this.i2Speed = i2Speed;
+            return this;
+        }
+
+        public Builder stSpeed(int stSpeed) {
+            this.stSpeed = stSpeed;
+            return this;
+        }
+
+        public Builder pitOutLap(boolean pitOutLap) {
+            this.pitOutLap = pitOutLap;
+            return this;
+        }
+
+        public Builder segmentsSector1(short[] segments) {
+            this.segmentsSector1 = segments;
+            return this;
+        }
+
+        public Builder segmentsSector2(short[] segments) {
+            this.segmentsSector2 = segments;
+            return this;
+        }
+
+        public Builder segmentsSector3(short[] segments) {
+            this.segmentsSector3 = segments;
+            return this;
+        }
+
+        public LapData build() {
+            return new LapData(this);
+        }
+
+        private static int toMillis(double seconds) {
+            return (int) Math.round(seconds * 1000);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.f1.dashboard.model;
+
+import java.time.OffsetDateTime;
+
+public class Position {
+    private OffsetDateTime date;
+    private int driverNumber;
+    private int meetingKey;
+    private int sessionKey;
+    private int position;
+    
+    public Position() {
+    }
+    
+    public OffsetDateTime getDate() {
+        return date;
+    }
+    
+    public void setDate(OffsetDateTime date) {
+        this.date = date;
+    }
+    
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+    
+    public void setDriverNumber(int driverNumber) {
+        this.driverNumber = driverNumber;
+    }
+    
+    public int getMeetingKey() {
+        return meetingKey;
+    }
+    
+    public void setMeetingKey(int meetingKey) {
+        this.meetingKey = meetingKey;
+    }
+    
+    public int getSessionKey() {
+        return sessionKey;
+    }
+    
+    public void setSessionKey(int sessionKey) {
+        this.sessionKey = sessionKey;
+    }
+    
+    public int getPosition() {
+        return position;
+    }
+    
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
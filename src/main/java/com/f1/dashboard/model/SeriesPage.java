@@ -0,0 +1,25 @@
+package com.f1.dashboard.model;
+
+import java.util.List;
+
+public class SeriesPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public SeriesPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getCount() {
+        return items.size();
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.f1.dashboard.model;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Every car's state in a session at one instant, in running order
+ */
+public class SessionSnapshot {
+    private final int sessionKey;
+    private final OffsetDateTime date;
+    private final List<CarState> cars;
+
+    public SessionSnapshot(int sessionKey, OffsetDateTime date, List<CarState> cars) {
+        this.sessionKey = sessionKey;
+        this.date = date;
+        this.cars = cars;
+    }
+
+    public int getSessionKey() {
+        return sessionKey;
+    }
+
+    public OffsetDateTime getDate() {
+        return date;
+    }
+
+    public List<CarState> getCars() {
+        return cars;
+    }
+}
@@ -0,0 +1,79 @@
+package com.f1.dashboard.model;
+
+public class Stint {
+    private int driverNumber;
+    private int meetingKey;
+    private int sessionKey;
+    private int stintNumber;
+    private String compound;
+    private int lapStart;
+    private int lapEnd;
+    private int tyreAgeAtStart;
+    
+    public Stint() {
+    }
+    
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+    
+    public void setDriverNumber(int driverNumber) {
+        this.driverNumber = driverNumber;
+    }
+    
+    public int getMeetingKey() {
+        return meetingKey;
+    }
+    
+    public void setMeetingKey(int meetingKey) {
+        this.meetingKey = meetingKey;
+    }
+    
+    public int getSessionKey() {
+        return sessionKey;
+    }
+    
+    public void setSessionKey(int sessionKey) {
+        this.sessionKey = sessionKey;
+    }
+    
+    public int getStintNumber() {
+        return stintNumber;
+    }
+    
+    public void setStintNumber(int stintNumber) {
+        this.stintNumber = stintNumber;
+    }
+    
+    public String getCompound() {
+        return compound;
+    }
+    
+    public void setCompound(String compound) {
+        this.compound = compound;
+    }
+    
+    public int getLapStart() {
+        return lapStart;
+    }
+    
+    public void setLapStart(int lapStart) {
+        this.lapStart = lapStart;
+    }
+    
+    public int getLapEnd() {
+        return lapEnd;
+    }
+    
+    public void setLapEnd(int lapEnd) {
+        this.lapEnd = lapEnd;
+    }
+    
+    public int getTyreAgeAtStart() {
+        return tyreAgeAtStart;
+    }
+    
+    public void setTyreAgeAtStart(int tyreAgeAtStart) {
+        this.tyreAgeAtStart = tyreAgeAtStart;
+    }
+}
@@ -0,0 +1,41 @@
+package com.f1.dashboard.model;
+
+/**
+ * Size of one in-memory series store. Off-heap bytes are not part of the Java heap
+ * and do not show up in GC logs or heap dumps.
+ */
+public class StoreStats {
+    private final String store;
+    private final int entries;
+    private final long samples;
+    private final long heapBytes;
+    private final long offHeapBytes;
+
+    public StoreStats(String store, int entries, long samples, long heapBytes, long offHeapBytes) {
+        this.store = store;
+        this.entries = entries;
+        this.samples = samples;
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.f1.dashboard.model;
+
+/**
+ * Numeric car_data channels that can be charted
+ */
+public enum TelemetryChannel {
+    SPEED("speed"),
+    RPM("rpm"),
+    THROTTLE("throttle"),
+    BRAKE("brake"),
+    GEAR("n_gear"),
+    DRS("drs");
+
+    private final String name;
+
+    TelemetryChannel(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Look up a channel by its OpenF1 field name, or null if there is none
+     */
+    public static TelemetryChannel fromName(String name) {
+        for (TelemetryChannel channel : values()) {
+            if (channel.name.equalsIgnoreCase(name)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+}
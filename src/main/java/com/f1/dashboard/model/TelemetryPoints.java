@@ -0,0 +1,47 @@
+package com.f1.dashboard.model;
+
+/**
+ * Downsampled telemetry for one channel, as parallel timestamp/value arrays
+ */
+public class TelemetryPoints {
+    private final String channel;
+    private final String method;
+    private final int sourceCount;
+    private final long[] timestamps;
+    private final int[] values;
+
+    public TelemetryPoints(String channel, String method, int sourceCount, long[] timestamps, int[] values) {
+        this.channel = channel;
+        this.method = method;
+        this.sourceCount = sourceCount;
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    public int getCount() {
+        return values.length;
+    }
+
+    /**
+     * Sample times in epoch milliseconds
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public int[] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,140 @@
+package com.f1.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import com.f1.dashboard.model.AdmissionStats;
+import com.f1.dashboard.util.AimdLimiter;
+
+/**
+ * Per-priority adaptive concurrency limits for the API. Cheap metadata calls are
+ * admitted first and telemetry last: when a class overloads, every lower class is
+ * cut as well, so heavy requests are shed before they can starve the light ones.
+ */
+@Service
+public class AdmissionControlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlService.class);
+
+    /**
+     * Priority classes, highest first
+     */
+    public enum Priority {
+        METADATA("metadata", 200, 1000, 250),
+        SERIES("series", 64, 256, 1000),
+        TELEMETRY("telemetry", 8, 64, 3000);
+
+        private final String name;
+        private final int defaultInitialLimit;
+        private final int defaultMaxLimit;
+        private final long defaultTargetLatencyMs;
+
+        Priority(String name, int defaultInitialLimit, int defaultMaxLimit, long defaultTargetLatencyMs) {
+            this.name = name;
+            this.defaultInitialLimit = defaultInitialLimit;
+            this.defaultMaxLimit = defaultMaxLimit;
+            this.defaultTargetLatencyMs = defaultTargetLatencyMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Long-lived streams and the metrics endpoint itself are never limited
+    private static final String[] EXEMPT = {"/api/sessions/*/live", "/api/metrics/**"};
+    private static final String[] METADATA = {"/api/races", "/api/races/*/drivers", "/api/drivers", "/api/drivers/*"};
+    private static final String[] TELEMETRY = {"/api/sessions/*/drivers/*/car_data", "/api/sessions/*/drivers/*/location",
+            "/api/sessions/*/drivers/*/telemetry", "/api/sessions/*/laps", "/api/sessions/*/snapshot"};
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<Priority, AimdLimiter> limiters = new EnumMap<>(Priority.class);
+    private final boolean enabled;
+
+    @Autowired
+    public AdmissionControlService(Environment environment) {
+        this.enabled = environment.getProperty("admission.enabled", Boolean.class, true);
+        double backoff = environment.getProperty("admission.backoff", Double.class, 0.8);
+
+        for (Priority priority : Priority.values()) {
+            String prefix = "admission." + priority.name + ".";
+            int initialLimit = environment.getProperty(prefix + "initial-limit", Integer.class,
+                    priority.defaultInitialLimit);
+            int maxLimit = environment.getProperty(prefix + "max-limit", Integer.class, priority.defaultMaxLimit);
+            long targetLatencyMs = environment.getProperty(prefix + "target-latency-ms", Long.class,
+                    priority.defaultTargetLatencyMs);
+            limiters.put(priority, new AimdLimiter(initialLimit, 1, maxLimit,
+                    TimeUnit.MILLISECONDS.toNanos(targetLatencyMs), backoff));
+        }
+    }
+
+    /**
+     * Priority class of an API path, or null if it is not subject to admission control
+     */
+    public Priority classify(String path) {
+        if (!enabled || !path.startsWith("/api/") || matchesAny(EXEMPT, path)) {
+            return null;
+        }
+        if (matchesAny(METADATA, path)) {
+            return Priority.METADATA;
+        }
+        if (matchesAny(TELEMETRY, path)) {
+            return Priority.TELEMETRY;
+        }
+        return Priority.SERIES;
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        return limiters.get(priority).tryAcquire();
+    }
+
+    public void release(Priority priority, long latencyNanos) {
+        if (limiters.get(priority).release(latencyNanos)) {
+            logger.debug("Admission limit for {} cut to {}", priority.name, limiters.get(priority).getLimit());
+
+            // Shed lower-priority work along with the overloaded class
+            for (Priority lower : Priority.values()) {
+                if (lower.ordinal() > priority.ordinal()) {
+                    limiters.get(lower).decrease();
+                }
+            }
+        }
+    }
+
+    /**
+     * Suggested Retry-After in seconds for a rejected request
+     */
+    public long retryAfterSeconds(Priority priority) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(limiters.get(priority).getTargetLatencyNanos()));
+    }
+
+    public List<AdmissionStats> getStats() {
+        List<AdmissionStats> stats = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            AimdLimiter limiter = limiters.get(priority);
+            stats.add(new AdmissionStats(priority.name, limiter.getLimit(), limiter.getInFlight(),
+                    limiter.getAccepted(), limiter.getRejected(),
+                    TimeUnit.NANOSECONDS.toMillis(limiter.getTargetLatencyNanos())));
+        }
+        return stats;
+    }
+
+    private boolean matchesAny(String[] patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
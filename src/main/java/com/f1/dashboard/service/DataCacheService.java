@@ -1,22 +1,31 @@
 package com.f1.dashboard.service;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.f1.dashboard.model.CarData;
 import com.f1.dashboard.model.Driver;
 import com.f1.dashboard.model.Interval;
 import com.f1.dashboard.model.LapData;
 import com.f1.dashboard.model.Location;
 import com.f1.dashboard.model.Meeting;
+import com.f1.dashboard.model.Stint;
+import com.f1.dashboard.util.CarDataSeries;
+import com.f1.dashboard.util.LocationSeries;
+import com.f1.dashboard.util.LocationStore;
+import com.f1.dashboard.util.TelemetryStore;
+import com.f1.dashboard.util.TimeSeries;
 
 /**
  * Service to manage caching of F1 data
@@ -29,14 +38,35 @@ public class DataCacheService {
     
     // Cache collections
     private List<Meeting> lastFiveMeetings = new ArrayList<>();
-    private final Map<Integer, List<Meeting>> meetingsByYear = new HashMap<>();
-    private final Map<String, List<LapData>> lapDataCache = new HashMap<>();
-    private final Map<String, List<Driver>> driversCache = new HashMap<>();
-    private final Map<String, List<Interval>> intervalsCache = new HashMap<>();
-    private final Map<String, List<Location>> locationCache = new HashMap<>();
+    private final Map<Integer, List<Meeting>> meetingsByYear = new ConcurrentHashMap<>();
+    private final Map<String, List<Driver>> driversCache = new ConcurrentHashMap<>();
+    
+    // Per-driver series, keyed by "sessionKey_driverNumber" and sorted for range lookups
+    private final Map<String, TimeSeries<LapData>> lapDataCache = new ConcurrentHashMap<>();
+    private final Map<String, TimeSeries<Interval>> intervalsCache = new ConcurrentHashMap<>();
+    private final Map<String, List<Stint>> stintsCache = new ConcurrentHashMap<>();
+    
+    // car_data is the bulk of a session, so it is kept in primitive columns
+    private final TelemetryStore carDataStore = new TelemetryStore();
+    
+    // Location samples are the largest dataset, so they are kept off-heap per session
+    private final LocationStore locationStore = new LocationStore();
+    
+    // End time of each known session; fixed once a session is scheduled
+    private final Map<Integer, OffsetDateTime> sessionEndCache = new ConcurrentHashMap<>();
+    
+    // Race session of each meeting looked up so far, by meeting key
+    private final Map<String, Integer> raceSessionCache = new ConcurrentHashMap<>();
     
     // Time when cache was last updated
-    private final Map<String, Long> cacheTimestamps = new HashMap<>();
+    private final Map<String, Long> cacheTimestamps = new ConcurrentHashMap<>();
+    
+    // Version of each cache entry, bumped on every write. The sequence starts from the
+    // startup time so versions handed out by an earlier run are never reused.
+    private final AtomicLong versionSequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<String, Long> cacheVersions = new ConcurrentHashMap<>();
+    
+    private static final String REFERENCE_DATA_KEY = "referenceData";
     
     // Cache durations in milliseconds
     private static final long MEETINGS_CACHE_DURATION = TimeUnit.HOURS.toMillis(24);
@@ -52,7 +82,7 @@ public class DataCacheService {
     
     public void cacheLastFiveMeetings(List<Meeting> meetings) {
         this.lastFiveMeetings = meetings;
-        cacheTimestamps.put("lastFiveMeetings", System.currentTimeMillis());
+        markCached("lastFiveMeetings");
     }
     
     public List<Meeting> getMeetingsByYear(int year) {
@@ -65,20 +95,27 @@ public class DataCacheService {
     
     public void cacheMeetingsByYear(int year, List<Meeting> meetings) {
         this.meetingsByYear.put(year, meetings);
-        cacheTimestamps.put("meetingsByYear_" + year, System.currentTimeMillis());
+        markCached("meetingsByYear_" + year);
+    }
+    
+    public static String seriesKey(int sessionKey, int driverNumber) {
+        return sessionKey + "_" + driverNumber;
     }
     
-    public List<LapData> getLapData(String cacheKey) {
+    /**
+     * Returns the cached lap series, or null if it is missing or expired
+     */
+    public TimeSeries<LapData> getLapData(String cacheKey) {
         Long timestamp = cacheTimestamps.get("lapData_" + cacheKey);
         if (timestamp == null || System.currentTimeMillis() - timestamp > RACE_DATA_CACHE_DURATION) {
-            return Collections.emptyList();
+            return null;
         }
-        return lapDataCache.getOrDefault(cacheKey, Collections.emptyList());
+        return lapDataCache.get(cacheKey);
     }
     
-    public void cacheLapData(String cacheKey, List<LapData> laps) {
+    public void cacheLapData(String cacheKey, TimeSeries<LapData> laps) {
         this.lapDataCache.put(cacheKey, laps);
-        cacheTimestamps.put("lapData_" + cacheKey, System.currentTimeMillis());
+        markCached("lapData_" + cacheKey);
     }
     
     public List<Driver> getDrivers(String cacheKey) {
@@ -91,33 +128,183 @@ public class DataCacheService {
     
     public void cacheDrivers(String cacheKey, List<Driver> drivers) {
         this.driversCache.put(cacheKey, drivers);
-        cacheTimestamps.put("drivers_" + cacheKey, System.currentTimeMillis());
+        markCached("drivers_" + cacheKey);
+    }
+    
+    /**
+     * Returns the cached car data series, or null if it is missing or expired
+     */
+    public CarDataSeries getCarData(int sessionKey, int driverNumber) {
+        Long timestamp = cacheTimestamps.get("carData_" + seriesKey(sessionKey, driverNumber));
+        if (timestamp == null || System.currentTimeMillis() - timestamp > RACE_DATA_CACHE_DURATION) {
+            return null;
+        }
+        return carDataStore.get(sessionKey, driverNumber);
+    }
+    
+    /**
+     * Returns the car data series even if it has expired, or null if it is missing
+     */
+    public CarDataSeries peekCarData(int sessionKey, int driverNumber) {
+        return carDataStore.get(sessionKey, driverNumber);
     }
     
-    public List<Interval> getIntervals(String cacheKey) {
+    public CarDataSeries cacheCarData(int sessionKey, int driverNumber, List<CarData> samples) {
+        CarDataSeries series = carDataStore.put(sessionKey, driverNumber, samples);
+        markCached("carData_" + seriesKey(sessionKey, driverNumber));
+        return series;
+    }
+    
+    /**
+     * Add newly recorded samples to a cached series. The version only changes
+     * when there is something new, so existing ETags stay valid otherwise.
+     */
+    public CarDataSeries appendCarData(int sessionKey, int driverNumber, List<CarData> samples) {
+        CarDataSeries series = carDataStore.append(sessionKey, driverNumber, samples);
+        String entryKey = "carData_" + seriesKey(sessionKey, driverNumber);
+        if (samples.isEmpty() && cacheVersions.containsKey(entryKey)) {
+            cacheTimestamps.put(entryKey, System.currentTimeMillis());
+        } else {
+            markCached(entryKey);
+        }
+        return series;
+    }
+    
+    /**
+     * Returns the cached interval series, or null if it is missing or expired
+     */
+    public TimeSeries<Interval> getIntervals(String cacheKey) {
         Long timestamp = cacheTimestamps.get("intervals_" + cacheKey);
         if (timestamp == null || System.currentTimeMillis() - timestamp > RACE_DATA_CACHE_DURATION) {
-            return Collections.emptyList();
+            return null;
         }
-        return intervalsCache.getOrDefault(cacheKey, Collections.emptyList());
+        return intervalsCache.get(cacheKey);
     }
     
-    public void cacheIntervals(String cacheKey, List<Interval> intervals) {
+    public void cacheIntervals(String cacheKey, TimeSeries<Interval> intervals) {
         this.intervalsCache.put(cacheKey, intervals);
-        cacheTimestamps.put("intervals_" + cacheKey, System.currentTimeMillis());
+        markCached("intervals_" + cacheKey);
     }
     
-    public List<Location> getLocationData(String cacheKey) {
-        Long timestamp = cacheTimestamps.get("location_" + cacheKey);
+    /**
+     * Returns the cached location series, or null if it is missing or expired
+     */
+    public LocationSeries getLocationData(int sessionKey, int driverNumber) {
+        Long timestamp = cacheTimestamps.get("location_" + seriesKey(sessionKey, driverNumber));
         if (timestamp == null || System.currentTimeMillis() - timestamp > RACE_DATA_CACHE_DURATION) {
-            return Collections.emptyList();
+            return null;
         }
-        return locationCache.getOrDefault(cacheKey, Collections.emptyList());
+        return locationStore.get(sessionKey, driverNumber);
+    }
+    
+    /**
+     * Returns the location series even if it has expired, or null if it is missing
+     */
+    public LocationSeries peekLocationData(int sessionKey, int driverNumber) {
+        return locationStore.get(sessionKey, driverNumber);
+    }
+    
+    public LocationSeries cacheLocationData(int sessionKey, int driverNumber, List<Location> samples) {
+        LocationSeries series = locationStore.put(sessionKey, driverNumber, samples);
+        markCached("location_" + seriesKey(sessionKey, driverNumber));
+        return series;
+    }
+    
+    /**
+     * Add newly recorded samples to a cached series; see appendCarData
+     */
+    public LocationSeries appendLocationData(int sessionKey, int driverNumber, List<Location> samples) {
+        String entryKey = "location_" + seriesKey(sessionKey, driverNumber);
+        if (samples.isEmpty() && cacheVersions.containsKey(entryKey)) {
+            cacheTimestamps.put(entryKey, System.currentTimeMillis());
+            return locationStore.get(sessionKey, driverNumber);
+        }
+        LocationSeries series = locationStore.append(sessionKey, driverNumber, samples);
+        markCached(entryKey);
+        return series;
+    }
+    
+    public TelemetryStore getCarDataStore() {
+        return carDataStore;
+    }
+    
+    public LocationStore getLocationStore() {
+        return locationStore;
+    }
+    
+    /**
+     * Returns the cached stints, or null if they are missing or expired
+     */
+    public List<Stint> getStints(String cacheKey) {
+        Long timestamp = cacheTimestamps.get("stints_" + cacheKey);
+        if (timestamp == null || System.currentTimeMillis() - timestamp > RACE_DATA_CACHE_DURATION) {
+            return null;
+        }
+        return stintsCache.get(cacheKey);
+    }
+    
+    public void cacheStints(String cacheKey, List<Stint> stints) {
+        this.stintsCache.put(cacheKey, stints);
+        markCached("stints_" + cacheKey);
+    }
+    
+    public OffsetDateTime getSessionEnd(int sessionKey) {
+        return sessionEndCache.get(sessionKey);
+    }
+    
+    public void cacheSessionEnd(int sessionKey, OffsetDateTime dateEnd) {
+        sessionEndCache.put(sessionKey, dateEnd);
+    }
+    
+    public Integer getRaceSessionKey(String meetingKey) {
+        return raceSessionCache.get(meetingKey);
+    }
+    
+    public void cacheRaceSessionKey(String meetingKey, int sessionKey) {
+        raceSessionCache.put(meetingKey, sessionKey);
+    }
+    
+    /**
+     * Record a change to data held outside this cache (races, drivers and laps
+     * served from the in-memory reference lists)
+     */
+    public void markReferenceDataUpdated() {
+        cacheVersions.put(REFERENCE_DATA_KEY, versionSequence.incrementAndGet());
+    }
+    
+    public long getReferenceDataVersion() {
+        return cacheVersions.getOrDefault(REFERENCE_DATA_KEY, 0L);
+    }
+    
+    // Series versions; 0 means the series is not cached
+    
+    public long getLapDataVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("lapData_" + cacheKey, 0L);
+    }
+    
+    public long getCarDataVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("carData_" + cacheKey, 0L);
+    }
+    
+    public long getIntervalsVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("intervals_" + cacheKey, 0L);
+    }
+    
+    public long getLocationDataVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("location_" + cacheKey, 0L);
+    }
+    
+    public long getStintsVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("stints_" + cacheKey, 0L);
+    }
+    
+    public long getDriversVersion(String cacheKey) {
+        return cacheVersions.getOrDefault("drivers_" + cacheKey, 0L);
     }
     
-    public void cacheLocationData(String cacheKey, List<Location> locations) {
-        this.locationCache.put(cacheKey, locations);
-        cacheTimestamps.put("location_" + cacheKey, System.currentTimeMillis());
+    private void markCached(String entryKey) {
+        cacheTimestamps.put(entryKey, System.currentTimeMillis());
+        cacheVersions.put(entryKey, versionSequence.incrementAndGet());
     }
     
     /**
@@ -139,6 +326,7 @@ public class DataCacheService {
         
         for (String key : meetingsToRemove) {
             cacheTimestamps.remove(key);
+            cacheVersions.remove(key);
             if (key.equals("lastFiveMeetings")) {
                 lastFiveMeetings.clear();
             } else if (key.startsWith("meetingsByYear_")) {
@@ -155,8 +343,8 @@ public class DataCacheService {
         // Clean race data cache
         List<String> raceDataToRemove = new ArrayList<>();
         for (String key : cacheTimestamps.keySet()) {
-            if ((key.startsWith("lapData_") || key.startsWith("drivers_") ||
-                 key.startsWith("intervals_") || key.startsWith("location_")) && 
+            if ((key.startsWith("lapData_") || key.startsWith("drivers_") || key.startsWith("carData_") ||
+                 key.startsWith("intervals_") || key.startsWith("location_") || key.startsWith("stints_")) && 
                 currentTime - cacheTimestamps.get(key) > RACE_DATA_CACHE_DURATION) {
                 raceDataToRemove.add(key);
             }
@@ -164,21 +352,32 @@ public class DataCacheService {
         
         for (String key : raceDataToRemove) {
             cacheTimestamps.remove(key);
+            cacheVersions.remove(key);
             if (key.startsWith("lapData_")) {
                 String cacheKey = key.substring("lapData_".length());
                 lapDataCache.remove(cacheKey);
             } else if (key.startsWith("drivers_")) {
                 String cacheKey = key.substring("drivers_".length());
                 driversCache.remove(cacheKey);
+            } else if (key.startsWith("carData_")) {
+                String[] parts = key.substring("carData_".length()).split("_");
+                carDataStore.remove(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
             } else if (key.startsWith("intervals_")) {
                 String cacheKey = key.substring("intervals_".length());
                 intervalsCache.remove(cacheKey);
             } else if (key.startsWith("location_")) {
-                String cacheKey = key.substring("location_".length());
-                locationCache.remove(cacheKey);
+                String[] parts = key.substring("location_".length()).split("_");
+                locationStore.remove(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+            } else if (key.startsWith("stints_")) {
+                String cacheKey = key.substring("stints_".length());
+                stintsCache.remove(cacheKey);
             }
         }
         
-        logger.info("Cleaned {} expired cache items", meetingsToRemove.size() + raceDataToRemove.size());
+        logger.info("Cleaned {} expired cache items; car data store holds {} samples in {} KB, "
+                + "location store {} samples in {} KB off-heap",
+                meetingsToRemove.size() + raceDataToRemove.size(), carDataStore.getSampleCount(),
+                carDataStore.getMemoryBytes() / 1024, locationStore.getRecordCount(),
+                locationStore.getOffHeapBytes() / 1024);
     }
 }
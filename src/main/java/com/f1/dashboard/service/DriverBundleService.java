@@ -0,0 +1,155 @@
+package com.f1.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.f1.dashboard.config.TaskExecutors;
+import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.DriverBundle;
+import com.f1.dashboard.model.DriverSummary;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Stint;
+
+/**
+ * Assembles a driver's info, laps, stints and summary for one response.
+ * The parts are loaded in parallel, so a cold bundle costs one upstream
+ * round-trip rather than three in sequence.
+ */
+@Service
+public class DriverBundleService implements DisposableBean {
+
+    private final F1DataService f1DataService;
+    private final ExecutorService executor;
+
+    @Autowired
+    public DriverBundleService(F1DataService f1DataService, TaskExecutors taskExecutors,
+                               @Value("${bundle.threads:8}") int threads) {
+        this.f1DataService = f1DataService;
+        this.executor = taskExecutors.newExecutor("bundle", threads);
+    }
+
+    /**
+     * Bundle for a driver in an OpenF1 session, or null if the driver is not in it
+     */
+    public DriverBundle getSessionBundle(int sessionKey, int driverNumber) {
+        CompletableFuture<List<Driver>> drivers =
+                CompletableFuture.supplyAsync(() -> f1DataService.getSessionDrivers(sessionKey), executor);
+        CompletableFuture<List<LapData>> laps = CompletableFuture.supplyAsync(
+                () -> f1DataService.getSessionLaps(sessionKey, driverNumber).items(), executor);
+        CompletableFuture<List<Stint>> stints =
+                CompletableFuture.supplyAsync(() -> f1DataService.getStints(sessionKey, driverNumber), executor);
+
+        Driver driver = drivers.join().stream()
+                .filter(candidate -> candidate.getDriverNumber() == driverNumber)
+                .findFirst()
+                .orElse(null);
+        if (driver == null) {
+            return null;
+        }
+
+        return bundle(driver, laps.join(), stints.join());
+    }
+
+    /**
+     * Summary of a driver's session from their cached laps and stints
+     */
+    public DriverSummary getSessionSummary(int sessionKey, int driverNumber) {
+        return summarize(f1DataService.getSessionLaps(sessionKey, driverNumber).items(),
+                f1DataService.getStints(sessionKey, driverNumber));
+    }
+
+    /**
+     * Bundle built from the in-memory reference data, or null for an unknown driver.
+     * Stints are derived from runs of the same compound.
+     */
+    public DriverBundle getReferenceBundle(String driverId) {
+        Driver driver = f1DataService.getDriverById(driverId);
+        if (driver == null) {
+            return null;
+        }
+
+        List<LapData> laps = f1DataService.getLapDataForDriver(driverId);
+        List<Stint> stints = new ArrayList<>();
+        for (LapData lap : laps) {
+            Stint current = stints.isEmpty() ? null : stints.get(stints.size() - 1);
+            if (current != null && current.getCompound() != null && current.getCompound().equals(lap.getCompound())) {
+                current.setLapEnd(lap.getLapNumber());
+            } else {
+                Stint stint = new Stint();
+                stint.setDriverNumber(driver.getCarNumber());
+                stint.setStintNumber(stints.size() + 1);
+                stint.setCompound(lap.getCompound());
+                stint.setLapStart(lap.getLapNumber());
+                stint.setLapEnd(lap.getLapNumber());
+                stints.add(stint);
+            }
+        }
+
+        return bundle(driver, laps, stints);
+    }
+
+    private static DriverBundle bundle(Driver driver, List<LapData> laps, List<Stint> stints) {
+        DriverBundle bundle = new DriverBundle();
+        bundle.setDriver(driver);
+        bundle.setLaps(laps);
+        bundle.setStints(stints);
+        bundle.setSummary(summarize(laps, stints));
+        return bundle;
+    }
+
+    private static DriverSummary summarize(List<LapData> laps, List<Stint> stints) {
+        DriverSummary summary = new DriverSummary();
+        summary.setLapCount(laps.size());
+        summary.setPitStops(Math.max(0, stints.size() - 1));
+
+        double totalTime = 0;
+        int timedLaps = 0;
+        double fastest = Double.MAX_VALUE;
+        int topSpeed = 0;
+        for (LapData lap : laps) {
+            double seconds = lapSeconds(lap);
+            if (seconds > 0) {
+                totalTime += seconds;
+                timedLaps++;
+                if (seconds < fastest) {
+                    fastest = seconds;
+                    summary.setFastestLapNumber(lap.getLapNumber());
+                }
+            }
+            topSpeed = Math.max(topSpeed, Math.max(lap.getStSpeed(), (int) lap.getSpeed()));
+        }
+
+        if (timedLaps > 0) {
+            summary.setFastestLapTime(fastest);
+            summary.setAverageLapTime(totalTime / timedLaps);
+        }
+        summary.setTopSpeed(topSpeed);
+        return summary;
+    }
+
+    /**
+     * The lap time, or the sum of the sectors if the lap has all three; 0 for a lap
+     * with neither, such as lap 1 or a pit-out lap, where sector 1 is missing too
+     */
+    private static double lapSeconds(LapData lap) {
+        if (lap.lapDurationMillis() > 0) {
+            return lap.lapDurationMillis() / 1000.0;
+        }
+        if (lap.getSector1Time() > 0 && lap.getSector2Time() > 0 && lap.getSector3Time() > 0) {
+            return (lap.getSector1Time() + lap.getSector2Time() + lap.getSector3Time()) / 1000.0;
+        }
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,9 +1,17 @@
 package com.f1.dashboard.service;
 
 import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.Interval;
 import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Location;
 import com.f1.dashboard.model.Meeting;
+import com.f1.dashboard.model.Position;
+import com.f1.dashboard.model.Stint;
+import com.f1.dashboard.util.CarDataSeries;
+import com.f1.dashboard.util.LocationSeries;
+import com.f1.dashboard.util.TimeSeries;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface F1DataService {
@@ -17,4 +25,38 @@ public interface F1DataService {
     Driver getDriverById(String driverId);
     
     List<LapData> getLapDataForDriver(String driverId);
+    
+    // Per-driver session series, sorted for range and cursor queries
+    
+    TimeSeries<LapData> getSessionLaps(int sessionKey, int driverNumber);
+    
+    CarDataSeries getCarData(int sessionKey, int driverNumber);
+    
+    LocationSeries getLocations(int sessionKey, int driverNumber);
+    
+    TimeSeries<Interval> getIntervals(int sessionKey, int driverNumber);
+    
+    List<Driver> getSessionDrivers(int sessionKey);
+    
+    List<Stint> getStints(int sessionKey, int driverNumber);
+    
+    // Incremental all-driver feeds for live streaming: samples strictly newer than 'since'
+    
+    List<Position> getPositionsSince(int sessionKey, OffsetDateTime since);
+    
+    List<Interval> getIntervalsSince(int sessionKey, OffsetDateTime since);
+    
+    List<LapData> getLapsStartedSince(int sessionKey, OffsetDateTime since);
+    
+    List<Location> getLocationsSince(int sessionKey, OffsetDateTime since);
+    
+    /**
+     * Whether the session has ended, so its data will no longer change
+     */
+    boolean isSessionFinished(int sessionKey);
+    
+    /**
+     * The session key of a meeting's race, or null if OpenF1 has none for it
+     */
+    Integer getRaceSessionKey(String meetingKey);
 }
\ No newline at end of file
@@ -1,28 +1,67 @@
 package com.f1.dashboard.service;
 
 import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.Interval;
 import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Location;
 import com.f1.dashboard.model.Meeting;
+import com.f1.dashboard.model.Position;
+import com.f1.dashboard.model.Stint;
+import com.f1.dashboard.util.CarDataSeries;
+import com.f1.dashboard.util.JsonParser;
+import com.f1.dashboard.util.LocationSeries;
+import com.f1.dashboard.util.TimeSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class F1DataServiceImpl implements F1DataService {
 
+    private static final Logger logger = LoggerFactory.getLogger(F1DataServiceImpl.class);
+
+    // Late timing corrections still arrive for a while after the chequered flag
+    private static final Duration SESSION_SETTLE_TIME = Duration.ofHours(1);
+
     // Mock data for development - will be replaced with API calls
     private final List<Meeting> meetings;
     private final List<Driver> drivers;
     private final List<LapData> lapData;
 
-    public F1DataServiceImpl() {
+    private final DataCacheService cacheService;
+    private final JsonParser jsonParser;
+    // java.net.http based: pooled connections, and blocked virtual threads unmount
+    // instead of pinning their carrier as HttpURLConnection does
+    private final RestTemplate restTemplate = new RestTemplate(new JdkClientHttpRequestFactory());
+    private final String apiBaseUrl;
+
+    @Autowired
+    public F1DataServiceImpl(DataCacheService cacheService, JsonParser jsonParser,
+                             @Value("${openf1.api.base-url:https://api.openf1.org/v1}") String apiBaseUrl) {
+        this.cacheService = cacheService;
+        this.jsonParser = jsonParser;
+        this.apiBaseUrl = apiBaseUrl;
+
         // Initialize mock data
         this.meetings = createSampleMeetings();
         this.drivers = createSampleDrivers();
         this.lapData = createSampleLapData();
+        cacheService.markReferenceDataUpdated();
     }
 
     @Override
@@ -55,6 +94,226 @@ public class F1DataServiceImpl implements F1DataService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public TimeSeries<LapData> getSessionLaps(int sessionKey, int driverNumber) {
+        String cacheKey = DataCacheService.seriesKey(sessionKey, driverNumber);
+        TimeSeries<LapData> cached = cacheService.getLapData(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        String json = fetchSessionData("laps", sessionKey, driverNumber);
+        if (json == null) {
+            return TimeSeries.empty();
+        }
+
+        TimeSeries<LapData> laps = TimeSeries.of(jsonParser.parseLapData(json), LapData::getLapNumber);
+        cacheService.cacheLapData(cacheKey, laps);
+        return laps;
+    }
+
+    @Override
+    public CarDataSeries getCarData(int sessionKey, int driverNumber) {
+        CarDataSeries cached = cacheService.getCarData(sessionKey, driverNumber);
+        if (cached != null) {
+            return cached;
+        }
+
+        // An expired series only needs the samples recorded since it was last fetched
+        CarDataSeries expired = cacheService.peekCarData(sessionKey, driverNumber);
+        if (expired != null && !expired.isEmpty()) {
+            String json = fetchSessionDataSince("car_data", "date", sessionKey, driverNumber,
+                    expired.timeAt(expired.size() - 1));
+            if (json == null) {
+                return expired;
+            }
+            return cacheService.appendCarData(sessionKey, driverNumber, jsonParser.parseCarData(json));
+        }
+
+        String json = fetchSessionData("car_data", sessionKey, driverNumber);
+        if (json == null) {
+            return CarDataSeries.empty();
+        }
+
+        return cacheService.cacheCarData(sessionKey, driverNumber, jsonParser.parseCarData(json));
+    }
+
+    @Override
+    public LocationSeries getLocations(int sessionKey, int driverNumber) {
+        LocationSeries cached = cacheService.getLocationData(sessionKey, driverNumber);
+        if (cached != null) {
+            return cached;
+        }
+
+        LocationSeries expired = cacheService.peekLocationData(sessionKey, driverNumber);
+        if (expired != null && !expired.isEmpty()) {
+            String json = fetchSessionDataSince("location", "date", sessionKey, driverNumber,
+                    expired.timeAt(expired.size() - 1));
+            if (json == null) {
+                return expired;
+            }
+            return cacheService.appendLocationData(sessionKey, driverNumber, jsonParser.parseLocations(json));
+        }
+
+        String json = fetchSessionData("location", sessionKey, driverNumber);
+        if (json == null) {
+            return LocationSeries.empty();
+        }
+
+        return cacheService.cacheLocationData(sessionKey, driverNumber, jsonParser.parseLocations(json));
+    }
+
+    @Override
+    public TimeSeries<Interval> getIntervals(int sessionKey, int driverNumber) {
+        String cacheKey = DataCacheService.seriesKey(sessionKey, driverNumber);
+        TimeSeries<Interval> cached = cacheService.getIntervals(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        String json = fetchSessionData("intervals", sessionKey, driverNumber);
+        if (json == null) {
+            return TimeSeries.empty();
+        }
+
+        TimeSeries<Interval> intervals = TimeSeries.of(jsonParser.parseIntervals(json),
+                sample -> sample.getDate().toInstant().toEpochMilli());
+        cacheService.cacheIntervals(cacheKey, intervals);
+        return intervals;
+    }
+
+    @Override
+    public List<Driver> getSessionDrivers(int sessionKey) {
+        String cacheKey = String.valueOf(sessionKey);
+        List<Driver> cached = cacheService.getDrivers(cacheKey);
+        if (!cached.isEmpty()) {
+            return cached;
+        }
+
+        String json = fetch(apiBaseUrl + "/drivers?session_key=" + sessionKey);
+        if (json == null) {
+            return cached;
+        }
+
+        List<Driver> sessionDrivers = jsonParser.parseDrivers(json);
+        cacheService.cacheDrivers(cacheKey, sessionDrivers);
+        return sessionDrivers;
+    }
+
+    @Override
+    public List<Stint> getStints(int sessionKey, int driverNumber) {
+        String cacheKey = DataCacheService.seriesKey(sessionKey, driverNumber);
+        List<Stint> cached = cacheService.getStints(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        String json = fetchSessionData("stints", sessionKey, driverNumber);
+        if (json == null) {
+            return Collections.emptyList();
+        }
+
+        List<Stint> stints = jsonParser.parseStints(json);
+        cacheService.cacheStints(cacheKey, stints);
+        return stints;
+    }
+
+    @Override
+    public List<Position> getPositionsSince(int sessionKey, OffsetDateTime since) {
+        return jsonParser.parsePositions(fetchSince("position", "date", sessionKey, since));
+    }
+
+    @Override
+    public List<Interval> getIntervalsSince(int sessionKey, OffsetDateTime since) {
+        return jsonParser.parseIntervals(fetchSince("intervals", "date", sessionKey, since));
+    }
+
+    @Override
+    public List<LapData> getLapsStartedSince(int sessionKey, OffsetDateTime since) {
+        return jsonParser.parseLapData(fetchSince("laps", "date_start", sessionKey, since));
+    }
+
+    @Override
+    public List<Location> getLocationsSince(int sessionKey, OffsetDateTime since) {
+        return jsonParser.parseLocations(fetchSince("location", "date", sessionKey, since));
+    }
+
+    @Override
+    public boolean isSessionFinished(int sessionKey) {
+        OffsetDateTime dateEnd = cacheService.getSessionEnd(sessionKey);
+        if (dateEnd == null) {
+            List<Map<String, Object>> sessions = jsonParser.parseSessionsList(
+                    fetch(apiBaseUrl + "/sessions?session_key=" + sessionKey));
+            Object value = sessions.isEmpty() ? null : sessions.get(0).get("date_end");
+            if (!(value instanceof OffsetDateTime)) {
+                // Unknown sessions are treated as live so responses are always revalidated
+                return false;
+            }
+            dateEnd = (OffsetDateTime) value;
+            cacheService.cacheSessionEnd(sessionKey, dateEnd);
+        }
+        return dateEnd.plus(SESSION_SETTLE_TIME).isBefore(OffsetDateTime.now());
+    }
+
+    @Override
+    public Integer getRaceSessionKey(String meetingKey) {
+        Integer cached = cacheService.getRaceSessionKey(meetingKey);
+        if (cached != null) {
+            return cached;
+        }
+        // The sample meetings have made-up keys that OpenF1 doesn't know
+        if (meetingKey.isEmpty() || !meetingKey.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+
+        List<Map<String, Object>> sessions = jsonParser.parseSessionsList(
+                fetch(apiBaseUrl + "/sessions?meeting_key=" + meetingKey + "&session_name=Race"));
+        Object value = sessions.isEmpty() ? null : sessions.get(0).get("session_key");
+        if (!(value instanceof Number)) {
+            return null;
+        }
+        int sessionKey = ((Number) value).intValue();
+        cacheService.cacheRaceSessionKey(meetingKey, sessionKey);
+        return sessionKey;
+    }
+
+    /**
+     * Fetch one driver's data for a session from the OpenF1 API.
+     * Returns null on failure so that errors are not cached as empty series.
+     */
+    private String fetchSessionData(String endpoint, int sessionKey, int driverNumber) {
+        return fetch(apiBaseUrl + "/" + endpoint + "?session_key=" + sessionKey + "&driver_number=" + driverNumber);
+    }
+
+    /**
+     * Fetch one driver's rows for a session whose date field is after the given epoch millis
+     */
+    private String fetchSessionDataSince(String endpoint, String dateField, int sessionKey, int driverNumber,
+                                         long sinceMillis) {
+        return fetch(apiBaseUrl + "/" + endpoint + "?session_key=" + sessionKey + "&driver_number=" + driverNumber
+                + "&" + dateField + ">" + Instant.ofEpochMilli(sinceMillis));
+    }
+
+    /**
+     * Fetch every driver's rows for a session whose date field is after 'since'
+     */
+    private String fetchSince(String endpoint, String dateField, int sessionKey, OffsetDateTime since) {
+        String url = apiBaseUrl + "/" + endpoint + "?session_key=" + sessionKey;
+        if (since != null) {
+            url += "&" + dateField + ">" + since.toInstant();
+        }
+        return fetch(url);
+    }
+
+    private String fetch(String url) {
+        try {
+            return restTemplate.getForObject(url, String.class);
+        } catch (RestClientException e) {
+            logger.error("Error fetching {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
     // Create sample data for development
     private List<Meeting> createSampleMeetings() {
         List<Meeting> meetings = new ArrayList<>();
@@ -115,16 +374,15 @@ public class F1DataServiceImpl implements F1DataService {
                 int sector2 = 35000 + (int) (Math.random() * 5000);
                 int sector3 = 30000 + (int) (Math.random() * 5000);
                 
-                // Calculate total lap time
-                int totalTime = sector1 + sector2 + sector3;
-                int minutes = totalTime / 60000;
-                double seconds = (totalTime % 60000) / 1000.0;
-                String lapTime = String.format("%d:%06.3f", minutes, seconds);
-                
-                lapDataList.add(new LapData(
-                        driverId, lap, lapTime, position, speed, compound, 
-                        sector1, sector2, sector3
-                ));
+                lapDataList.add(LapData.builder()
+                        .driverId(driverId)
+                        .lapNumber(lap)
+                        .position(position)
+                        .speed(speed)
+                        .compound(compound)
+                        .sectorMillis(sector1, sector2, sector3)
+                        .lapDurationMillis(sector1 + sector2 + sector3)
+                        .build());
             }
         }
         
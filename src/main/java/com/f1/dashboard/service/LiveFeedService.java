@@ -0,0 +1,241 @@
+package com.f1.dashboard.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.f1.dashboard.config.TaskExecutors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Fans live session events out to Server-Sent Events subscribers.
+ * Each event is serialized once; every client then gets it through its own
+ * bounded buffer, so publishing costs a buffer offer per client. Buffers are
+ * drained by a fixed pool of live.dispatcher-threads, a batch at a time, so
+ * thousands of clients share a few threads. When a buffer is full the oldest
+ * event is dropped, and clients that keep falling behind, or whose send has been
+ * blocked for longer than live.send-timeout-ms, are disconnected from the
+ * publisher's side: their request is ended with an error. A send blocked on a
+ * client that stopped reading gives its thread back at the connector's write
+ * timeout (server.tomcat.connection-timeout). Every stream also ends after
+ * live.stream-timeout-ms, and browsers reconnect.
+ */
+@Service
+public class LiveFeedService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveFeedService.class);
+
+    // Events one drain sends before giving its thread to the next client
+    private static final int DRAIN_BATCH = 64;
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService dispatcher;
+    private final ExecutorService closer;
+    private final int clientBufferSize;
+    private final int maxDroppedEvents;
+    private final long sendTimeoutNanos;
+    private final long streamTimeoutMillis;
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public LiveFeedService(ObjectMapper objectMapper, TaskExecutors taskExecutors,
+                           @Value("${live.client-buffer-size:256}") int clientBufferSize,
+                           @Value("${live.max-dropped-events:1024}") int maxDroppedEvents,
+                           @Value("${live.send-timeout-ms:5000}") long sendTimeoutMs,
+                           @Value("${live.dispatcher-threads:16}") int dispatcherThreads,
+                           @Value("${live.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.clientBufferSize = clientBufferSize;
+        this.maxDroppedEvents = maxDroppedEvents;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.streamTimeoutMillis = streamTimeoutMs;
+        this.dispatcher = taskExecutors.newPlatformExecutor("live-feed", dispatcherThreads);
+        // Ending a request waits for the emitter's lock, which a stalled send holds
+        this.closer = taskExecutors.newPlatformExecutor("live-feed-close", 1);
+    }
+
+    public SseEmitter subscribe(int sessionKey) {
+        // The async timeout ends every stream in the end, even one whose client stopped
+        // reading; EventSource clients reconnect on their own
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber = new Subscriber(sessionKey, emitter);
+
+        // Added inside compute so a concurrent unsubscribe can't drop the set from the map under us
+        subscribers.compute(sessionKey, (key, clients) -> {
+            Set<Subscriber> set = clients != null ? clients : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        logger.debug("Live feed subscriber added for session {}", sessionKey);
+        return emitter;
+    }
+
+    /**
+     * Sessions that currently have at least one subscriber
+     */
+    public Set<Integer> getActiveSessions() {
+        return subscribers.keySet();
+    }
+
+    public int getSubscriberCount(int sessionKey) {
+        Set<Subscriber> clients = subscribers.get(sessionKey);
+        return clients != null ? clients.size() : 0;
+    }
+
+    public void publish(int sessionKey, String eventName, Object payload) {
+        Set<Subscriber> clients = subscribers.get(sessionKey);
+        if (clients == null || clients.isEmpty()) {
+            return;
+        }
+
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.error("Error serializing live {} event: {}", eventName, e.getMessage());
+            return;
+        }
+
+        LiveEvent event = new LiveEvent(eventIds.incrementAndGet(), eventName, data);
+        for (Subscriber client : clients) {
+            client.offer(event);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.sessionKey, (key, clients) -> {
+            clients.remove(subscriber);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        closer.shutdownNow();
+    }
+
+    private static final class LiveEvent {
+        private final long id;
+        private final String name;
+        private final String data;
+
+        LiveEvent(long id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final int sessionKey;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> buffer = new ArrayBlockingQueue<>(clientBufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicInteger dropped = new AtomicInteger();
+        // System.nanoTime() when the running send started, 0 when none is
+        private volatile long sendStarted;
+        private volatile boolean closing;
+
+        Subscriber(int sessionKey, SseEmitter emitter) {
+            this.sessionKey = sessionKey;
+            this.emitter = emitter;
+        }
+
+        void offer(LiveEvent event) {
+            long started = sendStarted;
+            if (started != 0 && System.nanoTime() - started > sendTimeoutNanos) {
+                logger.info("Disconnecting stalled live feed subscriber for session {}", sessionKey);
+                disconnect();
+                return;
+            }
+
+            // Drop the oldest buffered event rather than block the publisher
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null && dropped.incrementAndGet() > maxDroppedEvents) {
+                    logger.info("Disconnecting slow live feed subscriber for session {}", sessionKey);
+                    disconnect();
+                    return;
+                }
+            }
+
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        /**
+         * Stop buffering for this client and end its request with an error, so the
+         * container drops the connection instead of keeping it. The closer does this,
+         * since ending the request waits for a blocked send to return and would hold
+         * up the publisher.
+         */
+        private void disconnect() {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            unsubscribe(this);
+            buffer.clear();
+            closer.execute(() -> {
+                try {
+                    emitter.completeWithError(new IOException("Live feed subscriber disconnected"));
+                } catch (RuntimeException e) {
+                    logger.debug("Error ending live feed subscriber for session {}: {}", sessionKey, e.getMessage());
+                }
+            });
+        }
+
+        private void drain() {
+            try {
+                LiveEvent event;
+                int sent = 0;
+                while (!closing && sent < DRAIN_BATCH && (event = buffer.poll()) != null) {
+                    sendStarted = System.nanoTime();
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id))
+                            .name(event.name)
+                            .data(event.data));
+                    sendStarted = 0;
+                    sent++;
+                }
+                if (buffer.isEmpty()) {
+                    dropped.set(0);
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(this);
+                return;
+            } finally {
+                sendStarted = 0;
+                scheduled.set(false);
+            }
+
+            // Events left after a full batch, or that arrived after the last check but before
+            // the flag was cleared, go back on the queue behind the other clients
+            if (!closing && !buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.f1.dashboard.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.f1.dashboard.model.Interval;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.model.Position;
+
+/**
+ * Polls OpenF1 once per interval for every session that has live subscribers
+ * or position feed viewers, and publishes only the rows that arrived since the
+ * previous poll. A single ingest per session is shared by all of its viewers.
+ */
+@Component
+public class LiveSessionPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSessionPoller.class);
+
+    // How far back the first poll of a newly watched session looks
+    private static final long INITIAL_LOOKBACK_SECONDS = 10;
+
+    private final F1DataService f1DataService;
+    private final LiveFeedService liveFeedService;
+    private final PositionFeedService positionFeedService;
+
+    private final Map<Integer, SessionCursor> cursors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LiveSessionPoller(F1DataService f1DataService, LiveFeedService liveFeedService,
+                             PositionFeedService positionFeedService) {
+        this.f1DataService = f1DataService;
+        this.liveFeedService = liveFeedService;
+        this.positionFeedService = positionFeedService;
+    }
+
+    @Scheduled(fixedDelayString = "${live.poll-interval-ms:4000}")
+    public void poll() {
+        Set<Integer> eventSessions = new HashSet<>(liveFeedService.getActiveSessions());
+        Set<Integer> positionSessions = new HashSet<>(positionFeedService.getActiveSessions());
+
+        // Forget sessions nobody is watching any more
+        Set<Integer> watched = new HashSet<>(eventSessions);
+        watched.addAll(positionSessions);
+        cursors.keySet().retainAll(watched);
+
+        for (Integer sessionKey : watched) {
+            try {
+                SessionCursor cursor = cursors.computeIfAbsent(sessionKey, key -> new SessionCursor());
+                if (eventSessions.contains(sessionKey)) {
+                    pollEvents(sessionKey, cursor);
+                }
+                if (positionSessions.contains(sessionKey)) {
+                    pollLocations(sessionKey, cursor);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error polling live data for session {}: {}", sessionKey, e.getMessage());
+            }
+        }
+    }
+
+    private void pollLocations(int sessionKey, SessionCursor cursor) {
+        List<Location> locations = f1DataService.getLocationsSince(sessionKey, cursor.lastLocation);
+        positionFeedService.publishLocations(sessionKey, locations);
+        for (Location location : locations) {
+            cursor.lastLocation = latest(cursor.lastLocation, location.getDate());
+        }
+    }
+
+    private void pollEvents(int sessionKey, SessionCursor cursor) {
+        List<Position> positions = f1DataService.getPositionsSince(sessionKey, cursor.lastPosition);
+        for (Position position : positions) {
+            liveFeedService.publish(sessionKey, "position", position);
+            cursor.lastPosition = latest(cursor.lastPosition, position.getDate());
+        }
+
+        List<Interval> intervals = f1DataService.getIntervalsSince(sessionKey, cursor.lastInterval);
+        for (Interval interval : intervals) {
+            liveFeedService.publish(sessionKey, "interval", interval);
+            cursor.lastInterval = latest(cursor.lastInterval, interval.getDate());
+        }
+
+        // A driver starting lap N has completed lap N - 1
+        List<LapData> laps = f1DataService.getLapsStartedSince(sessionKey, cursor.lastLapStart);
+        for (LapData lap : laps) {
+            liveFeedService.publish(sessionKey, "lap", lap);
+            cursor.lastLapStart = latest(cursor.lastLapStart, lap.getDateStart());
+        }
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime current, OffsetDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static final class SessionCursor {
+        private OffsetDateTime lastPosition;
+        private OffsetDateTime lastInterval;
+        private OffsetDateTime lastLapStart;
+        private OffsetDateTime lastLocation;
+
+        SessionCursor() {
+            OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(INITIAL_LOOKBACK_SECONDS);
+            this.lastPosition = start;
+            this.lastInterval = start;
+            this.lastLapStart = start;
+            this.lastLocation = start;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.f1.dashboard.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.util.PositionFrameEncoder;
+
+/**
+ * Broadcasts binary delta-encoded position frames for all cars in a session.
+ * Each frame is encoded once per session and the same bytes go to every viewer.
+ * Viewers sit behind a bounded send buffer. Since every delta frame builds on the
+ * one before, a viewer is never sent a stream with a frame missing: one whose
+ * buffer overflows, that stays over the send time limit, or whose send fails is
+ * closed and dropped, and reconnects from a fresh keyframe. Frames are sent
+ * outside the feed's lock, so a slow socket never holds up viewers joining or leaving.
+ */
+@Service
+public class PositionFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionFeedService.class);
+
+    private final long frameIntervalMillis;
+    private final int keyframeInterval;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferBytes;
+
+    private final Map<Integer, SessionFeed> feeds = new ConcurrentHashMap<>();
+
+    public PositionFeedService(@Value("${position-feed.frame-interval-ms:250}") long frameIntervalMillis,
+                               @Value("${position-feed.keyframe-interval:40}") int keyframeInterval,
+                               @Value("${position-feed.send-time-limit-ms:2000}") int sendTimeLimitMillis,
+                               @Value("${position-feed.send-buffer-bytes:65536}") int sendBufferBytes) {
+        this.frameIntervalMillis = frameIntervalMillis;
+        this.keyframeInterval = keyframeInterval;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
+    public void addViewer(int sessionKey, WebSocketSession session) {
+        Viewer viewer = new Viewer(new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis,
+                sendBufferBytes, ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE));
+        while (true) {
+            SessionFeed feed = feeds.computeIfAbsent(sessionKey, key -> new SessionFeed());
+            synchronized (feed) {
+                // The last viewer may have left and retired this feed in the meantime
+                if (feeds.get(sessionKey) != feed) {
+                    continue;
+                }
+
+                // Start the viewer from the current state so the next delta frame applies cleanly
+                viewer.keyframe = feed.encoder.currentKeyframe();
+                feed.viewers.put(session.getId(), viewer);
+            }
+
+            // Whichever of this and the next broadcast gets the viewer first sends the keyframe
+            deliver(sessionKey, viewer, Collections.emptyList());
+            return;
+        }
+    }
+
+    public void removeViewer(int sessionKey, WebSocketSession session) {
+        removeViewer(sessionKey, session.getId());
+    }
+
+    private void removeViewer(int sessionKey, String viewerId) {
+        SessionFeed feed = feeds.get(sessionKey);
+        if (feed != null) {
+            synchronized (feed) {
+                feed.viewers.remove(viewerId);
+                if (feed.viewers.isEmpty()) {
+                    feeds.remove(sessionKey, feed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sessions that currently have at least one viewer
+     */
+    public Set<Integer> getActiveSessions() {
+        return feeds.keySet();
+    }
+
+    /**
+     * Group new location samples into fixed-length frames and broadcast them. Calls
+     * for one session must come from one thread, so frames go out in encoding order.
+     */
+    public void publishLocations(int sessionKey, List<Location> samples) {
+        SessionFeed feed = feeds.get(sessionKey);
+        if (feed == null || samples.isEmpty()) {
+            return;
+        }
+
+        List<Location> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparing(Location::getDate));
+
+        int[] drivers = new int[sorted.size()];
+        int[] xs = new int[sorted.size()];
+        int[] ys = new int[sorted.size()];
+
+        List<byte[]> frames = new ArrayList<>();
+        List<Viewer> viewers;
+        synchronized (feed) {
+            int i = 0;
+            while (i < sorted.size()) {
+                long frameTime = frameStart(sorted.get(i));
+                int count = 0;
+
+                // Collect the frame's cars, keeping only each car's latest sample
+                while (i < sorted.size() && frameStart(sorted.get(i)) == frameTime) {
+                    Location sample = sorted.get(i++);
+                    int slot = indexOf(drivers, count, sample.getDriverNumber());
+                    if (slot < 0) {
+                        slot = count++;
+                        drivers[slot] = sample.getDriverNumber();
+                    }
+                    xs[slot] = sample.getX();
+                    ys[slot] = sample.getY();
+                }
+
+                frames.add(feed.encoder.encode(frameTime, drivers, xs, ys, count));
+            }
+            viewers = new ArrayList<>(feed.viewers.values());
+        }
+
+        for (Viewer viewer : viewers) {
+            deliver(sessionKey, viewer, frames);
+        }
+    }
+
+    private long frameStart(Location sample) {
+        long millis = sample.getDate().toInstant().toEpochMilli();
+        return millis - Math.floorMod(millis, frameIntervalMillis);
+    }
+
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Send a viewer its pending keyframe, if any, then the frames. A viewer that can't
+     * take them, including one over the decorator's time or buffer limit (which throws
+     * SessionLimitExceededException), is dropped.
+     */
+    private void deliver(int sessionKey, Viewer viewer, List<byte[]> frames) {
+        // Keeps one viewer's keyframe and frames in order between callers
+        synchronized (viewer) {
+            if (viewer.closed) {
+                return;
+            }
+            try {
+                if (viewer.keyframe != null) {
+                    byte[] keyframe = viewer.keyframe;
+                    viewer.keyframe = null;
+                    viewer.session.sendMessage(new BinaryMessage(keyframe));
+                }
+                for (byte[] frame : frames) {
+                    viewer.session.sendMessage(new BinaryMessage(frame));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Dropping position feed viewer {}: {}", viewer.session.getId(), e.getMessage());
+                viewer.closed = true;
+                removeViewer(sessionKey, viewer.session.getId());
+                try {
+                    viewer.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException | RuntimeException closeError) {
+                    logger.debug("Error closing position feed viewer {}: {}", viewer.session.getId(),
+                            closeError.getMessage());
+                }
+            }
+        }
+    }
+
+    private final class SessionFeed {
+        private final PositionFrameEncoder encoder = new PositionFrameEncoder(keyframeInterval);
+        private final Map<String, Viewer> viewers = new ConcurrentHashMap<>();
+    }
+
+    private static final class Viewer {
+        private final WebSocketSession session;
+        // Set when the viewer joins, cleared once sent; guarded by the viewer's lock after that
+        private byte[] keyframe;
+        private boolean closed;
+
+        Viewer(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
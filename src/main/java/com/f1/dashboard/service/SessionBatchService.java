@@ -0,0 +1,166 @@
+package com.f1.dashboard.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.f1.dashboard.config.TaskExecutors;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.util.TimeSeries;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+
+/**
+ * Loads and serializes several drivers' series concurrently and streams them
+ * as one JSON object keyed by driver number. Entries are written in the order
+ * they finish, so a slow driver does not hold back the others.
+ */
+@Service
+public class SessionBatchService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionBatchService.class);
+
+    private final F1DataService f1DataService;
+    private final DriverBundleService driverBundleService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxDrivers;
+
+    @Autowired
+    public SessionBatchService(F1DataService f1DataService, DriverBundleService driverBundleService,
+                               ObjectMapper objectMapper, TaskExecutors taskExecutors,
+                               @Value("${batch.threads:8}") int threads,
+                               @Value("${batch.max-drivers:25}") int maxDrivers) {
+        this.f1DataService = f1DataService;
+        this.driverBundleService = driverBundleService;
+        this.objectMapper = objectMapper;
+        this.executor = taskExecutors.newExecutor("batch", threads);
+        this.maxDrivers = maxDrivers;
+    }
+
+    public int getMaxDrivers() {
+        return maxDrivers;
+    }
+
+    /**
+     * Stream each driver's laps, limited to their lap range. Filters, if given,
+     * project the entries as for fields= on the single-driver endpoints.
+     */
+    public void streamLaps(int sessionKey, List<DriverRange> drivers, FilterProvider filters,
+                           OutputStream out) throws IOException {
+        stream(drivers, writer(filters), out, driver -> {
+            TimeSeries<LapData> laps = f1DataService.getSessionLaps(sessionKey, driver.getDriverNumber());
+            int lo = driver.getFromLap() != null ? laps.lowerBound(driver.getFromLap()) : 0;
+            int hi = driver.getToLap() != null ? laps.upperBound(driver.getToLap()) : laps.size();
+            return lo < hi ? laps.subList(lo, hi) : new ArrayList<LapData>();
+        });
+    }
+
+    /**
+     * Stream each driver's session summary
+     */
+    public void streamSummaries(int sessionKey, List<DriverRange> drivers, FilterProvider filters,
+                                OutputStream out) throws IOException {
+        stream(drivers, writer(filters), out, driver -> driverBundleService.getSessionSummary(sessionKey, driver.getDriverNumber()));
+    }
+
+    private ObjectWriter writer(FilterProvider filters) {
+        return filters != null ? objectMapper.writer(filters) : objectMapper.writer();
+    }
+
+    private void stream(List<DriverRange> drivers, ObjectWriter writer, OutputStream out,
+                        DriverLoader loader) throws IOException {
+        CompletionService<byte[]> completion = new ExecutorCompletionService<>(executor);
+        List<Future<byte[]>> pending = new ArrayList<>();
+        for (DriverRange driver : drivers) {
+            pending.add(completion.submit(() -> entry(writer, driver, loader.load(driver))));
+        }
+
+        try {
+            out.write('{');
+            for (int i = 0; i < drivers.size(); i++) {
+                byte[] entry = completion.take().get();
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(entry);
+                out.flush();
+            }
+            out.write('}');
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming batch", e);
+        } catch (ExecutionException e) {
+            logger.error("Error loading batch entry: {}", e.getCause().getMessage());
+            throw new IOException("Error loading batch entry", e.getCause());
+        } finally {
+            // Stop outstanding work if the client went away or an entry failed
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static byte[] entry(ObjectWriter writer, DriverRange driver, Object value)
+            throws JsonProcessingException {
+        byte[] key = ("\"" + driver.getDriverNumber() + "\":").getBytes(StandardCharsets.UTF_8);
+        byte[] body = writer.writeValueAsBytes(value);
+        byte[] entry = new byte[key.length + body.length];
+        System.arraycopy(key, 0, entry, 0, key.length);
+        System.arraycopy(body, 0, entry, key.length, body.length);
+        return entry;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private interface DriverLoader {
+        Object load(DriverRange driver);
+    }
+
+    /**
+     * A requested driver with an optional inclusive lap range
+     */
+    public static class DriverRange {
+        private final int driverNumber;
+        private final Integer fromLap;
+        private final Integer toLap;
+
+        public DriverRange(int driverNumber, Integer fromLap, Integer toLap) {
+            this.driverNumber = driverNumber;
+            this.fromLap = fromLap;
+            this.toLap = toLap;
+        }
+
+        public int getDriverNumber() {
+            return driverNumber;
+        }
+
+        public Integer getFromLap() {
+            return fromLap;
+        }
+
+        public Integer getToLap() {
+            return toLap;
+        }
+    }
+}
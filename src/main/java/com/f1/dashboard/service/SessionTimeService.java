@@ -0,0 +1,130 @@
+package com.f1.dashboard.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.f1.dashboard.config.TaskExecutors;
+import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.Interval;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.util.LocationSeries;
+import com.f1.dashboard.util.SessionLocations;
+import com.f1.dashboard.util.SessionTimeIndex;
+import com.f1.dashboard.util.TimeSeries;
+
+/**
+ * Answers "state of every car at time t" from a per-session time index. The index
+ * is rebuilt only when one of the cached series it was built from changes, and is
+ * only kept when none of them changed while it was being loaded.
+ */
+@Service
+public class SessionTimeService implements DisposableBean {
+
+    private final F1DataService f1DataService;
+    private final DataCacheService cacheService;
+    private final ExecutorService executor;
+    private final long checkpointIntervalMillis;
+    private final Map<Integer, SessionTimeIndex> indexes;
+
+    @Autowired
+    public SessionTimeService(F1DataService f1DataService, DataCacheService cacheService,
+                              TaskExecutors taskExecutors,
+                              @Value("${snapshots.checkpoint-interval-seconds:10}") int checkpointIntervalSeconds,
+                              @Value("${snapshots.cache-size:8}") int cacheSize,
+                              @Value("${snapshots.threads:8}") int threads) {
+        this.f1DataService = f1DataService;
+        this.cacheService = cacheService;
+        this.executor = taskExecutors.newExecutor("snapshot", threads);
+        this.checkpointIntervalMillis = checkpointIntervalSeconds * 1000L;
+        // Indexes pin the store snapshots they read, so only a few are kept
+        this.indexes = Collections.synchronizedMap(new LinkedHashMap<Integer, SessionTimeIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, SessionTimeIndex> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public SessionTimeIndex getIndex(int sessionKey) {
+        List<Driver> drivers = f1DataService.getSessionDrivers(sessionKey);
+        long[] versionsBefore = sourceVersions(sessionKey, drivers);
+
+        // Load every driver's series in parallel; cached ones come straight back
+        List<CompletableFuture<LocationSeries>> locations = new ArrayList<>();
+        List<CompletableFuture<TimeSeries<Interval>>> intervals = new ArrayList<>();
+        List<CompletableFuture<TimeSeries<LapData>>> laps = new ArrayList<>();
+        for (Driver driver : drivers) {
+            int driverNumber = driver.getDriverNumber();
+            locations.add(CompletableFuture.supplyAsync(
+                    () -> f1DataService.getLocations(sessionKey, driverNumber), executor));
+            intervals.add(CompletableFuture.supplyAsync(
+                    () -> f1DataService.getIntervals(sessionKey, driverNumber), executor));
+            laps.add(CompletableFuture.supplyAsync(
+                    () -> f1DataService.getSessionLaps(sessionKey, driverNumber), executor));
+        }
+
+        List<LocationSeries> loaded = joinAll(locations);
+        List<TimeSeries<Interval>> intervalSeries = joinAll(intervals);
+        List<TimeSeries<LapData>> lapSeries = joinAll(laps);
+
+        // A series refreshed while the loads ran may have been read at either version, so
+        // an index over such data is built for this call but not cached
+        long[] versions = sourceVersions(sessionKey, drivers);
+        boolean consistent = Arrays.equals(versionsBefore, versions);
+        SessionTimeIndex cached = indexes.get(sessionKey);
+        if (cached != null && cached.isBuiltFrom(versions)) {
+            return cached;
+        }
+
+        // Each load above returned a series of whichever session snapshot was current
+        // as it finished; take them all from the final one so the index pins just it
+        SessionLocations session = cacheService.getLocationStore().getSession(sessionKey);
+        List<LocationSeries> locationSeries = new ArrayList<>(drivers.size());
+        for (int d = 0; d < drivers.size(); d++) {
+            LocationSeries series = session != null ? session.driver(drivers.get(d).getDriverNumber()) : null;
+            locationSeries.add(series != null ? series : loaded.get(d));
+        }
+
+        SessionTimeIndex index = new SessionTimeIndex(sessionKey, drivers, locationSeries, intervalSeries,
+                lapSeries, checkpointIntervalMillis, versions);
+        if (consistent) {
+            indexes.put(sessionKey, index);
+        }
+        return index;
+    }
+
+    private long[] sourceVersions(int sessionKey, List<Driver> drivers) {
+        long[] versions = new long[drivers.size() * 3];
+        for (int d = 0; d < drivers.size(); d++) {
+            String key = DataCacheService.seriesKey(sessionKey, drivers.get(d).getDriverNumber());
+            versions[d * 3] = cacheService.getLocationDataVersion(key);
+            versions[d * 3 + 1] = cacheService.getIntervalsVersion(key);
+            versions[d * 3 + 2] = cacheService.getLapDataVersion(key);
+        }
+        return versions;
+    }
+
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+package com.f1.dashboard.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.f1.dashboard.model.TelemetryChannel;
+import com.f1.dashboard.model.TelemetryPoints;
+import com.f1.dashboard.util.CarDataSeries;
+import com.f1.dashboard.util.Downsampler;
+
+/**
+ * Downsamples car_data channels to a fixed number of chart points.
+ * Results are cached per (series, channel, method, points, window) and tied to the
+ * cached series they were computed from, so a refreshed series is resampled.
+ */
+@Service
+public class TelemetryService {
+
+    public static final String METHOD_LTTB = "lttb";
+    public static final String METHOD_MINMAX = "minmax";
+
+    private final F1DataService f1DataService;
+    private final Map<String, CachedPoints> cache;
+
+    @Autowired
+    public TelemetryService(F1DataService f1DataService,
+                            @Value("${telemetry.cache-size:512}") int cacheSize) {
+        this.f1DataService = f1DataService;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedPoints>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPoints> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Downsample a channel over the inclusive [startMillis, endMillis] window
+     * (null bounds mean the whole session)
+     */
+    public TelemetryPoints getTelemetry(int sessionKey, int driverNumber, TelemetryChannel channel,
+                                        String method, int points, Long startMillis, Long endMillis) {
+        CarDataSeries series = f1DataService.getCarData(sessionKey, driverNumber);
+
+        String key = sessionKey + "_" + driverNumber + "_" + channel.getName() + "_" + method + "_"
+                + points + "_" + startMillis + "_" + endMillis;
+        CachedPoints cached = cache.get(key);
+        if (cached != null && cached.source == series) {
+            return cached.points;
+        }
+
+        TelemetryPoints result = downsample(series, channel, method, points, startMillis, endMillis);
+        cache.put(key, new CachedPoints(series, result));
+        return result;
+    }
+
+    private TelemetryPoints downsample(CarDataSeries series, TelemetryChannel channel, String method,
+                                       int points, Long startMillis, Long endMillis) {
+        int lo = startMillis != null ? series.lowerBound(startMillis) : 0;
+        int hi = endMillis != null ? series.upperBound(endMillis) : series.size();
+        int length = Math.max(0, hi - lo);
+
+        // Copy the window out of the store's columns once; the downsamplers only touch these
+        long[] times = new long[length];
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            times[i] = series.timeAt(lo + i);
+            values[i] = series.value(channel, lo + i);
+        }
+
+        int[] selected = METHOD_MINMAX.equals(method)
+                ? Downsampler.minMax(values, length, points)
+                : Downsampler.lttb(times, values, length, points);
+
+        long[] outTimes = new long[selected.length];
+        int[] outValues = new int[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            outTimes[i] = times[selected[i]];
+            outValues[i] = (int) values[selected[i]];
+        }
+
+        return new TelemetryPoints(channel.getName(), method, length, outTimes, outValues);
+    }
+
+    private static final class CachedPoints {
+        private final CarDataSeries source;
+        private final TelemetryPoints points;
+
+        CachedPoints(CarDataSeries source, TelemetryPoints points) {
+            this.source = source;
+            this.points = points;
+        }
+    }
+}
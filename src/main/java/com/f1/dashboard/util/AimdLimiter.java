@@ -0,0 +1,103 @@
+package com.f1.dashboard.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts with additive-increase/multiplicative-decrease.
+ * Each request that finishes within the target latency while the limit is in use
+ * adds 1/limit, so about one slot is added per full window. A slow request cuts
+ * the limit by the backoff factor, at most once per target latency period so
+ * one burst of slow completions does not collapse it to the minimum.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Guarded by this
+    private double limit;
+    private long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, double backoff) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoff = backoff;
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+    }
+
+    public boolean tryAcquire() {
+        int limitNow = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limitNow) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and adapt the limit; returns true if the limit was cut
+     */
+    public boolean release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos > targetLatencyNanos) {
+            return decrease();
+        }
+
+        synchronized (this) {
+            // Only grow while the limit is actually being used
+            if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Multiplicative decrease, also used to shed lower-priority work when a
+     * higher-priority class is overloaded
+     */
+    public synchronized boolean decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < targetLatencyNanos) {
+            return false;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoff);
+        return true;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getTargetLatencyNanos() {
+        return targetLatencyNanos;
+    }
+}
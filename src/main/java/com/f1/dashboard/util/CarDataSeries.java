@@ -0,0 +1,397 @@
+package com.f1.dashboard.util;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.f1.dashboard.model.CarData;
+import com.f1.dashboard.model.SeriesPage;
+import com.f1.dashboard.model.TelemetryChannel;
+
+/**
+ * One driver's car_data for a session, held as primitive columns sorted by time:
+ * epoch millis as long, speed and rpm as short, and gear, throttle, brake and drs
+ * as unsigned bytes. That is 16 bytes per sample instead of a CarData object plus
+ * its OffsetDateTime.
+ *
+ * Instances are immutable snapshots. Appending returns a new snapshot that shares
+ * the column arrays with this one where it can: rows are only ever written past
+ * the end of every snapshot that can see them, so readers never need a lock.
+ * CarData objects are created only when a caller asks for rows.
+ */
+public final class CarDataSeries {
+
+    private static final CarDataSeries EMPTY = new CarDataSeries(0, 0, 0, new Columns(0), 0);
+
+    private final int sessionKey;
+    private final int driverNumber;
+    private final int meetingKey;
+    private final Columns columns;
+    private final int size;
+
+    private CarDataSeries(int sessionKey, int driverNumber, int meetingKey, Columns columns, int size) {
+        this.sessionKey = sessionKey;
+        this.driverNumber = driverNumber;
+        this.meetingKey = meetingKey;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    public static CarDataSeries empty() {
+        return EMPTY;
+    }
+
+    public static CarDataSeries of(int sessionKey, int driverNumber, List<CarData> samples) {
+        CarDataSeries series = new CarDataSeries(sessionKey, driverNumber, 0, new Columns(0), 0);
+        return series.append(samples);
+    }
+
+    /**
+     * Snapshot with the given samples added. Samples may arrive in any order; a batch
+     * that starts after the current last sample is written in place, anything else
+     * is merged into fresh columns. Samples sharing a timestamp keep arrival order.
+     */
+    public CarDataSeries append(List<CarData> samples) {
+        if (samples == null || samples.isEmpty()) {
+            return this;
+        }
+
+        List<CarData> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparingLong(CarDataSeries::epochMillis));
+        int meeting = size > 0 ? meetingKey : sorted.get(0).getMeetingKey();
+        int newSize = size + sorted.size();
+
+        synchronized (columns) {
+            boolean inOrder = size == 0 || epochMillis(sorted.get(0)) >= columns.times[size - 1];
+            if (inOrder && size == columns.committed) {
+                Columns target = columns.capacity() >= newSize ? columns : columns.copy(size, grow(newSize));
+                for (int i = 0; i < sorted.size(); i++) {
+                    target.set(size + i, sorted.get(i));
+                }
+                target.committed = newSize;
+                return new CarDataSeries(sessionKey, driverNumber, meeting, target, newSize);
+            }
+        }
+
+        return new CarDataSeries(sessionKey, driverNumber, meeting, merge(sorted, newSize), newSize);
+    }
+
+    private Columns merge(List<CarData> sorted, int newSize) {
+        Columns merged = new Columns(newSize);
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < newSize; k++) {
+            if (j >= sorted.size() || (i < size && columns.times[i] <= epochMillis(sorted.get(j)))) {
+                merged.copyFrom(columns, i++, k);
+            } else {
+                merged.set(k, sorted.get(j++));
+            }
+        }
+        merged.committed = newSize;
+        return merged;
+    }
+
+    private static int grow(int minCapacity) {
+        return Math.max(minCapacity, minCapacity + (minCapacity >> 1));
+    }
+
+    public int getSessionKey() {
+        return sessionKey;
+    }
+
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Column accessors
+
+    public long timeAt(int index) {
+        return columns.times[checkIndex(index)];
+    }
+
+    public int speedAt(int index) {
+        return columns.speeds[checkIndex(index)];
+    }
+
+    public int rpmAt(int index) {
+        return columns.rpms[checkIndex(index)];
+    }
+
+    public int gearAt(int index) {
+        return columns.gears[checkIndex(index)] & 0xFF;
+    }
+
+    public int throttleAt(int index) {
+        return columns.throttles[checkIndex(index)] & 0xFF;
+    }
+
+    public int brakeAt(int index) {
+        return columns.brakes[checkIndex(index)] & 0xFF;
+    }
+
+    public int drsAt(int index) {
+        return columns.drs[checkIndex(index)] & 0xFF;
+    }
+
+    public int value(TelemetryChannel channel, int index) {
+        switch (channel) {
+            case SPEED:
+                return speedAt(index);
+            case RPM:
+                return rpmAt(index);
+            case THROTTLE:
+                return throttleAt(index);
+            case BRAKE:
+                return brakeAt(index);
+            case GEAR:
+                return gearAt(index);
+            case DRS:
+                return drsAt(index);
+            default:
+                throw new IllegalArgumentException("Unknown channel: " + channel);
+        }
+    }
+
+    /**
+     * Visit one channel over the index range [fromIndex, toIndex) without creating rows
+     */
+    public void forEach(TelemetryChannel channel, int fromIndex, int toIndex, SampleConsumer consumer) {
+        checkRange(fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            consumer.accept(columns.times[i], value(channel, i));
+        }
+    }
+
+    /**
+     * Index of the first sample at or after the given epoch millis
+     */
+    public int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first sample after the given epoch millis
+     */
+    public int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.times[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public CarData toCarData(int index) {
+        checkIndex(index);
+        CarData row = new CarData();
+        row.setDate(Instant.ofEpochMilli(columns.times[index]).atOffset(ZoneOffset.UTC));
+        row.setSessionKey(sessionKey);
+        row.setMeetingKey(meetingKey);
+        row.setDriverNumber(driverNumber);
+        row.setSpeed(columns.speeds[index]);
+        row.setRpm(columns.rpms[index]);
+        row.setNGear(columns.gears[index] & 0xFF);
+        row.setThrottle(columns.throttles[index] & 0xFF);
+        row.setBrake(columns.brakes[index] & 0xFF);
+        row.setDrs(columns.drs[index] & 0xFF);
+        return row;
+    }
+
+    /**
+     * Read-only view of the index range [fromIndex, toIndex) that builds each
+     * CarData as it is read
+     */
+    public Rows rows(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new Rows(fromIndex, toIndex);
+    }
+
+    /**
+     * Page through the index range [fromIndex, toIndex), resuming from the cursor if given
+     */
+    public SeriesPage<CarData> page(int fromIndex, int toIndex, String cursor, int limit) {
+        int start = fromIndex;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] position = SeriesCursor.decode(cursor);
+            start = Math.max(start, (int) Math.min(lowerBound(position[0]) + position[1], upperBound(position[0])));
+        }
+
+        int end = (int) Math.min((long) start + limit, toIndex);
+        if (start >= end) {
+            return new SeriesPage<>(Collections.emptyList(), null);
+        }
+
+        String nextCursor = null;
+        if (end < toIndex) {
+            long time = columns.times[end];
+            nextCursor = SeriesCursor.encode(time, end - lowerBound(time));
+        }
+        return new SeriesPage<>(rows(start, end), nextCursor);
+    }
+
+    /**
+     * Heap used by the column arrays, including spare capacity
+     */
+    public long memoryBytes() {
+        return (long) columns.capacity() * Columns.BYTES_PER_SAMPLE;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for size "
+                    + size);
+        }
+    }
+
+    private static long epochMillis(CarData sample) {
+        return sample.getDate().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Receives (epoch millis, value) pairs from a single channel
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(long time, int value);
+    }
+
+    /**
+     * List view over a range of this series; encoders can read the columns directly
+     */
+    public final class Rows extends AbstractList<CarData> implements RandomAccess {
+        private final int fromIndex;
+        private final int toIndex;
+
+        private Rows(int fromIndex, int toIndex) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        public CarDataSeries getSeries() {
+            return CarDataSeries.this;
+        }
+
+        public int getFromIndex() {
+            return fromIndex;
+        }
+
+        public int getToIndex() {
+            return toIndex;
+        }
+
+        @Override
+        public CarData get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            return toCarData(fromIndex + index);
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+    }
+
+    /**
+     * Column arrays shared by successive snapshots. 'committed' is the number of rows
+     * written so far; only a snapshot of exactly that size may write past it.
+     */
+    private static final class Columns {
+        static final int BYTES_PER_SAMPLE = Long.BYTES + 2 * Short.BYTES + 4;
+
+        final long[] times;
+        final short[] speeds;
+        final short[] rpms;
+        final byte[] gears;
+        final byte[] throttles;
+        final byte[] brakes;
+        final byte[] drs;
+        int committed;
+
+        Columns(int capacity) {
+            this(new long[capacity], new short[capacity], new short[capacity], new byte[capacity],
+                    new byte[capacity], new byte[capacity], new byte[capacity]);
+        }
+
+        private Columns(long[] times, short[] speeds, short[] rpms, byte[] gears, byte[] throttles,
+                        byte[] brakes, byte[] drs) {
+            this.times = times;
+            this.speeds = speeds;
+            this.rpms = rpms;
+            this.gears = gears;
+            this.throttles = throttles;
+            this.brakes = brakes;
+            this.drs = drs;
+        }
+
+        int capacity() {
+            return times.length;
+        }
+
+        Columns copy(int length, int capacity) {
+            Columns copy = new Columns(Arrays.copyOf(times, capacity), Arrays.copyOf(speeds, capacity),
+                    Arrays.copyOf(rpms, capacity), Arrays.copyOf(gears, capacity),
+                    Arrays.copyOf(throttles, capacity), Arrays.copyOf(brakes, capacity),
+                    Arrays.copyOf(drs, capacity));
+            copy.committed = length;
+            return copy;
+        }
+
+        void set(int index, CarData sample) {
+            times[index] = epochMillis(sample);
+            speeds[index] = (short) sample.getSpeed();
+            rpms[index] = (short) sample.getRpm();
+            gears[index] = (byte) sample.getNGear();
+            throttles[index] = (byte) sample.getThrottle();
+            brakes[index] = (byte) sample.getBrake();
+            drs[index] = (byte) sample.getDrs();
+        }
+
+        void copyFrom(Columns source, int from, int to) {
+            times[to] = source.times[from];
+            speeds[to] = source.speeds[from];
+            rpms[to] = source.rpms[from];
+            gears[to] = source.gears[from];
+            throttles[to] = source.throttles[from];
+            brakes[to] = source.brakes[from];
+            drs[to] = source.drs[from];
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.f1.dashboard.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import com.f1.dashboard.model.CarData;
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.model.TelemetryPoints;
+
+/**
+ * Writes telemetry-scale responses in a compact columnar little-endian layout
+ * (media type application/vnd.f1.columnar).
+ *
+ * <pre>
+ * Header
+ *   4 bytes  magic "F1CB"
+ *   uint8    format version (1)
+ *   uint8    record type: 1 = car_data, 2 = location, 3 = telemetry
+ *   int16    length of the following UTF-8 string, -1 for none
+ *   bytes    next page cursor (car_data, location) or channel name (telemetry)
+ *   int32    row count n
+ *   int32    session key (0 for telemetry or an empty page)
+ *   int32    driver number (0 for telemetry or an empty page)
+ *   int32    telemetry only: number of source samples before downsampling
+ *   zero padding to a multiple of 8 bytes
+ * Columns, n values each, widest first so every column is aligned for a typed array view
+ *   car_data:  int64 date (epoch ms), int16 speed, int16 rpm, int16 throttle, int16 brake,
+ *              int8 n_gear, int8 drs
+ *   location:  int64 date (epoch ms), int32 x, int32 y, int32 z
+ *   telemetry: int64 timestamp (epoch ms), int32 value
+ * </pre>
+ * Rows are written column by column straight from the given list, or from the
+ * car_data and location stores when the page is a view over one, through a small
+ * fixed buffer; no intermediate copies of the data are made.
+ */
+public final class ColumnarEncoder {
+
+    public static final String MEDIA_TYPE = "application/vnd.f1.columnar";
+
+    public static final int TYPE_CAR_DATA = 1;
+    public static final int TYPE_LOCATION = 2;
+    public static final int TYPE_TELEMETRY = 3;
+
+    private static final byte[] MAGIC = {'F', '1', 'C', 'B'};
+    private static final int VERSION = 1;
+
+    private ColumnarEncoder() {
+    }
+
+    public static void writeCarData(List<CarData> rows, String nextCursor, OutputStream stream) throws IOException {
+        if (rows instanceof CarDataSeries.Rows) {
+            writeCarData((CarDataSeries.Rows) rows, nextCursor, stream);
+            return;
+        }
+
+        LittleEndianOutput out = new LittleEndianOutput(stream);
+        CarData first = rows.isEmpty() ? null : rows.get(0);
+        writeHeader(out, TYPE_CAR_DATA, nextCursor, rows.size(),
+                first != null ? first.getSessionKey() : 0, first != null ? first.getDriverNumber() : 0);
+
+        for (CarData row : rows) {
+            out.writeLong(epochMillis(row.getDate()));
+        }
+        for (CarData row : rows) {
+            out.writeShort(row.getSpeed());
+        }
+        for (CarData row : rows) {
+            out.writeShort(row.getRpm());
+        }
+        for (CarData row : rows) {
+            out.writeShort(row.getThrottle());
+        }
+        for (CarData row : rows) {
+            out.writeShort(row.getBrake());
+        }
+        for (CarData row : rows) {
+            out.writeByte(row.getNGear());
+        }
+        for (CarData row : rows) {
+            out.writeByte(row.getDrs());
+        }
+        out.flush();
+    }
+
+    /**
+     * Write a page of the columnar store straight from its columns
+     */
+    private static void writeCarData(CarDataSeries.Rows rows, String nextCursor, OutputStream stream)
+            throws IOException {
+        LittleEndianOutput out = new LittleEndianOutput(stream);
+        CarDataSeries series = rows.getSeries();
+        int from = rows.getFromIndex();
+        int to = rows.getToIndex();
+        boolean empty = from == to;
+        writeHeader(out, TYPE_CAR_DATA, nextCursor, to - from,
+                empty ? 0 : series.getSessionKey(), empty ? 0 : series.getDriverNumber());
+
+        for (int i = from; i < to; i++) {
+            out.writeLong(series.timeAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeShort(series.speedAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeShort(series.rpmAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeShort(series.throttleAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeShort(series.brakeAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeByte(series.gearAt(i));
+        }
+        for (int i = from; i < to; i++) {
+            out.writeByte(series.drsAt(i));
+        }
+        out.flush();
+    }
+
+    public static void writeLocations(List<Location> rows, String nextCursor, OutputStream stream) throws IOException {
+        if (rows instanceof LocationSeries.Rows) {
+            writeLocations((LocationSeries.Rows) rows, nextCursor, stream);
+            return;
+        }
+
+        LittleEndianOutput out = new LittleEndianOutput(stream);
+        Location first = rows.isEmpty() ? null : rows.get(0);
+        writeHeader(out, TYPE_LOCATION, nextCursor, rows.size(),
+                first != null ? first.getSessionKey() : 0, first != null ? first.getDriverNumber() : 0);
+
+        for (Location row : rows) {
+            out.writeLong(epochMillis(row.getDate()));
+        }
+        for (Location row : rows) {
+            out.writeInt(row.getX());
+        }
+        for (Location row : rows) {
+            out.writeInt(row.getY());
+        }
+        for (Location row : rows) {
+            out.writeInt(row.getZ());
+        }
+        out.flush();
+    }
+
+    /**
+     * Write a page of the off-heap store, one cursor pass per column
+     */
+    private static void writeLocations(LocationSeries.Rows rows, String nextCursor, OutputStream stream)
+            throws IOException {
+        LittleEndianOutput out = new LittleEndianOutput(stream);
+        LocationSeries series = rows.getSeries();
+        boolean empty = rows.isEmpty();
+        writeHeader(out, TYPE_LOCATION, nextCursor, rows.size(),
+                empty ? 0 : series.getSessionKey(), empty ? 0 : series.getDriverNumber());
+
+        LocationCursor cursor = rows.cursor();
+        while (cursor.next()) {
+            out.writeLong(cursor.getTime());
+        }
+        cursor = rows.cursor();
+        while (cursor.next()) {
+            out.writeInt(cursor.getX());
+        }
+        cursor = rows.cursor();
+        while (cursor.next()) {
+            out.writeInt(cursor.getY());
+        }
+        cursor = rows.cursor();
+        while (cursor.next()) {
+            out.writeInt(cursor.getZ());
+        }
+        out.flush();
+    }
+
+    public static void writeTelemetry(TelemetryPoints points, OutputStream stream) throws IOException {
+        LittleEndianOutput out = new LittleEndianOutput(stream);
+        long[] timestamps = points.getTimestamps();
+        int[] values = points.getValues();
+
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(TYPE_TELEMETRY);
+        out.writeString(points.getChannel());
+        out.writeInt(values.length);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(points.getSourceCount());
+        out.padTo(8);
+
+        for (long timestamp : timestamps) {
+            out.writeLong(timestamp);
+        }
+        for (int value : values) {
+            out.writeInt(value);
+        }
+        out.flush();
+    }
+
+    private static void writeHeader(LittleEndianOutput out, int type, String text, int count,
+                                    int sessionKey, int driverNumber) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        out.writeString(text);
+        out.writeInt(count);
+        out.writeInt(sessionKey);
+        out.writeInt(driverNumber);
+        out.padTo(8);
+    }
+
+    private static long epochMillis(OffsetDateTime date) {
+        return date != null ? date.toInstant().toEpochMilli() : 0L;
+    }
+
+    /**
+     * Buffered little-endian writer that tracks its position for padding
+     */
+    private static final class LittleEndianOutput {
+        private final OutputStream stream;
+        private final byte[] buffer = new byte[8192];
+        private int length;
+        private long position;
+
+        LittleEndianOutput(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (length == buffer.length) {
+                drain();
+            }
+            buffer[length++] = (byte) value;
+            position++;
+        }
+
+        void writeShort(int value) throws IOException {
+            ensure(2);
+            buffer[length++] = (byte) value;
+            buffer[length++] = (byte) (value >> 8);
+            position += 2;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(4);
+            buffer[length++] = (byte) value;
+            buffer[length++] = (byte) (value >> 8);
+            buffer[length++] = (byte) (value >> 16);
+            buffer[length++] = (byte) (value >> 24);
+            position += 4;
+        }
+
+        void writeLong(long value) throws IOException {
+            ensure(8);
+            for (int shift = 0; shift < 64; shift += 8) {
+                buffer[length++] = (byte) (value >> shift);
+            }
+            position += 8;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                writeByte(b);
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeShort(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeShort(bytes.length);
+            write(bytes);
+        }
+
+        void padTo(int alignment) throws IOException {
+            while (position % alignment != 0) {
+                writeByte(0);
+            }
+        }
+
+        void flush() throws IOException {
+            drain();
+            stream.flush();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (length + bytes > buffer.length) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            stream.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.f1.dashboard.util;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a series to a fixed number of points for charting.
+ * Both methods work on primitive arrays and return the indices of the kept
+ * samples in ascending order, so callers can pick timestamps and values alike.
+ * If the series already fits (or fewer than three points are asked of LTTB),
+ * every index is returned.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last sample and, from each
+     * bucket in between, the sample forming the largest triangle with the previously
+     * kept sample and the average of the next bucket. Preserves the visual shape.
+     */
+    public static int[] lttb(long[] xs, double[] ys, int length, int threshold) {
+        if (threshold >= length || threshold < 3) {
+            return all(length);
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        // Buckets cover the samples between the fixed first and last points
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (or the last sample for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            if (nextStart >= nextEnd) {
+                nextStart = length - 1;
+                nextEnd = length;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Work relative to the previous point so epoch-millis x values keep their precision
+            double ax = xs[previous];
+            double ay = ys[previous];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (ys[i] - ay) - (ax - xs[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            selected[count++] = chosen;
+            previous = chosen;
+        }
+
+        selected[count++] = length - 1;
+        return selected;
+    }
+
+    /**
+     * Min/max bucketing: keeps the lowest and highest sample of each bucket, in time
+     * order. Cheaper than LTTB and never hides a spike, at twice the points per bucket.
+     */
+    public static int[] minMax(double[] ys, int length, int threshold) {
+        int buckets = threshold / 2;
+        if (threshold >= length || buckets < 1) {
+            return all(length);
+        }
+
+        int[] selected = new int[buckets * 2];
+        int count = 0;
+        double bucketSize = (double) length / buckets;
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) (bucket * bucketSize);
+            int end = Math.min((int) ((bucket + 1) * bucketSize), length);
+            if (start >= end) {
+                continue;
+            }
+
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (ys[i] < ys[min]) {
+                    min = i;
+                } else if (ys[i] > ys[max]) {
+                    max = i;
+                }
+            }
+
+            selected[count++] = Math.min(min, max);
+            if (min != max) {
+                selected[count++] = Math.max(min, max);
+            }
+        }
+
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private static int[] all(int length) {
+        int[] indices = new int[length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
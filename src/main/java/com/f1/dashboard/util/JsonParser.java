@@ -19,6 +19,8 @@ import com.f1.dashboard.model.Interval;
 import com.f1.dashboard.model.LapData;
 import com.f1.dashboard.model.Location;
 import com.f1.dashboard.model.Meeting;
+import com.f1.dashboard.model.Position;
+import com.f1.dashboard.model.Stint;
 
 /**
  * Utility class for parsing JSON responses from the OpenF1 API
@@ -136,77 +138,62 @@ public class JsonParser {
             
             for (int i = 0; i < jsonArray.length(); i++) {
                 JSONObject json = jsonArray.getJSONObject(i);
-                LapData lapData = new LapData();
-                
-                lapData.setLapNumber(json.getInt("lap_number"));
-                lapData.setDriverNumber(json.getInt("driver_number"));
-                lapData.setSessionKey(json.getInt("session_key"));
-                lapData.setMeetingKey(json.getInt("meeting_key"));
-                
-                if (json.has("date_start")) {
-                    lapData.setDateStart(OffsetDateTime.parse(json.getString("date_start")));
+                LapData.Builder lapData = LapData.builder()
+                        .lapNumber(json.getInt("lap_number"))
+                        .driverNumber(json.getInt("driver_number"))
+                        .sessionKey(json.getInt("session_key"))
+                        .meetingKey(json.getInt("meeting_key"));
+                
+                // Untimed laps and unset speed traps come through as nulls
+                if (!json.isNull("date_start")) {
+                    lapData.dateStart(OffsetDateTime.parse(json.getString("date_start")));
                 }
                 
-                if (json.has("lap_duration")) {
-                    lapData.setLapDuration(json.getDouble("lap_duration"));
+                if (!json.isNull("lap_duration")) {
+                    lapData.lapDuration(json.getDouble("lap_duration"));
                 }
                 
-                if (json.has("duration_sector_1")) {
-                    lapData.setDurationSector1(json.getDouble("duration_sector_1"));
+                if (!json.isNull("duration_sector_1")) {
+                    lapData.durationSector1(json.getDouble("duration_sector_1"));
                 }
                 
-                if (json.has("duration_sector_2")) {
-                    lapData.setDurationSector2(json.getDouble("duration_sector_2"));
+                if (!json.isNull("duration_sector_2")) {
+                    lapData.durationSector2(json.getDouble("duration_sector_2"));
                 }
                 
-                if (json.has("duration_sector_3")) {
-                    lapData.setDurationSector3(json.getDouble("duration_sector_3"));
+                if (!json.isNull("duration_sector_3")) {
+                    lapData.durationSector3(json.getDouble("duration_sector_3"));
                 }
                 
-                if (json.has("i1_speed")) {
-                    lapData.setI1Speed(json.getInt("i1_speed"));
+                if (!json.isNull("i1_speed")) {
+                    lapData.i1Speed(json.getInt("i1_speed"));
                 }
                 
-                if (json.has("i2_speed")) {
-                    lapData.setI2Speed(json.getInt("i2_speed"));
+                if (!json.isNull("i2_speed")) {
+                    lapData.i2Speed(json.getInt("i2_speed"));
                 }
                 
-                if (json.has("st_speed")) {
-                    lapData.setStSpeed(json.getInt("st_speed"));
+                if (!json.isNull("st_speed")) {
+                    lapData.stSpeed(json.getInt("st_speed"));
                 }
                 
-                if (json.has("is_pit_out_lap")) {
-                    lapData.setIsPitOutLap(json.getBoolean("is_pit_out_lap"));
+                if (!json.isNull("is_pit_out_lap")) {
+                    lapData.pitOutLap(json.getBoolean("is_pit_out_lap"));
                 }
                 
-                if (json.has("segments_sector_1")) {
-                    List<Integer> segments1 = new ArrayList<>();
-                    JSONArray segArray = json.getJSONArray("segments_sector_1");
-                    for (int j = 0; j < segArray.length(); j++) {
-                        segments1.add(segArray.getInt(j));
-                    }
-                    lapData.setSegmentsSector1(segments1);
+                if (!json.isNull("segments_sector_1")) {
+                    lapData.segmentsSector1(parseSegments(json.getJSONArray("segments_sector_1")));
                 }
                 
-                if (json.has("segments_sector_2")) {
-                    List<Integer> segments2 = new ArrayList<>();
-                    JSONArray segArray = json.getJSONArray("segments_sector_2");
-                    for (int j = 0; j < segArray.length(); j++) {
-                        segments2.add(segArray.getInt(j));
-                    }
-                    lapData.setSegmentsSector2(segments2);
+                if (!json.isNull("segments_sector_2")) {
+                    lapData.segmentsSector2(parseSegments(json.getJSONArray("segments_sector_2")));
                 }
                 
-                if (json.has("segments_sector_3")) {
-                    List<Integer> segments3 = new ArrayList<>();
-                    JSONArray segArray = json.getJSONArray("segments_sector_3");
-                    for (int j = 0; j < segArray.length(); j++) {
-                        segments3.add(segArray.getInt(j));
-                    }
-                    lapData.setSegmentsSector3(segments3);
+                if (!json.isNull("segments_sector_3")) {
+                    lapData.segmentsSector3(parseSegments(json.getJSONArray("segments_sector_3")));
                 }
                 
-                result.add(lapData);
+                result.add(lapData.build());
             }
             
             return result;
@@ -215,6 +202,17 @@ public class JsonParser {
             return Collections.emptyList();
         }
     }
+
+    /**
+     * Mini-sector codes; a segment not yet run is null and stored as 0
+     */
+    private static short[] parseSegments(JSONArray segArray) {
+        short[] segments = new short[segArray.length()];
+        for (int j = 0; j < segments.length; j++) {
+            segments[j] = (short) segArray.optInt(j, 0);
+        }
+        return segments;
+    }
     
     public List<Meeting> parseMeetings(String jsonString) {
         if (jsonString == null || jsonString.isEmpty()) {
@@ -335,6 +333,79 @@ public class JsonParser {
         }
     }
     
+    public List<Position> parsePositions(String jsonString) {
+        if (jsonString == null || jsonString.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        try {
+            List<Position> result = new ArrayList<>();
+            JSONArray jsonArray = new JSONArray(jsonString);
+            
+            for (int i = 0; i < jsonArray.length(); i++) {
+                JSONObject json = jsonArray.getJSONObject(i);
+                Position position = new Position();
+                
+                position.setDate(OffsetDateTime.parse(json.getString("date")));
+                position.setDriverNumber(json.getInt("driver_number"));
+                position.setMeetingKey(json.getInt("meeting_key"));
+                position.setSessionKey(json.getInt("session_key"));
+                position.setPosition(json.getInt("position"));
+                
+                result.add(position);
+            }
+            
+            return result;
+        } catch (JSONException e) {
+            logger.error("Error parsing position JSON: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
+    public List<Stint> parseStints(String jsonString) {
+        if (jsonString == null || jsonString.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        try {
+            List<Stint> result = new ArrayList<>();
+            JSONArray jsonArray = new JSONArray(jsonString);
+            
+            for (int i = 0; i < jsonArray.length(); i++) {
+                JSONObject json = jsonArray.getJSONObject(i);
+                Stint stint = new Stint();
+                
+                stint.setDriverNumber(json.getInt("driver_number"));
+                stint.setMeetingKey(json.getInt("meeting_key"));
+                stint.setSessionKey(json.getInt("session_key"));
+                stint.setStintNumber(json.getInt("stint_number"));
+                
+                if (!json.isNull("compound")) {
+                    stint.setCompound(json.getString("compound"));
+                }
+                
+                if (!json.isNull("lap_start")) {
+                    stint.setLapStart(json.getInt("lap_start"));
+                }
+                
+                if (!json.isNull("lap_end")) {
+                    stint.setLapEnd(json.getInt("lap_end"));
+                }
+                
+                if (!json.isNull("tyre_age_at_start")) {
+                    stint.setTyreAgeAtStart(json.getInt("tyre_age_at_start"));
+                }
+                
+                result.add(stint);
+            }
+            
+            return result;
+        } catch (JSONException e) {
+            logger.error("Error parsing stints JSON: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
     public List<Map<String, Object>> parseSessionsList(String jsonString) {
         if (jsonString == null || jsonString.isEmpty()) {
             return Collections.emptyList();
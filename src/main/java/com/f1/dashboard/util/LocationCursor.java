@@ -0,0 +1,130 @@
+package com.f1.dashboard.util;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import com.f1.dashboard.model.Location;
+
+/**
+ * Flyweight over runs of off-heap location records. Call next() to move to each
+ * record in turn and read its fields through the getters; nothing is allocated
+ * per record. A cursor is not thread-safe, but any number can be open at once.
+ */
+public final class LocationCursor {
+
+    private final SessionLocations session;
+    private final int[] driverNumbers;
+    private final ByteBuffer[] records;
+    private final int[] positions;
+    private final int[] ends;
+    private int remaining;
+    private ByteBuffer buffer;
+    private int driverNumber;
+    private int offset;
+
+    /**
+     * Iterate one driver's records [from, to)
+     */
+    LocationCursor(SessionLocations session, int driverNumber, ByteBuffer records, int from, int to) {
+        this(session, new int[] {driverNumber}, new ByteBuffer[] {records}, new int[] {from}, new int[] {to});
+    }
+
+    /**
+     * Iterate several drivers' records [from[i], to[i]), merged into time order;
+     * ties go to the driver listed first
+     */
+    LocationCursor(SessionLocations session, int[] driverNumbers, ByteBuffer[] records, int[] from, int[] to) {
+        this.session = session;
+        this.driverNumbers = driverNumbers;
+        this.records = records;
+        this.positions = from;
+        this.ends = to;
+        for (int i = 0; i < from.length; i++) {
+            remaining += to[i] - from[i];
+        }
+    }
+
+    /**
+     * Advance to the next record; false once the range is exhausted
+     */
+    public boolean next() {
+        if (remaining == 0) {
+            buffer = null;
+            return false;
+        }
+
+        int next = 0;
+        if (records.length > 1) {
+            // A grid is ~20 drivers, few enough that a scan beats keeping a heap
+            next = -1;
+            long earliest = 0;
+            for (int i = 0; i < records.length; i++) {
+                if (positions[i] < ends[i]) {
+                    long time = records[i].getLong(positions[i] * SessionLocations.RECORD_BYTES
+                            + SessionLocations.TIME_OFFSET);
+                    if (next < 0 || time < earliest) {
+                        next = i;
+                        earliest = time;
+                    }
+                }
+            }
+        }
+
+        buffer = records[next];
+        driverNumber = driverNumbers[next];
+        offset = positions[next]++ * SessionLocations.RECORD_BYTES;
+        remaining--;
+        return true;
+    }
+
+    /**
+     * Number of records left after the current one
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    public long getTime() {
+        return current().getLong(offset + SessionLocations.TIME_OFFSET);
+    }
+
+    public int getDriverNumber() {
+        current();
+        return driverNumber;
+    }
+
+    public int getX() {
+        return current().getInt(offset + SessionLocations.X_OFFSET);
+    }
+
+    public int getY() {
+        return current().getInt(offset + SessionLocations.Y_OFFSET);
+    }
+
+    public int getZ() {
+        return current().getInt(offset + SessionLocations.Z_OFFSET);
+    }
+
+    /**
+     * Copy the current record into a new Location, for callers that need an object
+     */
+    public Location toLocation() {
+        Location location = new Location();
+        location.setDate(Instant.ofEpochMilli(getTime()).atOffset(ZoneOffset.UTC));
+        location.setDriverNumber(getDriverNumber());
+        location.setSessionKey(session.getSessionKey());
+        location.setMeetingKey(session.getMeetingKey());
+        location.setX(getX());
+        location.setY(getY());
+        location.setZ(getZ());
+        return location;
+    }
+
+    private ByteBuffer current() {
+        if (buffer == null) {
+            throw new IllegalStateException("Cursor is not on a record");
+        }
+        return buffer;
+    }
+}
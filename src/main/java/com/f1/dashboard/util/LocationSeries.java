@@ -0,0 +1,202 @@
+package com.f1.dashboard.util;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import com.f1.dashboard.model.Location;
+import com.f1.dashboard.model.SeriesPage;
+
+/**
+ * One driver's location samples within an off-heap session snapshot, in time order.
+ * Positions here are indexes into the driver's own segment of the session.
+ */
+public final class LocationSeries {
+
+    private static final LocationSeries EMPTY =
+            new LocationSeries(SessionLocations.empty(0), 0, ByteBuffer.allocateDirect(0), 0);
+
+    private final SessionLocations session;
+    private final int driverNumber;
+    private final ByteBuffer records;
+    private final int count;
+
+    LocationSeries(SessionLocations session, int driverNumber, ByteBuffer records, int count) {
+        this.session = session;
+        this.driverNumber = driverNumber;
+        this.records = records;
+        this.count = count;
+    }
+
+    public static LocationSeries empty() {
+        return EMPTY;
+    }
+
+    public int getSessionKey() {
+        return session.getSessionKey();
+    }
+
+    public int getDriverNumber() {
+        return driverNumber;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long timeAt(int index) {
+        return records.getLong(index * SessionLocations.RECORD_BYTES + SessionLocations.TIME_OFFSET);
+    }
+
+    public int xAt(int index) {
+        return records.getInt(index * SessionLocations.RECORD_BYTES + SessionLocations.X_OFFSET);
+    }
+
+    public int yAt(int index) {
+        return records.getInt(index * SessionLocations.RECORD_BYTES + SessionLocations.Y_OFFSET);
+    }
+
+    public int zAt(int index) {
+        return records.getInt(index * SessionLocations.RECORD_BYTES + SessionLocations.Z_OFFSET);
+    }
+
+    /**
+     * Index of the first sample at or after the given epoch millis
+     */
+    public int lowerBound(long time) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first sample after the given epoch millis
+     */
+    public int upperBound(long time) {
+        return upperBound(time, 0, count);
+    }
+
+    /**
+     * Index of the first sample after the given epoch millis, searching only
+     * [fromIndex, toIndex) of samples already known to bracket it
+     */
+    public int upperBound(long time, int fromIndex, int toIndex) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Cursor over the samples [fromIndex, toIndex)
+     */
+    public LocationCursor cursor(int fromIndex, int toIndex) {
+        SessionLocations.checkRange(fromIndex, toIndex, count);
+        return new LocationCursor(session, driverNumber, records, fromIndex, toIndex);
+    }
+
+    ByteBuffer records() {
+        return records;
+    }
+
+    /**
+     * Page through the index range [fromIndex, toIndex), resuming from the cursor if given.
+     * The page's items are a view that creates each Location as it is read.
+     */
+    public SeriesPage<Location> page(int fromIndex, int toIndex, String cursor, int limit) {
+        int start = fromIndex;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] position = SeriesCursor.decode(cursor);
+            start = Math.max(start, (int) Math.min(lowerBound(position[0]) + position[1], upperBound(position[0])));
+        }
+
+        int end = (int) Math.min((long) start + limit, toIndex);
+        if (start >= end) {
+            return new SeriesPage<>(Collections.emptyList(), null);
+        }
+
+        String nextCursor = null;
+        if (end < toIndex) {
+            long time = timeAt(end);
+            nextCursor = SeriesCursor.encode(time, end - lowerBound(time));
+        }
+        return new SeriesPage<>(new Rows(start, end), nextCursor);
+    }
+
+    /**
+     * List view over a range of this series; encoders can walk it with a cursor instead
+     */
+    public final class Rows extends AbstractList<Location> implements RandomAccess {
+        private final int fromIndex;
+        private final int toIndex;
+
+        private Rows(int fromIndex, int toIndex) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        public LocationSeries getSeries() {
+            return LocationSeries.this;
+        }
+
+        public LocationCursor cursor() {
+            return LocationSeries.this.cursor(fromIndex, toIndex);
+        }
+
+        @Override
+        public Location get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            LocationCursor row = LocationSeries.this.cursor(fromIndex + index, fromIndex + index + 1);
+            row.next();
+            return row.toLocation();
+        }
+
+        @Override
+        public Iterator<Location> iterator() {
+            LocationCursor rows = cursor();
+            return new Iterator<Location>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.remaining() > 0;
+                }
+
+                @Override
+                public Location next() {
+                    if (!rows.next()) {
+                        throw new NoSuchElementException();
+                    }
+                    return rows.toLocation();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+    }
+}
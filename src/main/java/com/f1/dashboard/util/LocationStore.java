@@ -0,0 +1,79 @@
+package com.f1.dashboard.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.f1.dashboard.model.Location;
+
+/**
+ * Off-heap location samples for every cached session. Writers for the same session
+ * are serialised; readers get immutable snapshots and never block.
+ */
+public class LocationStore {
+
+    private final Map<Integer, SessionLocations> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The session's snapshot, or null if no driver of it is loaded
+     */
+    public SessionLocations getSession(int sessionKey) {
+        return sessions.get(sessionKey);
+    }
+
+    /**
+     * A driver's samples, or null if the driver is not loaded
+     */
+    public LocationSeries get(int sessionKey, int driverNumber) {
+        SessionLocations session = sessions.get(sessionKey);
+        return session != null ? session.driver(driverNumber) : null;
+    }
+
+    /**
+     * Replace a driver's samples
+     */
+    public LocationSeries put(int sessionKey, int driverNumber, List<Location> samples) {
+        return update(sessionKey, driverNumber, samples, true);
+    }
+
+    /**
+     * Add samples to a driver's series, loading the driver if needed
+     */
+    public LocationSeries append(int sessionKey, int driverNumber, List<Location> samples) {
+        return update(sessionKey, driverNumber, samples, false);
+    }
+
+    public void remove(int sessionKey, int driverNumber) {
+        sessions.computeIfPresent(sessionKey, (key, session) -> session.withoutDriver(driverNumber));
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getRecordCount() {
+        long records = 0;
+        for (SessionLocations session : sessions.values()) {
+            records += session.size();
+        }
+        return records;
+    }
+
+    /**
+     * Direct memory held by the driver segments of every stored session
+     */
+    public long getOffHeapBytes() {
+        long bytes = 0;
+        for (SessionLocations session : sessions.values()) {
+            bytes += session.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    private LocationSeries update(int sessionKey, int driverNumber, List<Location> samples, boolean replace) {
+        SessionLocations updated = sessions.compute(sessionKey, (key, session) ->
+                (session != null ? session : SessionLocations.empty(sessionKey))
+                        .withDriver(driverNumber, samples, replace));
+        return updated.driver(driverNumber);
+    }
+}
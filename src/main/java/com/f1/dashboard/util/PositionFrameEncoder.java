@@ -0,0 +1,148 @@
+package com.f1.dashboard.util;
+
+import java.util.Arrays;
+
+/**
+ * Encodes per-frame car positions into compact binary frames for the WebSocket feed.
+ *
+ * Frame layout (all integers are LEB128 varints, signed values zigzag-encoded first):
+ * <pre>
+ *   byte    frame type: 0 = keyframe, 1 = delta frame
+ *   varint  keyframe: frame time in epoch millis; delta frame: millis since the previous frame
+ *   varint  car count
+ *   per car:
+ *     varint  driver number
+ *     zigzag  keyframe: x, y; delta frame: x and y minus that car's previous x and y
+ * </pre>
+ * A keyframe carries every known car; a delta frame carries only cars that moved.
+ * Keyframes are emitted periodically so clients that missed a frame resynchronise.
+ * Instances are not thread-safe; callers serialise access per session.
+ */
+public class PositionFrameEncoder {
+
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA_FRAME = 1;
+
+    private final int keyframeInterval;
+
+    // Last encoded position per driver number
+    private int[] lastX = new int[100];
+    private int[] lastY = new int[100];
+    private boolean[] known = new boolean[100];
+    private int knownCount;
+
+    private long lastFrameTime = -1;
+    private int framesSinceKeyframe;
+
+    public PositionFrameEncoder(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Encode the next frame from the first 'count' entries of the given arrays
+     */
+    public byte[] encode(long frameTime, int[] driverNumbers, int[] xs, int[] ys, int count) {
+        boolean keyframe = lastFrameTime < 0 || framesSinceKeyframe >= keyframeInterval
+                || frameTime < lastFrameTime;
+        for (int i = 0; i < count && !keyframe; i++) {
+            int driver = driverNumbers[i];
+            keyframe = driver >= known.length || !known[driver];
+        }
+
+        if (keyframe) {
+            for (int i = 0; i < count; i++) {
+                remember(driverNumbers[i], xs[i], ys[i]);
+            }
+            lastFrameTime = frameTime;
+            framesSinceKeyframe = 0;
+            return writeKeyframe();
+        }
+
+        FrameBuffer out = new FrameBuffer(8 + count * 6);
+        out.writeByte(DELTA_FRAME);
+        out.writeVarint(frameTime - lastFrameTime);
+        out.writeVarint(count);
+        for (int i = 0; i < count; i++) {
+            int driver = driverNumbers[i];
+            out.writeVarint(driver);
+            out.writeZigZag(xs[i] - lastX[driver]);
+            out.writeZigZag(ys[i] - lastY[driver]);
+            lastX[driver] = xs[i];
+            lastY[driver] = ys[i];
+        }
+
+        lastFrameTime = frameTime;
+        framesSinceKeyframe++;
+        return out.toByteArray();
+    }
+
+    /**
+     * Keyframe of the current state, for clients joining mid-stream. Does not
+     * advance the frame sequence, so later delta frames stay valid for them.
+     */
+    public byte[] currentKeyframe() {
+        return lastFrameTime < 0 ? null : writeKeyframe();
+    }
+
+    private byte[] writeKeyframe() {
+        FrameBuffer out = new FrameBuffer(16 + knownCount * 8);
+        out.writeByte(KEYFRAME);
+        out.writeVarint(lastFrameTime);
+        out.writeVarint(knownCount);
+        for (int driver = 0; driver < known.length; driver++) {
+            if (known[driver]) {
+                out.writeVarint(driver);
+                out.writeZigZag(lastX[driver]);
+                out.writeZigZag(lastY[driver]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private void remember(int driver, int x, int y) {
+        if (driver >= known.length) {
+            int capacity = Math.max(driver + 1, known.length * 2);
+            lastX = Arrays.copyOf(lastX, capacity);
+            lastY = Arrays.copyOf(lastY, capacity);
+            known = Arrays.copyOf(known, capacity);
+        }
+        if (!known[driver]) {
+            known[driver] = true;
+            knownCount++;
+        }
+        lastX[driver] = x;
+        lastY[driver] = y;
+    }
+
+    private static final class FrameBuffer {
+        private byte[] bytes;
+        private int length;
+
+        FrameBuffer(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        void writeByte(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeZigZag(int value) {
+            writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
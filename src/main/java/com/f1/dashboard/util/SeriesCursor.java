@@ -0,0 +1,44 @@
+package com.f1.dashboard.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page cursors for sorted series. A cursor holds the key of the next element
+ * plus its offset among elements sharing that key, so it stays valid while newer
+ * samples are appended to a live series.
+ */
+final class SeriesCursor {
+
+    private SeriesCursor() {
+    }
+
+    static String encode(long key, int offset) {
+        String token = key + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into {key, offset}
+     */
+    static long[] decode(String cursor) {
+        String token;
+        try {
+            token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+
+        int separator = token.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        try {
+            return new long[] {Long.parseLong(token.substring(0, separator)),
+                    Integer.parseInt(token.substring(separator + 1))};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
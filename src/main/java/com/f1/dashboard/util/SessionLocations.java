@@ -0,0 +1,266 @@
+package com.f1.dashboard.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.f1.dashboard.model.Location;
+
+/**
+ * All loaded location samples of one session, stored off-heap as one segment per
+ * driver. A segment is a direct buffer of fixed-width records sorted by time:
+ *
+ * <pre>
+ *   record (20 bytes, native byte order)
+ *     int64  date (epoch ms)
+ *     int32  x
+ *     int32  y
+ *     int32  z
+ * </pre>
+ * Instances are immutable snapshots. Loading a driver only rebuilds that driver's
+ * segment, and samples newer than the segment's last one are appended in place into
+ * its spare capacity, which older snapshots never read. Readers wanting the whole
+ * session in time order get a cursor that merges the segments as it goes.
+ */
+public final class SessionLocations {
+
+    static final int RECORD_BYTES = 20;
+    static final int TIME_OFFSET = 0;
+    static final int X_OFFSET = 8;
+    static final int Y_OFFSET = 12;
+    static final int Z_OFFSET = 16;
+
+    private final int sessionKey;
+    private final int meetingKey;
+    // Each loaded driver's segment and how many of its records this snapshot sees
+    private final Map<Integer, DriverRecords> drivers;
+    private final int count;
+
+    private SessionLocations(int sessionKey, int meetingKey, Map<Integer, DriverRecords> drivers) {
+        this.sessionKey = sessionKey;
+        this.meetingKey = meetingKey;
+        this.drivers = drivers;
+        int total = 0;
+        for (DriverRecords records : drivers.values()) {
+            total += records.count;
+        }
+        this.count = total;
+    }
+
+    public static SessionLocations empty(int sessionKey) {
+        return new SessionLocations(sessionKey, 0, Collections.emptyMap());
+    }
+
+    /**
+     * Snapshot with a driver's samples added. With 'replace' set the driver's current
+     * samples are dropped first; otherwise samples at the same time as an existing one
+     * are placed after it. The driver counts as loaded even if there are no samples.
+     */
+    public SessionLocations withDriver(int driverNumber, List<Location> samples, boolean replace) {
+        List<Location> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparingLong(SessionLocations::epochMillis));
+
+        DriverRecords current = drivers.get(driverNumber);
+        DriverRecords updated = replace || current == null
+                ? DriverRecords.EMPTY.merge(sorted, sorted.size())
+                : current.append(sorted);
+        int meeting = meetingKey != 0 || sorted.isEmpty() ? meetingKey : sorted.get(0).getMeetingKey();
+
+        Map<Integer, DriverRecords> index = new HashMap<>(drivers);
+        index.put(driverNumber, updated);
+        return new SessionLocations(sessionKey, meeting, Collections.unmodifiableMap(index));
+    }
+
+    /**
+     * Snapshot without the given driver, or null if no drivers would be left
+     */
+    public SessionLocations withoutDriver(int driverNumber) {
+        if (!drivers.containsKey(driverNumber)) {
+            return this;
+        }
+        if (drivers.size() == 1) {
+            return null;
+        }
+
+        Map<Integer, DriverRecords> index = new HashMap<>(drivers);
+        index.remove(driverNumber);
+        return new SessionLocations(sessionKey, meetingKey, Collections.unmodifiableMap(index));
+    }
+
+    public int getSessionKey() {
+        return sessionKey;
+    }
+
+    public int getMeetingKey() {
+        return meetingKey;
+    }
+
+    /**
+     * Number of records across all drivers
+     */
+    public int size() {
+        return count;
+    }
+
+    public Set<Integer> getDrivers() {
+        return drivers.keySet();
+    }
+
+    /**
+     * One driver's samples, or null if the driver has not been loaded
+     */
+    public LocationSeries driver(int driverNumber) {
+        DriverRecords records = drivers.get(driverNumber);
+        return records != null
+                ? new LocationSeries(this, driverNumber, records.segment.buffer, records.count)
+                : null;
+    }
+
+    /**
+     * Cursor over every driver's samples from fromTime up to but excluding toTime,
+     * merged into time order. Samples at the same time come in driver number order.
+     */
+    public LocationCursor cursor(long fromTime, long toTime) {
+        List<Integer> numbers = new ArrayList<>(drivers.keySet());
+        Collections.sort(numbers);
+
+        int[] driverNumbers = new int[numbers.size()];
+        ByteBuffer[] buffers = new ByteBuffer[numbers.size()];
+        int[] from = new int[numbers.size()];
+        int[] to = new int[numbers.size()];
+        for (int i = 0; i < numbers.size(); i++) {
+            LocationSeries series = driver(numbers.get(i));
+            driverNumbers[i] = series.getDriverNumber();
+            buffers[i] = series.records();
+            from[i] = series.lowerBound(fromTime);
+            to[i] = Math.max(from[i], series.lowerBound(toTime));
+        }
+        return new LocationCursor(this, driverNumbers, buffers, from, to);
+    }
+
+    /**
+     * Direct memory held by the drivers' segments, spare capacity included;
+     * invisible to the garbage collector
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (DriverRecords records : drivers.values()) {
+            bytes += records.segment.buffer.capacity();
+        }
+        return bytes;
+    }
+
+    static void checkRange(int from, int to, int size) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);
+        }
+    }
+
+    private static long epochMillis(Location sample) {
+        return sample.getDate().toInstant().toEpochMilli();
+    }
+
+    /**
+     * A driver's segment as one snapshot sees it: the first 'count' records
+     */
+    private static final class DriverRecords {
+        static final DriverRecords EMPTY = new DriverRecords(new Segment(0), 0);
+
+        private final Segment segment;
+        private final int count;
+
+        DriverRecords(Segment segment, int count) {
+            this.segment = segment;
+            this.count = count;
+        }
+
+        /**
+         * Records with the sorted samples added, written in place when they all come
+         * after the last record and the segment has room past this snapshot's end
+         */
+        DriverRecords append(List<Location> sorted) {
+            if (sorted.isEmpty()) {
+                return this;
+            }
+            boolean inOrder = count == 0 || epochMillis(sorted.get(0)) >= timeAt(count - 1);
+            if (inOrder && segment.claim(count, sorted.size())) {
+                for (int j = 0; j < sorted.size(); j++) {
+                    segment.put(count + j, sorted.get(j));
+                }
+                return new DriverRecords(segment, count + sorted.size());
+            }
+
+            // Leave room for later top-ups so live sessions don't copy the segment on each one
+            int total = count + sorted.size();
+            return merge(sorted, total + (total >> 1));
+        }
+
+        /**
+         * Records merged with the sorted samples into a new segment of the given capacity
+         */
+        DriverRecords merge(List<Location> sorted, int capacity) {
+            int total = count + sorted.size();
+            Segment merged = new Segment(capacity);
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < total; k++) {
+                if (j >= sorted.size() || (i < count && timeAt(i) <= epochMillis(sorted.get(j)))) {
+                    merged.copy(k, segment, i++);
+                } else {
+                    merged.put(k, sorted.get(j++));
+                }
+            }
+            merged.claim(0, total);
+            return new DriverRecords(merged, total);
+        }
+
+        private long timeAt(int record) {
+            return segment.buffer.getLong(record * RECORD_BYTES + TIME_OFFSET);
+        }
+    }
+
+    /**
+     * One driver's direct buffer. Records past 'used' are free; a snapshot ending
+     * exactly at 'used' may claim them. Writers of a session are serialised by the
+     * store, so a claimed range is only ever written by one thread.
+     */
+    private static final class Segment {
+        private final ByteBuffer buffer;
+        private int used;
+
+        Segment(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        synchronized boolean claim(int from, int length) {
+            if (used != from || (long) (from + length) * RECORD_BYTES > buffer.capacity()) {
+                return false;
+            }
+            used = from + length;
+            return true;
+        }
+
+        void put(int record, Location sample) {
+            int offset = record * RECORD_BYTES;
+            buffer.putLong(offset + TIME_OFFSET, epochMillis(sample));
+            buffer.putInt(offset + X_OFFSET, sample.getX());
+            buffer.putInt(offset + Y_OFFSET, sample.getY());
+            buffer.putInt(offset + Z_OFFSET, sample.getZ());
+        }
+
+        void copy(int record, Segment source, int sourceRecord) {
+            int offset = record * RECORD_BYTES;
+            int from = sourceRecord * RECORD_BYTES;
+            buffer.putLong(offset + TIME_OFFSET, source.buffer.getLong(from + TIME_OFFSET));
+            buffer.putInt(offset + X_OFFSET, source.buffer.getInt(from + X_OFFSET));
+            buffer.putInt(offset + Y_OFFSET, source.buffer.getInt(from + Y_OFFSET));
+            buffer.putInt(offset + Z_OFFSET, source.buffer.getInt(from + Z_OFFSET));
+        }
+    }
+}
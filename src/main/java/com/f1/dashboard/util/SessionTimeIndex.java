@@ -0,0 +1,240 @@
+package com.f1.dashboard.util;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.f1.dashboard.model.CarState;
+import com.f1.dashboard.model.Driver;
+import com.f1.dashboard.model.Interval;
+import com.f1.dashboard.model.LapData;
+import com.f1.dashboard.model.SessionSnapshot;
+
+/**
+ * "Where was everyone at time t" for one session. Each driver's location, interval
+ * and lap series is searched by binary search on its sorted epoch times. Checkpoints
+ * taken every few seconds record each driver's location index, so a lookup only
+ * searches the samples between two checkpoints: O(drivers x log n) per snapshot.
+ * Immutable once built.
+ */
+public final class SessionTimeIndex {
+
+    private final int sessionKey;
+    private final long[] sourceVersions;
+    private final DriverTrack[] tracks;
+
+    private final long checkpointIntervalMillis;
+    private final long firstCheckpoint;
+    // checkpoints[k][d]: index of driver d's first location sample at or after checkpoint k
+    private final int[][] checkpoints;
+
+    /**
+     * Build from per-driver series given in the same order as the drivers.
+     * 'sourceVersions' identifies the data the index was built from.
+     */
+    public SessionTimeIndex(int sessionKey, List<Driver> drivers, List<LocationSeries> locations,
+                            List<TimeSeries<Interval>> intervals, List<TimeSeries<LapData>> laps,
+                            long checkpointIntervalMillis, long[] sourceVersions) {
+        this.sessionKey = sessionKey;
+        this.sourceVersions = sourceVersions.clone();
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+
+        this.tracks = new DriverTrack[drivers.size()];
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int d = 0; d < tracks.length; d++) {
+            tracks[d] = new DriverTrack(drivers.get(d), locations.get(d), intervals.get(d), laps.get(d));
+            LocationSeries series = tracks[d].locations;
+            if (!series.isEmpty()) {
+                first = Math.min(first, series.timeAt(0));
+                last = Math.max(last, series.timeAt(series.size() - 1));
+            }
+        }
+
+        if (first > last) {
+            this.firstCheckpoint = 0;
+            this.checkpoints = new int[0][];
+            return;
+        }
+
+        this.firstCheckpoint = first;
+        int count = (int) ((last - first) / checkpointIntervalMillis) + 1;
+        this.checkpoints = new int[count][tracks.length];
+        for (int d = 0; d < tracks.length; d++) {
+            LocationSeries series = tracks[d].locations;
+            int index = 0;
+            for (int k = 0; k < count; k++) {
+                // Checkpoints are increasing, so each search resumes where the last one ended;
+                // the first sample after (time - 1) is the first one at or after time
+                long time = first + k * checkpointIntervalMillis;
+                index = series.upperBound(time - 1, index, series.size());
+                checkpoints[k][d] = index;
+            }
+        }
+    }
+
+    public int getSessionKey() {
+        return sessionKey;
+    }
+
+    public boolean isBuiltFrom(long[] versions) {
+        return Arrays.equals(sourceVersions, versions);
+    }
+
+    /**
+     * Version of the data the index was built from, for ETags; 0 if nothing was cached
+     */
+    public long getVersion() {
+        long version = 0;
+        for (long sourceVersion : sourceVersions) {
+            version = Math.max(version, sourceVersion);
+        }
+        return version;
+    }
+
+    /**
+     * Every car's state at the given epoch millis, in running order
+     */
+    public SessionSnapshot snapshotAt(long time) {
+        int k = -1;
+        if (checkpoints.length > 0 && time >= firstCheckpoint) {
+            k = (int) Math.min((time - firstCheckpoint) / checkpointIntervalMillis, checkpoints.length - 1);
+        }
+
+        List<CarState> cars = new ArrayList<>(tracks.length);
+        for (int d = 0; d < tracks.length; d++) {
+            DriverTrack track = tracks[d];
+            int size = track.locations.size();
+            int from = k >= 0 ? checkpoints[k][d] : 0;
+            int to = k + 1 < checkpoints.length ? checkpoints[k + 1][d] : size;
+            cars.add(track.stateAt(time, track.locations.upperBound(time, from, to)));
+        }
+
+        cars.sort(Comparator.comparingDouble(SessionTimeIndex::progress).reversed()
+                .thenComparingDouble(car -> car.getGapToLeader() != null ? car.getGapToLeader() : Double.MAX_VALUE));
+        for (int i = 0; i < cars.size(); i++) {
+            cars.get(i).setPosition(i + 1);
+        }
+
+        return new SessionSnapshot(sessionKey, Instant.ofEpochMilli(time).atOffset(ZoneOffset.UTC), cars);
+    }
+
+    private static double progress(CarState car) {
+        if (car.getLapNumber() == null) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return car.getLapNumber() + (car.getLapFraction() != null ? car.getLapFraction() : 0);
+    }
+
+    /**
+     * One driver's series, with lap start times pulled out into a sorted array
+     */
+    private static final class DriverTrack {
+        private final Driver driver;
+        private final LocationSeries locations;
+        private final TimeSeries<Interval> intervals;
+        private final long[] lapStarts;
+        private final int[] lapNumbers;
+        private final long[] lapDurations;
+
+        DriverTrack(Driver driver, LocationSeries locations, TimeSeries<Interval> intervals,
+                    TimeSeries<LapData> laps) {
+            this.driver = driver;
+            this.locations = locations;
+            this.intervals = intervals;
+
+            // Laps are keyed by number; their start times run in the same order
+            int count = 0;
+            long[] starts = new long[laps.size()];
+            int[] numbers = new int[laps.size()];
+            long[] durations = new long[laps.size()];
+            for (LapData lap : laps.items()) {
+                if (lap.dateStartMillis() != LapData.NO_DATE) {
+                    starts[count] = lap.dateStartMillis();
+                    numbers[count] = lap.getLapNumber();
+                    durations[count] = lap.lapDurationMillis();
+                    count++;
+                }
+            }
+            this.lapStarts = Arrays.copyOf(starts, count);
+            this.lapNumbers = Arrays.copyOf(numbers, count);
+            this.lapDurations = Arrays.copyOf(durations, count);
+        }
+
+        /**
+         * State at 'time', given the index of the first location sample after it
+         */
+        CarState stateAt(long time, int next) {
+            CarState car = new CarState();
+            car.setDriverNumber(driver.getDriverNumber());
+            car.setNameAcronym(driver.getNameAcronym());
+            car.setTeamName(driver.getTeamName());
+
+            if (next > 0) {
+                int previous = next - 1;
+                if (next < locations.size() && locations.timeAt(next) > locations.timeAt(previous)) {
+                    double f = (double) (time - locations.timeAt(previous))
+                            / (locations.timeAt(next) - locations.timeAt(previous));
+                    car.setX(lerp(locations.xAt(previous), locations.xAt(next), f));
+                    car.setY(lerp(locations.yAt(previous), locations.yAt(next), f));
+                    car.setZ(lerp(locations.zAt(previous), locations.zAt(next), f));
+                } else {
+                    car.setX(locations.xAt(previous));
+                    car.setY(locations.yAt(previous));
+                    car.setZ(locations.zAt(previous));
+                }
+            }
+
+            int interval = intervals.upperBound(time) - 1;
+            if (interval >= 0) {
+                car.setGapToLeader(intervals.get(interval).getGapToLeader());
+                car.setInterval(intervals.get(interval).getInterval());
+            }
+
+            int lap = upperBound(lapStarts, time) - 1;
+            if (lap >= 0) {
+                car.setLapNumber(lapNumbers[lap]);
+                long duration = lapDuration(lap);
+                if (duration > 0) {
+                    car.setLapFraction(Math.min((double) (time - lapStarts[lap]) / duration, 0.999));
+                }
+            }
+            return car;
+        }
+
+        /**
+         * Length of a lap in millis; a lap still in progress is assumed to take
+         * as long as the one before it
+         */
+        private long lapDuration(int lap) {
+            if (lapDurations[lap] > 0) {
+                return lapDurations[lap];
+            }
+            if (lap + 1 < lapStarts.length) {
+                return lapStarts[lap + 1] - lapStarts[lap];
+            }
+            return lap > 0 ? lapDurations[lap - 1] : 0;
+        }
+
+        private static int lerp(int from, int to, double f) {
+            return (int) Math.round(from + (to - from) * f);
+        }
+
+        private static int upperBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.f1.dashboard.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.f1.dashboard.model.CarData;
+
+/**
+ * Columnar car_data for every cached (session, driver) pair. Writers for the same
+ * pair are serialised; readers get immutable snapshots and never block.
+ */
+public class TelemetryStore {
+
+    private final Map<Long, CarDataSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * The stored series, or null if there is none
+     */
+    public CarDataSeries get(int sessionKey, int driverNumber) {
+        return series.get(key(sessionKey, driverNumber));
+    }
+
+    /**
+     * Replace the series with the given samples
+     */
+    public CarDataSeries put(int sessionKey, int driverNumber, List<CarData> samples) {
+        CarDataSeries stored = CarDataSeries.of(sessionKey, driverNumber, samples);
+        series.put(key(sessionKey, driverNumber), stored);
+        return stored;
+    }
+
+    /**
+     * Add samples to the series, creating it if needed
+     */
+    public CarDataSeries append(int sessionKey, int driverNumber, List<CarData> samples) {
+        return series.compute(key(sessionKey, driverNumber), (key, current) -> current != null
+                ? current.append(samples)
+                : CarDataSeries.of(sessionKey, driverNumber, samples));
+    }
+
+    public void remove(int sessionKey, int driverNumber) {
+        series.remove(key(sessionKey, driverNumber));
+    }
+
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    public long getSampleCount() {
+        long samples = 0;
+        for (CarDataSeries stored : series.values()) {
+            samples += stored.size();
+        }
+        return samples;
+    }
+
+    /**
+     * Heap held by the column arrays of every stored series
+     */
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (CarDataSeries stored : series.values()) {
+            bytes += stored.memoryBytes();
+        }
+        return bytes;
+    }
+
+    private static long key(int sessionKey, int driverNumber) {
+        return ((long) sessionKey << 32) | (driverNumber & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,156 @@
+package com.f1.dashboard.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import com.f1.dashboard.model.SeriesPage;
+
+/**
+ * Immutable per-driver series sorted by a long key (epoch millis or lap number).
+ * Keys are held in a primitive array so range lookups are binary searches
+ * instead of scans over the whole session.
+ */
+public class TimeSeries<T> {
+
+    private static final TimeSeries<?> EMPTY = new TimeSeries<>(Collections.emptyList(), new long[0]);
+
+    private final List<T> items;
+    private final long[] keys;
+
+    private TimeSeries(List<T> items, long[] keys) {
+        this.items = items;
+        this.keys = keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> TimeSeries<T> empty() {
+        return (TimeSeries<T>) EMPTY;
+    }
+
+    /**
+     * Build a series from unsorted items; the sort is stable so samples
+     * sharing a key keep their upstream order
+     */
+    public static <T> TimeSeries<T> of(List<T> items, ToLongFunction<T> keyFunction) {
+        if (items == null || items.isEmpty()) {
+            return empty();
+        }
+
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(keyFunction));
+
+        long[] keys = new long[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keyFunction.applyAsLong(sorted.get(i));
+        }
+
+        return new TimeSeries<>(Collections.unmodifiableList(sorted), keys);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    public List<T> subList(int fromIndex, int toIndex) {
+        return items.subList(fromIndex, toIndex);
+    }
+
+    /**
+     * Index of the first element whose key is >= the given key
+     */
+    public int lowerBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first element whose key is > the given key
+     */
+    public int upperBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lower bound on a secondary key that is ordered the same way as the primary
+     * key (e.g. lap start time for a series keyed by lap number)
+     */
+    public int lowerBound(ToLongFunction<T> keyFunction, long key) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyFunction.applyAsLong(items.get(mid)) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Page through the index range [fromIndex, toIndex), resuming from the cursor if given
+     */
+    public SeriesPage<T> page(int fromIndex, int toIndex, String cursor, int limit) {
+        int start = fromIndex;
+        if (cursor != null && !cursor.isEmpty()) {
+            start = Math.max(start, resolveCursor(cursor));
+        }
+
+        int end = (int) Math.min((long) start + limit, toIndex);
+        if (start >= end) {
+            return new SeriesPage<>(Collections.emptyList(), null);
+        }
+
+        String nextCursor = end < toIndex ? cursorAt(end) : null;
+        return new SeriesPage<>(items.subList(start, end), nextCursor);
+    }
+
+    private String cursorAt(int index) {
+        long key = keys[index];
+        return SeriesCursor.encode(key, index - lowerBound(key));
+    }
+
+    private int resolveCursor(String cursor) {
+        long[] position = SeriesCursor.decode(cursor);
+        return (int) Math.min(lowerBound(position[0]) + position[1], upperBound(position[0]));
+    }
+}
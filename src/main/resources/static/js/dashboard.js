@@ -14,6 +14,7 @@ document.addEventListener('DOMContentLoaded', function() {
     let drivers = [];
     let selectedDriverData = null;
     let lapData = [];
+    let liveFeed = null;
     
     // Event listeners
     raceSelect.addEventListener('change', handleRaceChange);
@@ -25,6 +26,7 @@ document.addEventListener('DOMContentLoaded', function() {
     function handleRaceChange() {
         const selectedRace = raceSelect.value;
         if (!selectedRace) {
+            closeLiveFeed();
             resetDriverSelect();
             return;
         }
@@ -33,6 +35,60 @@ document.addEventListener('DOMContentLoaded', function() {
         
         // Fetch drivers for selected race
         fetchDriversForRace(selectedRace);
+        
+        // Receive live updates as they arrive instead of refetching. The feed is
+        // per session, so look up the meeting's race session first.
+        closeLiveFeed();
+        fetch(`/api/races/${selectedRace}/session`)
+            .then(response => response.ok ? response.json() : null)
+            .then(session => {
+                // Skip meetings without a race session, and answers for a race no longer selected
+                if (session && raceSelect.value === selectedRace) {
+                    openLiveFeed(session.sessionKey);
+                }
+            })
+            .catch(error => console.warn('No live feed for race:', error));
+    }
+    
+    function openLiveFeed(sessionKey) {
+        closeLiveFeed();
+        if (!window.EventSource) {
+            return;
+        }
+        
+        liveFeed = new EventSource(`/api/sessions/${sessionKey}/live`);
+        liveFeed.addEventListener('position', event => handleLivePosition(JSON.parse(event.data)));
+        liveFeed.addEventListener('interval', event => handleLiveInterval(JSON.parse(event.data)));
+        liveFeed.addEventListener('lap', event => handleLiveLap(JSON.parse(event.data)));
+        liveFeed.onerror = () => console.warn('Live feed interrupted, the browser will reconnect');
+    }
+    
+    function closeLiveFeed() {
+        if (liveFeed) {
+            liveFeed.close();
+            liveFeed = null;
+        }
+    }
+    
+    function isSelectedDriver(update) {
+        return selectedDriverData && selectedDriverData.carNumber === update.driverNumber;
+    }
+    
+    function handleLivePosition(update) {
+        if (!isSelectedDriver(update)) return;
+        selectedDriverData.position = update.position;
+        displayDriverStats(selectedDriverData);
+    }
+    
+    function handleLiveInterval(update) {
+        if (!isSelectedDriver(update)) return;
+        selectedDriverData.gapToLeader = update.gapToLeader;
+        displayDriverStats(selectedDriverData);
+    }
+    
+    function handleLiveLap(update) {
+        if (!isSelectedDriver(update)) return;
+        currentLap.textContent = update.lapNumber;
     }
     
     function handleDriverChange() {
@@ -65,19 +121,19 @@ document.addEventListener('DOMContentLoaded', function() {
     }
     
     function fetchDriverData(driverId) {
-        // Replace with actual API call
-        fetch(`/api/drivers/${driverId}`)
-            .then(response => response.json())
-            .then(data => {
-                selectedDriverData = data;
+        // Driver info, laps and stints arrive together in one round-trip
+        fetch(`/api/drivers/${driverId}/bundle`)
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error(`Bundle request failed: ${response.status}`);
+                }
+                return response.json();
+            })
+            .then(bundle => {
+                selectedDriverData = bundle.driver;
                 displayDriverStats(selectedDriverData);
                 
-                // Now fetch lap data
-                return fetch(`/api/drivers/${driverId}/laps`);
-            })
-            .then(response => response.json())
-            .then(data => {
-                lapData = data;
+                lapData = bundle.laps;
                 initializeTimeline(lapData);
                 displayLapData(lapData);
                 updateTrackMap(lapData[0]);
@@ -126,6 +182,10 @@ document.addEventListener('DOMContentLoaded', function() {
             <div class="stats-item">
                 <span class="stats-label">Avg Speed:</span> ${driver.avgSpeed} km/h
             </div>
+            ${driver.gapToLeader !== undefined ? `
+            <div class="stats-item">
+                <span class="stats-label">Gap to Leader:</span> +${driver.gapToLeader}s
+            </div>` : ''}
         `;
     }
     
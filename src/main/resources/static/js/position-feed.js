@@ -0,0 +1,88 @@
+/**
+ * Client for the binary position feed at /ws/positions.
+ * Decodes keyframes and delta frames (see PositionFrameEncoder) into
+ * absolute positions keyed by driver number.
+ */
+function PositionFeed(sessionKey, onFrame) {
+    this.sessionKey = sessionKey;
+    this.positions = {};
+    this.frameTime = null;
+    this.onFrame = onFrame;
+    this.closed = false;
+    this.connect();
+}
+
+PositionFeed.prototype.connect = function() {
+    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    this.socket = new WebSocket(protocol + '//' + window.location.host + '/ws/positions?sessionKey=' + this.sessionKey);
+    this.socket.binaryType = 'arraybuffer';
+    this.socket.onmessage = (event) => this.handleFrame(new Uint8Array(event.data));
+    // The server closes viewers that fall behind; a new connection starts from a keyframe
+    this.socket.onclose = () => {
+        if (!this.closed) {
+            this.frameTime = null;
+            setTimeout(() => {
+                if (!this.closed) {
+                    this.connect();
+                }
+            }, 1000);
+        }
+    };
+};
+
+PositionFeed.prototype.close = function() {
+    this.closed = true;
+    this.socket.close();
+};
+
+PositionFeed.prototype.handleFrame = function(bytes) {
+    let offset = 0;
+
+    // Values are small enough to stay exact in doubles, so avoid 32-bit bit operations
+    const readVarint = () => {
+        let value = 0;
+        let scale = 1;
+        let b;
+        do {
+            b = bytes[offset++];
+            value += (b & 0x7f) * scale;
+            scale *= 128;
+        } while (b & 0x80);
+        return value;
+    };
+    const readZigZag = () => {
+        const value = readVarint();
+        return value % 2 === 0 ? value / 2 : -(value + 1) / 2;
+    };
+
+    const keyframe = bytes[offset++] === 0;
+    const time = readVarint();
+
+    // A delta frame is meaningless until the first keyframe arrives
+    if (!keyframe && this.frameTime === null) {
+        return;
+    }
+
+    this.frameTime = keyframe ? time : this.frameTime + time;
+    if (keyframe) {
+        this.positions = {};
+    }
+
+    const count = readVarint();
+    for (let i = 0; i < count; i++) {
+        const driver = readVarint();
+        const x = readZigZag();
+        const y = readZigZag();
+        const previous = this.positions[driver];
+        if (keyframe || !previous) {
+            this.positions[driver] = { x: x, y: y };
+        } else {
+            previous.x += x;
+            previous.y += y;
+        }
+    }
+
+    if (this.onFrame) {
+        this.onFrame(this.frameTime, this.positions);
+    }
+};